@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.renderer.AsciidoctorRuntime;
+import io.spring.renderer.RendererProperties;
+import io.spring.renderer.guides.content.AsciidoctorGuideContentContributor;
+import io.spring.renderer.guides.content.CodeBlockHighlighter;
+import org.asciidoctor.Asciidoctor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.cache.support.NoOpCacheManager;
+
+/**
+ * Benchmarks for {@link AsciidoctorGuideContentContributor}, on the sample guide and on
+ * synthetic guides with an increasing number of sections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AsciidoctorGuideContentContributorBenchmark {
+
+	@Param({ "gs-sample", "synthetic-10", "synthetic-100" })
+	public String guide;
+
+	private Asciidoctor asciidoctor;
+
+	private AsciidoctorGuideContentContributor contributor;
+
+	private File repositoryRoot;
+
+	@Setup
+	public void setup() throws IOException {
+		if (this.guide.startsWith("synthetic-")) {
+			this.repositoryRoot = BenchmarkResources
+				.writeSyntheticGuide(Integer.parseInt(this.guide.substring("synthetic-".length())));
+		}
+		else {
+			this.repositoryRoot = BenchmarkResources.unpackArchive("guides/" + this.guide + ".zip");
+		}
+		this.asciidoctor = Asciidoctor.Factory.create();
+		RendererProperties properties = new RendererProperties();
+		this.contributor = new AsciidoctorGuideContentContributor(AsciidoctorRuntime.of(this.asciidoctor),
+				new GuideRenderMetrics(new SimpleMeterRegistry(), properties), new GuideAssetStore(properties),
+				new CodeBlockHighlighter(properties, new NoOpCacheManager()));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.asciidoctor.close();
+		BenchmarkResources.deleteGuide(this.repositoryRoot);
+	}
+
+	@Benchmark
+	public GuideContentModel contribute() {
+		GuideContentModel guideContent = new GuideContentModel();
+		guideContent.setName(this.guide);
+		this.contributor.contribute(guideContent, this.repositoryRoot);
+		return guideContent;
+	}
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import io.spring.renderer.RendererProperties;
+import io.spring.renderer.github.Repository;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Sample guide archives and synthetic guides catalogs used by benchmarks.
+ */
+final class BenchmarkResources {
+
+	private static final String[] PROJECTS = { "spring-boot", "spring-framework", "spring-data", "spring-security",
+			"spring-cloud", "spring-batch", "spring-integration", "spring-amqp" };
+
+	private BenchmarkResources() {
+	}
+
+	/**
+	 * Read a sample guide archive from the test resources.
+	 * @param path the path of the archive, relative to {@code io/spring/renderer}
+	 * @return the archive as raw bytes
+	 */
+	static byte[] readArchive(String path) throws IOException {
+		ClassPathResource resource = new ClassPathResource("io/spring/renderer/" + path);
+		try (InputStream input = resource.getInputStream()) {
+			return StreamUtils.copyToByteArray(input);
+		}
+	}
+
+	/**
+	 * Unpack a sample guide archive in a temporary directory.
+	 * @param path the path of the archive, relative to {@code io/spring/renderer}
+	 * @return the root directory of the guide repository
+	 */
+	static File unpackArchive(String path) throws IOException {
+		File target = Files.createTempDirectory("guide-benchmark").toFile();
+		File root = null;
+		try (ZipInputStream zip = new ZipInputStream(new ClassPathResource("io/spring/renderer/" + path)
+			.getInputStream())) {
+			for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+				File file = new File(target, entry.getName());
+				if (entry.isDirectory()) {
+					file.mkdirs();
+					if (root == null) {
+						root = file;
+					}
+				}
+				else {
+					file.getParentFile().mkdirs();
+					try (FileOutputStream output = new FileOutputStream(file)) {
+						StreamUtils.copy(zip, output);
+					}
+				}
+			}
+		}
+		return root;
+	}
+
+	/**
+	 * Write a synthetic guide with the given number of sections in a temporary
+	 * directory. Each section has paragraphs, a source listing and an include of a local
+	 * source file, like a typical getting started guide.
+	 * @param sections the number of top level sections
+	 * @return the root directory of the guide repository
+	 */
+	static File writeSyntheticGuide(int sections) throws IOException {
+		File root = new File(Files.createTempDirectory("guide-benchmark").toFile(), "gs-synthetic");
+		File sources = new File(root, "complete/src/main/java/hello");
+		sources.mkdirs();
+		StringBuilder readme = new StringBuilder(":toc:\n:icons: font\n:source-highlighter: prettify\n\n");
+		readme.append("This guide walks you through the process of building an application with Spring.\n\n");
+		for (int i = 0; i < sections; i++) {
+			String source = "Sample" + i + ".java";
+			Files.writeString(new File(sources, source).toPath(), "package hello;\n\npublic class Sample" + i
+					+ " {\n\n\tpublic String greeting() {\n\t\treturn \"Hello, World!\";\n\t}\n\n}\n");
+			readme.append("== Section ").append(i).append("\n\n");
+			readme.append("You will build a `Sample").append(i).append("` class with a *greeting* method. ");
+			readme.append("See link:/understanding/REST[REST] for more details about the resource.\n\n");
+			readme.append("=== Details of section ").append(i).append("\n\n");
+			readme.append("[source,java]\n----\ninclude::complete/src/main/java/hello/")
+				.append(source)
+				.append("[]\n----\n\n");
+			readme.append("NOTE: The method returns a constant greeting.\n\n");
+		}
+		Files.writeString(new File(root, "README.adoc").toPath(), readme);
+		return root;
+	}
+
+	/**
+	 * Delete the temporary directory of a guide unpacked or written by this class.
+	 * @param repositoryRoot the root directory of the guide repository
+	 * @see #unpackArchive(String)
+	 * @see #writeSyntheticGuide(int)
+	 */
+	static void deleteGuide(File repositoryRoot) {
+		if (repositoryRoot != null) {
+			FileSystemUtils.deleteRecursively(repositoryRoot.getParentFile());
+		}
+	}
+
+	/**
+	 * Create a synthetic catalog of guide repositories.
+	 * @param size the number of repositories
+	 * @return the repositories
+	 */
+	static List<Repository> repositories(int size) {
+		List<Repository> repositories = new ArrayList<>(size);
+		String[] prefixes = { "gs-", "tut-", "top-", "deprecate-gs-" };
+		for (int i = 0; i < size; i++) {
+			String name = prefixes[i % prefixes.length] + "guide-" + i;
+			String url = "https://github.com/spring-guides/" + name;
+			List<String> topics = Arrays.asList(PROJECTS[i % PROJECTS.length],
+					PROJECTS[(i + 3) % PROJECTS.length]);
+			repositories.add(new Repository((long) i, name, "spring-guides/" + name,
+					"Guide " + i + " :: Learn how to build guide " + i + " with Spring", url,
+					"git://github.com/spring-guides/" + name + ".git", "git@github.com:spring-guides/" + name + ".git",
+					url + ".git", topics));
+		}
+		return repositories;
+	}
+
+	/**
+	 * Create renderer properties assigning some of the guides of a synthetic catalog to
+	 * categories.
+	 * @param size the number of repositories in the catalog
+	 * @return the renderer properties
+	 */
+	static RendererProperties properties(int size) {
+		RendererProperties properties = new RendererProperties();
+		for (int i = 0; i < size; i += 2) {
+			String name = "gs-guide-" + i;
+			String category = "category-" + (i % 10);
+			properties.getCategory()
+				.computeIfAbsent(category, (key) -> new RendererProperties.Webhook.Category())
+				.getGuide()
+				.add(name);
+			properties.getCategory().get(category).setDisplayName("Category " + (i % 10));
+			if (i % 20 == 0) {
+				properties.getAcademy().put(name, "https://spring.academy/guides/guide-" + i);
+			}
+		}
+		return properties;
+	}
+
+}
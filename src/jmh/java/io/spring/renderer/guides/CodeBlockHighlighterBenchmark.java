@@ -0,0 +1,95 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.renderer.RendererProperties;
+import io.spring.renderer.guides.content.CodeBlockHighlighter;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Entities;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+
+/**
+ * Benchmarks for {@link CodeBlockHighlighter}, highlighting the listings of a guide
+ * without cache, as on a first render, and with the listings already cached, as when a
+ * guide is rendered again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CodeBlockHighlighterBenchmark {
+
+	@Param({ "10", "100" })
+	public int listings;
+
+	@Param({ "none", "warm" })
+	public String cache;
+
+	private CodeBlockHighlighter highlighter;
+
+	private Document content;
+
+	@Setup
+	public void setup() {
+		RendererProperties properties = new RendererProperties();
+		properties.getHighlighting().setEnabled(true);
+		CacheManager cacheManager = "warm".equals(this.cache)
+				? new ConcurrentMapCacheManager(CodeBlockHighlighter.CACHE_NAME) : new NoOpCacheManager();
+		this.highlighter = new CodeBlockHighlighter(properties, cacheManager);
+		StringBuilder html = new StringBuilder();
+		for (int i = 0; i < this.listings; i++) {
+			html.append("<div class=\"listingblock\"><div class=\"content\"><pre class=\"prettyprint highlight\">");
+			html.append("<code class=\"language-java\" data-lang=\"java\">");
+			html.append(Entities.escape(source(i)));
+			html.append("</code></pre></div></div>");
+		}
+		this.content = Jsoup.parse(html.toString());
+		this.highlighter.highlight(this.content.clone().body());
+	}
+
+	private String source(int i) {
+		return String.join("\n", List.of("package hello;", "", "import org.springframework.web.bind.annotation.*;",
+				"", "@RestController", "public class GreetingController" + i + " {", "",
+				"\t// Counts the greetings served so far", "\tprivate final AtomicLong counter = new AtomicLong();",
+				"", "\t@GetMapping(\"/greeting\")",
+				"\tpublic Greeting greeting(@RequestParam(defaultValue = \"World\") String name) {",
+				"\t\treturn new Greeting(counter.incrementAndGet(), String.format(\"Hello, %s!\", name));", "\t}",
+				"", "}"));
+	}
+
+	@Benchmark
+	public Document highlight() {
+		Document document = this.content.clone();
+		this.highlighter.highlight(document.body());
+		return document;
+	}
+
+}
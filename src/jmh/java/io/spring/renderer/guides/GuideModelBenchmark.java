@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.renderer.github.Repository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for the construction of a {@link GuideModel}, with and without its links.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GuideModelBenchmark {
+
+	private final GuideModelAssembler assembler = new GuideModelAssembler();
+
+	private GuideMetadata metadata;
+
+	@Setup
+	public void setup() {
+		Repository repository = BenchmarkResources.repositories(1).get(0);
+		this.metadata = new GuideMetadata(repository, "https://spring.academy/guides/guide-0",
+				Collections.singleton("Category 0"));
+	}
+
+	@Benchmark
+	public GuideModel createModel() {
+		return new GuideModel(this.metadata);
+	}
+
+	@Benchmark
+	public GuideModel assembleModel() {
+		return this.assembler.toModel(this.metadata);
+	}
+
+}
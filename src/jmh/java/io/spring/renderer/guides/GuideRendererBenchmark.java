@@ -0,0 +1,80 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.renderer.RendererProperties;
+import io.spring.renderer.github.GithubClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+/**
+ * Benchmarks for {@link GuideRenderer}, covering the extraction of the downloaded
+ * repository archive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GuideRendererBenchmark {
+
+	@Param({ "guides/gs-sample.zip", "github/gs-rest-service.zip" })
+	public String archive;
+
+	private GuideRenderer renderer;
+
+	@Setup
+	public void setup() throws IOException {
+		byte[] zipball = BenchmarkResources.readArchive(this.archive);
+		RendererProperties properties = new RendererProperties();
+		GithubClient githubClient = new GithubClient(new RestTemplateBuilder(), properties) {
+
+			@Override
+			public byte[] downloadRepositoryAsZipball(String organization, String repository) {
+				return zipball;
+			}
+
+		};
+		GuideRenderMetrics metrics = new GuideRenderMetrics(new SimpleMeterRegistry(), properties);
+		this.renderer = new GuideRenderer(new ZipballGuideSource(githubClient, metrics), properties,
+				Collections.emptyList(), metrics);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.renderer.destroy();
+	}
+
+	@Benchmark
+	public GuideContentModel extractArchive() {
+		return this.renderer.render(GuideType.GETTING_STARTED, "sample");
+	}
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.renderer.RendererProperties;
+import io.spring.renderer.github.Repository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for searching a {@link GuideSearchIndex} holding the metadata and the
+ * rendered content of a synthetic catalog, for a query matching a few guides and for a
+ * query matching most of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GuideSearchIndexBenchmark {
+
+	@Param({ "50", "500", "5000" })
+	public int catalogSize;
+
+	@Param({ "guide 42", "spring security" })
+	public String query;
+
+	private GuideSearchIndex index;
+
+	@Setup
+	public void setup() {
+		this.index = new GuideSearchIndex();
+		List<Repository> repositories = BenchmarkResources.repositories(this.catalogSize);
+		RendererProperties properties = BenchmarkResources.properties(this.catalogSize);
+		for (Repository repository : repositories) {
+			GuideModel guide = new GuideModel(new GuideMetadata(repository,
+					properties.getAcademy().get(repository.getName()), Collections.singleton("Misc")));
+			if (GuideType.UNKNOWN.equals(guide.getType())) {
+				continue;
+			}
+			this.index.indexMetadata(guide);
+			this.index.indexContent(guide.getType(), guide.getName(), new GuideContentModel(guide.getName(),
+					content(guide.getName(), repository.getTopics()), ""));
+		}
+	}
+
+	private String content(String name, List<String> topics) {
+		StringBuilder html = new StringBuilder();
+		for (int i = 0; i < 20; i++) {
+			html.append("<div class=\"sect1\"><h2>Section ").append(i).append(" of ").append(name).append("</h2>");
+			html.append("<p>You will build an application with <code>")
+				.append(String.join("</code> and <code>", topics));
+			html.append("</code>, then run it and test it with a <strong>client</strong>.</p></div>");
+		}
+		return html.toString();
+	}
+
+	@Benchmark
+	public List<GuideSearchIndex.Result> search() {
+		return this.index.search(this.query, 50);
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.renderer.RendererProperties;
+import io.spring.renderer.github.GithubClient;
+import io.spring.renderer.github.Repository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.hateoas.CollectionModel;
+
+/**
+ * Benchmarks for the assembly of the guides catalog by {@link GuidesController}, and for
+ * the filtering of the cached catalog, on synthetic catalogs of increasing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GuidesControllerBenchmark {
+
+	private static final GuidesQuery ALL_QUERY = new GuidesQuery(null, null, null, null, null);
+
+	private static final GuidesQuery FILTERED_QUERY = new GuidesQuery("getting-started", null, "spring-data", null,
+			null);
+
+	@Param({ "50", "500", "5000" })
+	public int catalogSize;
+
+	private GuidesController controller;
+
+	private GuidesController cachingController;
+
+	@Setup
+	public void setup() {
+		List<Repository> repositories = BenchmarkResources.repositories(this.catalogSize);
+		RendererProperties properties = BenchmarkResources.properties(this.catalogSize);
+		GithubClient githubClient = new GithubClient(new RestTemplateBuilder(), properties) {
+
+			@Override
+			public List<Repository> fetchOrgRepositories(String organization) {
+				return repositories;
+			}
+
+		};
+		GithubGuideCatalog catalog = new GithubGuideCatalog(githubClient);
+		this.controller = new GuidesController(null, catalog, new GuideSearchIndex(), new RenderBulkhead(properties),
+				new NoOpCacheManager(), properties);
+		this.cachingController = new GuidesController(null, catalog, new GuideSearchIndex(),
+				new RenderBulkhead(properties), new ConcurrentMapCacheManager(), properties);
+		this.cachingController.listGuides(FILTERED_QUERY);
+	}
+
+	@Benchmark
+	public CollectionModel<GuideModel> listGuides() {
+		return this.controller.listGuides(ALL_QUERY);
+	}
+
+	@Benchmark
+	public CollectionModel<GuideModel> filterCachedGuides() {
+		return this.cachingController.listGuides(FILTERED_QUERY);
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides.webhook;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for reading the fields of a push event payload, either by binding the whole
+ * payload to a {@link Map} or by extracting them with a streaming parser as
+ * {@link PushEvent} does. Payloads grow with the number of pushed commits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PushEventBenchmark {
+
+	@Param({ "2", "100", "1000" })
+	private int commits;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private byte[] payload;
+
+	@Setup
+	public void setup() throws IOException {
+		List<Map<String, Object>> commitList = new ArrayList<>();
+		for (int i = 0; i < this.commits; i++) {
+			commitList.add(commit(i));
+		}
+		Map<String, Object> repository = new LinkedHashMap<>();
+		repository.put("id", 11634233);
+		repository.put("name", "gs-rest-service");
+		repository.put("url", "https://github.com/spring-guides/gs-rest-service");
+		repository.put("description", "Building a RESTful Web Service :: Learn how to create a RESTful web service");
+		repository.put("owner", Map.of("name", "spring-guides", "email", "spring-guides@example.org"));
+		Map<String, Object> push = new LinkedHashMap<>();
+		push.put("ref", "refs/heads/main");
+		push.put("before", "3193db21394092a84d973bef8c4a3741aec1b814");
+		push.put("after", "a427f3f4db6c96ae5e86b610d0eef149393c9996");
+		push.put("commits", commitList);
+		push.put("head_commit", commit(this.commits));
+		push.put("repository", repository);
+		push.put("pusher", Map.of("name", "spring-builds", "email", "builds@example.org"));
+		this.payload = this.objectMapper.writeValueAsBytes(push);
+	}
+
+	private Map<String, Object> commit(int index) {
+		Map<String, Object> commit = new LinkedHashMap<>();
+		commit.put("id", String.format("%040x", index));
+		commit.put("distinct", true);
+		commit.put("message", "Upgrade to Spring Boot 3.2." + index + "\n\nSee gh-" + index);
+		commit.put("timestamp", "2024-05-01T10:15:30Z");
+		commit.put("url", "https://github.com/spring-guides/gs-rest-service/commit/" + String.format("%040x", index));
+		Map<String, String> author = Map.of("name", "Spring Builds", "email", "builds@example.org", "username",
+				"spring-builds");
+		commit.put("author", author);
+		commit.put("committer", author);
+		commit.put("added", List.of());
+		commit.put("removed", List.of());
+		commit.put("modified", List.of("build.gradle", "pom.xml", "complete/build.gradle", "complete/pom.xml"));
+		return commit;
+	}
+
+	@Benchmark
+	public Object bindMap() throws IOException {
+		Map<?, ?> push = this.objectMapper.readValue(this.payload, Map.class);
+		return ((Map<?, ?>) push.get("head_commit")).get("message");
+	}
+
+	@Benchmark
+	public PushEvent streamFields() throws IOException {
+		return PushEvent.parse(this.objectMapper.getFactory(), this.payload);
+	}
+
+}
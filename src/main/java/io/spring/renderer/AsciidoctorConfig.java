@@ -16,20 +16,19 @@
 
 package io.spring.renderer;
 
-import org.asciidoctor.Asciidoctor;
-
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
- * Create the Asciidoctor engine
+ * Create the Asciidoctor engine, in the background while the rest of the application
+ * starts
  */
 @Configuration
 public class AsciidoctorConfig {
 
 	@Bean
-	public Asciidoctor asciidoctor() {
-		return Asciidoctor.Factory.create();
+	public AsciidoctorRuntime asciidoctorRuntime() {
+		return AsciidoctorRuntime.bootstrap();
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.asciidoctor.Asciidoctor;
+
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Holds the {@link Asciidoctor} engine. Creating it boots JRuby, which takes a
+ * significant part of the application startup, so it can be created on a background
+ * thread while the rest of the application starts.
+ */
+public class AsciidoctorRuntime implements DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(AsciidoctorRuntime.class);
+
+	private final CompletableFuture<Asciidoctor> asciidoctor;
+
+	private volatile Duration bootstrapDuration = Duration.ZERO;
+
+	private AsciidoctorRuntime(CompletableFuture<Asciidoctor> asciidoctor) {
+		this.asciidoctor = asciidoctor;
+	}
+
+	/**
+	 * Start creating the Asciidoctor engine on a background thread.
+	 * @return the runtime holding the engine being created
+	 */
+	public static AsciidoctorRuntime bootstrap() {
+		AsciidoctorRuntime runtime = new AsciidoctorRuntime(new CompletableFuture<>());
+		Thread thread = new Thread(runtime::create, "asciidoctor-bootstrap");
+		thread.setDaemon(true);
+		thread.start();
+		return runtime;
+	}
+
+	/**
+	 * Create a runtime for an existing Asciidoctor engine.
+	 * @param asciidoctor the Asciidoctor engine
+	 * @return the runtime holding the engine
+	 */
+	public static AsciidoctorRuntime of(Asciidoctor asciidoctor) {
+		return new AsciidoctorRuntime(CompletableFuture.completedFuture(asciidoctor));
+	}
+
+	private void create() {
+		long start = System.nanoTime();
+		try {
+			Asciidoctor engine = Asciidoctor.Factory.create();
+			this.bootstrapDuration = Duration.ofNanos(System.nanoTime() - start);
+			logger.info("Asciidoctor runtime created in " + this.bootstrapDuration.toMillis() + "ms");
+			this.asciidoctor.complete(engine);
+		}
+		catch (Throwable ex) {
+			logger.error("Asciidoctor runtime could not be created", ex);
+			this.asciidoctor.completeExceptionally(ex);
+		}
+	}
+
+	/**
+	 * Return the Asciidoctor engine, waiting for it to be created if necessary.
+	 * @return the Asciidoctor engine
+	 * @throws IllegalStateException if the engine could not be created
+	 */
+	public Asciidoctor get() {
+		try {
+			return this.asciidoctor.join();
+		}
+		catch (CompletionException ex) {
+			throw new IllegalStateException("Asciidoctor runtime could not be created", ex.getCause());
+		}
+	}
+
+	/**
+	 * Return a future completed once the Asciidoctor engine is created.
+	 * @return the future Asciidoctor engine
+	 */
+	public CompletableFuture<Asciidoctor> whenAvailable() {
+		return this.asciidoctor.copy();
+	}
+
+	/**
+	 * Return the time it took to create the Asciidoctor engine.
+	 * @return the bootstrap duration, or {@link Duration#ZERO} if it is not created yet
+	 */
+	public Duration getBootstrapDuration() {
+		return this.bootstrapDuration;
+	}
+
+	@Override
+	public void destroy() {
+		this.asciidoctor.thenAccept(Asciidoctor::close);
+	}
+
+}
@@ -35,7 +35,7 @@ public class IndexController {
 	@GetMapping(path = "/", produces = MediaTypes.HAL_JSON_VALUE)
 	public RepresentationModel index() {
 		RepresentationModel resource = new RepresentationModel();
-		resource.add(linkTo(methodOn(GuidesController.class).listGuides()).withRel("guides"));
+		resource.add(linkTo(methodOn(GuidesController.class).listGuides(null)).withRel("guides"));
 		return resource;
 	}
 
@@ -16,8 +16,13 @@
 
 package io.spring.renderer;
 
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -25,6 +30,7 @@ import io.spring.renderer.RendererProperties.Webhook.Category;
 import jakarta.validation.constraints.Pattern;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
 /**
@@ -43,6 +49,22 @@ public class RendererProperties {
 
 	private final Map<String, Category> category = new HashMap<>();
 
+	private final Metrics metrics = new Metrics();
+
+	private final Cache cache = new Cache();
+
+	private final Warmup warmup = new Warmup();
+
+	private final Cluster cluster = new Cluster();
+
+	private final Source source = new Source();
+
+	private final Render render = new Render();
+
+	private final Assets assets = new Assets();
+
+	private final Highlighting highlighting = new Highlighting();
+
 	public Github getGithub() {
 		return this.github;
 	}
@@ -55,6 +77,38 @@ public class RendererProperties {
 		return this.category;
 	}
 
+	public Metrics getMetrics() {
+		return this.metrics;
+	}
+
+	public Cache getCache() {
+		return this.cache;
+	}
+
+	public Warmup getWarmup() {
+		return this.warmup;
+	}
+
+	public Cluster getCluster() {
+		return this.cluster;
+	}
+
+	public Source getSource() {
+		return this.source;
+	}
+
+	public Render getRender() {
+		return this.render;
+	}
+
+	public Assets getAssets() {
+		return this.assets;
+	}
+
+	public Highlighting getHighlighting() {
+		return this.highlighting;
+	}
+
 	public static class Github {
 
 		/**
@@ -69,6 +123,22 @@ public class RendererProperties {
 		 */
 		private String organization = "spring-guides";
 
+		/**
+		 * Base URL of the Github API.
+		 */
+		private String apiUrl = "https://api.github.com";
+
+		/**
+		 * Timeout for establishing connections to the Github API.
+		 */
+		private Duration connectTimeout = Duration.ofSeconds(5);
+
+		/**
+		 * Timeout for receiving the response of the Github API, once the request is
+		 * sent.
+		 */
+		private Duration readTimeout = Duration.ofSeconds(30);
+
 		private Webhook webhook = new Webhook();
 
 		public String getToken() {
@@ -87,12 +157,591 @@ public class RendererProperties {
 			this.organization = organization;
 		}
 
+		public String getApiUrl() {
+			return this.apiUrl;
+		}
+
+		public void setApiUrl(String apiUrl) {
+			this.apiUrl = apiUrl;
+		}
+
+		public Duration getConnectTimeout() {
+			return this.connectTimeout;
+		}
+
+		public void setConnectTimeout(Duration connectTimeout) {
+			this.connectTimeout = connectTimeout;
+		}
+
+		public Duration getReadTimeout() {
+			return this.readTimeout;
+		}
+
+		public void setReadTimeout(Duration readTimeout) {
+			this.readTimeout = readTimeout;
+		}
+
 		public Webhook getWebhook() {
 			return this.webhook;
 		}
 
 	}
 
+	public static class Metrics {
+
+		/**
+		 * Whether guide rendering metrics should be tagged with the guide name, in
+		 * addition to the guide type. This increases the cardinality of the metrics.
+		 */
+		private boolean perGuideTags;
+
+		public boolean isPerGuideTags() {
+			return this.perGuideTags;
+		}
+
+		public void setPerGuideTags(boolean perGuideTags) {
+			this.perGuideTags = perGuideTags;
+		}
+
+	}
+
+	public static class Warmup {
+
+		/**
+		 * Number of times the bundled sample guide is rendered once the Asciidoctor
+		 * runtime is created, before the application reports ready.
+		 */
+		private int iterations = 3;
+
+		/**
+		 * Whether the application should exit once warmed up. Used by the training run
+		 * that records the class data sharing archive of the application.
+		 */
+		private boolean trainingRun;
+
+		public int getIterations() {
+			return this.iterations;
+		}
+
+		public void setIterations(int iterations) {
+			this.iterations = iterations;
+		}
+
+		public boolean isTrainingRun() {
+			return this.trainingRun;
+		}
+
+		public void setTrainingRun(boolean trainingRun) {
+			this.trainingRun = trainingRun;
+		}
+
+	}
+
+	public static class Cluster {
+
+		/**
+		 * Base URLs of the other replicas of this application, that should evict the
+		 * guides updated through a webhook received by this replica.
+		 */
+		private final List<URI> peers = new ArrayList<>();
+
+		/**
+		 * Timeout of the requests sent to peers.
+		 */
+		private Duration timeout = Duration.ofSeconds(2);
+
+		/**
+		 * Maximum difference between the time an eviction message was signed by a peer
+		 * and the time it is received, accounting for delivery delays and clock skew.
+		 * Older messages are rejected, so that they cannot be replayed.
+		 */
+		private Duration maxMessageAge = Duration.ofMinutes(1);
+
+		public List<URI> getPeers() {
+			return this.peers;
+		}
+
+		public Duration getTimeout() {
+			return this.timeout;
+		}
+
+		public void setTimeout(Duration timeout) {
+			this.timeout = timeout;
+		}
+
+		public Duration getMaxMessageAge() {
+			return this.maxMessageAge;
+		}
+
+		public void setMaxMessageAge(Duration maxMessageAge) {
+			this.maxMessageAge = maxMessageAge;
+		}
+
+	}
+
+	public static class Source {
+
+		/**
+		 * How the files of guide repositories are fetched from GitHub.
+		 */
+		private Mode mode = Mode.ZIPBALL;
+
+		/**
+		 * Maximum number of files fetched through the contents API for a single guide,
+		 * before falling back to downloading the repository as a zipball.
+		 */
+		private int maxFiles = 20;
+
+		/**
+		 * Directory holding local checkouts of the guide repositories, one directory per
+		 * repository, used when the mode is "mirror".
+		 */
+		private Path mirrorDirectory;
+
+		public Mode getMode() {
+			return this.mode;
+		}
+
+		public void setMode(Mode mode) {
+			this.mode = mode;
+		}
+
+		public int getMaxFiles() {
+			return this.maxFiles;
+		}
+
+		public void setMaxFiles(int maxFiles) {
+			this.maxFiles = maxFiles;
+		}
+
+		public Path getMirrorDirectory() {
+			return this.mirrorDirectory;
+		}
+
+		public void setMirrorDirectory(Path mirrorDirectory) {
+			this.mirrorDirectory = mirrorDirectory;
+		}
+
+		public enum Mode {
+
+			/**
+			 * Download entire repositories as zipballs.
+			 */
+			ZIPBALL,
+
+			/**
+			 * Download the readme and the files it includes through the contents API.
+			 */
+			CONTENTS,
+
+			/**
+			 * Render guides in place from local checkouts, and list them from the mirror
+			 * directory rather than from GitHub.
+			 */
+			MIRROR
+
+		}
+
+	}
+
+	public static class Render {
+
+		/**
+		 * Maximum time the rendering of a guide may take, from the download of its files
+		 * to the conversion of its content, before it is abandoned. Set to zero to not
+		 * limit the time renders may take.
+		 */
+		private Duration timeout = Duration.ofSeconds(60);
+
+		/**
+		 * Maximum number of guides rendered concurrently.
+		 */
+		private int maxConcurrent = 4;
+
+		/**
+		 * Maximum number of renders waiting for another render to complete. Renders are
+		 * rejected once the queue is full, unless a stale rendering of the guide can be
+		 * served.
+		 */
+		private int maxQueued = 16;
+
+		/**
+		 * Maximum time a render may wait in the queue before it is rejected.
+		 */
+		private Duration queueTimeout = Duration.ofSeconds(5);
+
+		/**
+		 * Time clients are asked to wait before retrying a rejected render.
+		 */
+		private Duration retryAfter = Duration.ofSeconds(10);
+
+		public Duration getTimeout() {
+			return this.timeout;
+		}
+
+		public void setTimeout(Duration timeout) {
+			this.timeout = timeout;
+		}
+
+		public int getMaxConcurrent() {
+			return this.maxConcurrent;
+		}
+
+		public void setMaxConcurrent(int maxConcurrent) {
+			this.maxConcurrent = maxConcurrent;
+		}
+
+		public int getMaxQueued() {
+			return this.maxQueued;
+		}
+
+		public void setMaxQueued(int maxQueued) {
+			this.maxQueued = maxQueued;
+		}
+
+		public Duration getQueueTimeout() {
+			return this.queueTimeout;
+		}
+
+		public void setQueueTimeout(Duration queueTimeout) {
+			this.queueTimeout = queueTimeout;
+		}
+
+		public Duration getRetryAfter() {
+			return this.retryAfter;
+		}
+
+		public void setRetryAfter(Duration retryAfter) {
+			this.retryAfter = retryAfter;
+		}
+
+	}
+
+	public static class Assets {
+
+		/**
+		 * Whether images referenced by guides are captured when they are rendered, and
+		 * served by the renderer rather than from the guide repositories. Images are only
+		 * captured once both the directory and the base URL are configured.
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * Directory holding captured images, named after the hash of their content. The
+		 * directory must be shared by all the replicas of the renderer and outlive them,
+		 * as rendered guides referencing the images are kept in cache snapshots and
+		 * served by every replica.
+		 */
+		private Path directory;
+
+		/**
+		 * Maximum size of a captured image. Larger images are left as they are.
+		 */
+		private DataSize maxFileSize = DataSize.ofMegabytes(2);
+
+		/**
+		 * Public base URL of the renderer, used to rewrite the URL of captured images.
+		 */
+		private String baseUrl;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Path getDirectory() {
+			return this.directory;
+		}
+
+		public void setDirectory(Path directory) {
+			this.directory = directory;
+		}
+
+		public DataSize getMaxFileSize() {
+			return this.maxFileSize;
+		}
+
+		public void setMaxFileSize(DataSize maxFileSize) {
+			this.maxFileSize = maxFileSize;
+		}
+
+		public String getBaseUrl() {
+			return this.baseUrl;
+		}
+
+		public void setBaseUrl(String baseUrl) {
+			this.baseUrl = baseUrl;
+		}
+
+	}
+
+	public static class Highlighting {
+
+		/**
+		 * Whether code listings are highlighted when guides are rendered, rather than by
+		 * the browsers displaying them.
+		 */
+		private boolean enabled;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+	}
+
+	public static class Cache {
+
+		/**
+		 * Cache of the guides catalog.
+		 */
+		private final CacheSpec guides = new CacheSpec();
+
+		/**
+		 * Cache of the guides metadata.
+		 */
+		private final CacheSpec guide = new CacheSpec();
+
+		/**
+		 * Cache of the rendered guides content.
+		 */
+		private final ContentCacheSpec guideContent = new ContentCacheSpec();
+
+		/**
+		 * Cache of the sections of the rendered guides content.
+		 */
+		private final CacheSpec guideSections = new CacheSpec();
+
+		/**
+		 * Cache of highlighted code listings, shared by all guides.
+		 */
+		private final CacheSpec codeHighlights = new CacheSpec();
+
+		/**
+		 * Last rendered content of each guide, served when a guide cannot be rendered
+		 * because too many guides are being rendered. Entries do not expire by default,
+		 * so that they outlive the entries of the rendered content cache, and are only
+		 * bounded by the memory they use and removed with their guide from the catalog.
+		 */
+		private final WeighedCacheSpec staleGuideContent = new WeighedCacheSpec(null, DataSize.ofMegabytes(32));
+
+		private final Snapshot snapshot = new Snapshot();
+
+		public CacheSpec getGuides() {
+			return this.guides;
+		}
+
+		public CacheSpec getGuide() {
+			return this.guide;
+		}
+
+		public ContentCacheSpec getGuideContent() {
+			return this.guideContent;
+		}
+
+		public CacheSpec getGuideSections() {
+			return this.guideSections;
+		}
+
+		public CacheSpec getCodeHighlights() {
+			return this.codeHighlights;
+		}
+
+		public WeighedCacheSpec getStaleGuideContent() {
+			return this.staleGuideContent;
+		}
+
+		public Snapshot getSnapshot() {
+			return this.snapshot;
+		}
+
+		public static class Snapshot {
+
+			/**
+			 * File the caches are written to on shutdown, and restored from on startup.
+			 * Snapshots are disabled when not set.
+			 */
+			private Path path;
+
+			/**
+			 * Maximum age of a snapshot for it to be restored.
+			 */
+			private Duration maxAge = Duration.ofHours(1);
+
+			public Path getPath() {
+				return this.path;
+			}
+
+			public void setPath(Path path) {
+				this.path = path;
+			}
+
+			public Duration getMaxAge() {
+				return this.maxAge;
+			}
+
+			public void setMaxAge(Duration maxAge) {
+				this.maxAge = maxAge;
+			}
+
+		}
+
+	}
+
+	public static class CacheSpec {
+
+		/**
+		 * Maximum number of entries the cache may contain.
+		 */
+		private long maximumSize = 500;
+
+		/**
+		 * Time after which an entry is removed from the cache, once it was last read or
+		 * written.
+		 */
+		private Duration expireAfterAccess;
+
+		/**
+		 * Time after which an entry is removed from the cache, once it was written,
+		 * regardless of reads.
+		 */
+		private Duration expireAfterWrite;
+
+		public CacheSpec() {
+			this(Duration.ofMinutes(30));
+		}
+
+		public CacheSpec(Duration expireAfterAccess) {
+			this.expireAfterAccess = expireAfterAccess;
+		}
+
+		public long getMaximumSize() {
+			return this.maximumSize;
+		}
+
+		public void setMaximumSize(long maximumSize) {
+			this.maximumSize = maximumSize;
+		}
+
+		public Duration getExpireAfterAccess() {
+			return this.expireAfterAccess;
+		}
+
+		public void setExpireAfterAccess(Duration expireAfterAccess) {
+			this.expireAfterAccess = expireAfterAccess;
+		}
+
+		public Duration getExpireAfterWrite() {
+			return this.expireAfterWrite;
+		}
+
+		public void setExpireAfterWrite(Duration expireAfterWrite) {
+			this.expireAfterWrite = expireAfterWrite;
+		}
+
+	}
+
+	public static class WeighedCacheSpec extends CacheSpec {
+
+		/**
+		 * Maximum amount of memory the cached content may use. Takes precedence over the
+		 * maximum number of entries when set.
+		 */
+		private DataSize maximumWeight;
+
+		public WeighedCacheSpec() {
+		}
+
+		public WeighedCacheSpec(Duration expireAfterAccess, DataSize maximumWeight) {
+			super(expireAfterAccess);
+			this.maximumWeight = maximumWeight;
+		}
+
+		public DataSize getMaximumWeight() {
+			return this.maximumWeight;
+		}
+
+		public void setMaximumWeight(DataSize maximumWeight) {
+			this.maximumWeight = maximumWeight;
+		}
+
+	}
+
+	public static class ContentCacheSpec extends WeighedCacheSpec {
+
+		/**
+		 * Whether the content and table of contents should be kept compressed in the
+		 * cache, and inflated when read.
+		 */
+		private boolean compressed;
+
+		private final Disk disk = new Disk();
+
+		public boolean isCompressed() {
+			return this.compressed;
+		}
+
+		public void setCompressed(boolean compressed) {
+			this.compressed = compressed;
+		}
+
+		public Disk getDisk() {
+			return this.disk;
+		}
+
+		public static class Disk {
+
+			/**
+			 * Whether entries evicted from memory should be spilled to a memory-mapped
+			 * file, and promoted back to memory when accessed.
+			 */
+			private boolean enabled;
+
+			/**
+			 * Directory of the file holding the spilled entries. A temporary directory
+			 * is used if not set.
+			 */
+			private Path directory;
+
+			/**
+			 * Maximum size of the file holding the spilled entries.
+			 */
+			private DataSize maximumSize = DataSize.ofMegabytes(256);
+
+			public boolean isEnabled() {
+				return this.enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+			}
+
+			public Path getDirectory() {
+				return this.directory;
+			}
+
+			public void setDirectory(Path directory) {
+				this.directory = directory;
+			}
+
+			public DataSize getMaximumSize() {
+				return this.maximumSize;
+			}
+
+			public void setMaximumSize(DataSize maximumSize) {
+				this.maximumSize = maximumSize;
+			}
+
+		}
+
+	}
+
 	public static class Webhook {
 
 		/**
@@ -115,6 +764,14 @@ public class RendererProperties {
 		 */
 		private String dispatchToken;
 
+		/**
+		 * How long to remember webhook deliveries, so that redeliveries are acknowledged
+		 * without being processed again.
+		 */
+		private Duration deduplicationWindow = Duration.ofHours(1);
+
+		private final Dispatch dispatch = new Dispatch();
+
 		public String getSecret() {
 			return this.secret;
 		}
@@ -147,6 +804,106 @@ public class RendererProperties {
 			this.dispatchToken = dispatchToken;
 		}
 
+		public Duration getDeduplicationWindow() {
+			return this.deduplicationWindow;
+		}
+
+		public void setDeduplicationWindow(Duration deduplicationWindow) {
+			this.deduplicationWindow = deduplicationWindow;
+		}
+
+		public Dispatch getDispatch() {
+			return this.dispatch;
+		}
+
+		public static class Dispatch {
+
+			/**
+			 * Directory of the queue of pending repository dispatches, which must be
+			 * specific to this instance and survive its restarts for pending dispatches
+			 * to be resumed. A new temporary directory is used on each start if not set.
+			 */
+			private Path queueDirectory;
+
+			/**
+			 * Delay before the first retry of a failed repository dispatch. The delay is
+			 * doubled for each subsequent attempt.
+			 */
+			private Duration initialBackoff = Duration.ofSeconds(1);
+
+			/**
+			 * Maximum delay between two attempts of a repository dispatch.
+			 */
+			private Duration maxBackoff = Duration.ofMinutes(5);
+
+			/**
+			 * Maximum number of attempts of a repository dispatch, after which it is
+			 * moved out of the queue.
+			 */
+			private int maxAttempts = 10;
+
+			/**
+			 * How long to wait for further webhooks before triggering a repository
+			 * dispatch, so that a burst of pushes results in a single dispatch.
+			 */
+			private Duration coalescingWindow = Duration.ofSeconds(10);
+
+			/**
+			 * Maximum delay between the reception of a webhook and its repository
+			 * dispatch, even if webhooks keep coming.
+			 */
+			private Duration maxDelay = Duration.ofMinutes(1);
+
+			public Path getQueueDirectory() {
+				return this.queueDirectory;
+			}
+
+			public void setQueueDirectory(Path queueDirectory) {
+				this.queueDirectory = queueDirectory;
+			}
+
+			public Duration getInitialBackoff() {
+				return this.initialBackoff;
+			}
+
+			public void setInitialBackoff(Duration initialBackoff) {
+				this.initialBackoff = initialBackoff;
+			}
+
+			public Duration getMaxBackoff() {
+				return this.maxBackoff;
+			}
+
+			public void setMaxBackoff(Duration maxBackoff) {
+				this.maxBackoff = maxBackoff;
+			}
+
+			public int getMaxAttempts() {
+				return this.maxAttempts;
+			}
+
+			public void setMaxAttempts(int maxAttempts) {
+				this.maxAttempts = maxAttempts;
+			}
+
+			public Duration getCoalescingWindow() {
+				return this.coalescingWindow;
+			}
+
+			public void setCoalescingWindow(Duration coalescingWindow) {
+				this.coalescingWindow = coalescingWindow;
+			}
+
+			public Duration getMaxDelay() {
+				return this.maxDelay;
+			}
+
+			public void setMaxDelay(Duration maxDelay) {
+				this.maxDelay = maxDelay;
+			}
+
+		}
+
 		public static class Category {
 
 			private String displayName;
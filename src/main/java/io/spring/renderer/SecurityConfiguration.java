@@ -17,6 +17,7 @@ package io.spring.renderer;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
@@ -32,7 +33,8 @@ public class SecurityConfiguration {
 	@Bean
 	public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
 		http.authorizeHttpRequests((request) -> {
-			request.requestMatchers("/webhook/guides").permitAll();
+			request.requestMatchers("/webhook/guides", "/webhook/evictions").permitAll();
+			request.requestMatchers(HttpMethod.GET, "/guides/assets/*").permitAll();
 			request.anyRequest().authenticated();
 		});
 		http.csrf(csrf -> csrf.ignoringRequestMatchers("/webhook/**"));
@@ -17,14 +17,17 @@
 package io.spring.renderer.github;
 
 import java.io.IOException;
+import java.net.http.HttpClient;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import io.spring.renderer.RendererProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +40,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.ClientHttpRequestExecution;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
@@ -49,8 +53,6 @@ import org.springframework.web.client.RestTemplate;
 @Component
 public class GithubClient {
 
-	public static final String API_URL_BASE = "https://api.github.com";
-
 	private static final Pattern NEXT_LINK_PATTERN = Pattern.compile(".*<([^>]*)>;\\s*rel=\"next\".*");
 
 	private static final Logger logger = LoggerFactory.getLogger(GithubClient.class);
@@ -63,13 +65,17 @@ public class GithubClient {
 
 	private static final String REPO_ZIPBALL_PATH = REPO_INFO_PATH + "/zipball";
 
+	private static final String REPO_CONTENTS_PATH = REPO_INFO_PATH + "/contents/{path}";
+
 	private static final MediaType GITHUB_PREVIEW_TYPE = MediaType
 		.parseMediaType("application/vnd.github.mercy-preview+json");
 
 	private final RestTemplate restTemplate;
 
 	public GithubClient(RestTemplateBuilder restTemplateBuilder, RendererProperties properties) {
-		restTemplateBuilder = restTemplateBuilder.rootUri(API_URL_BASE)
+		RendererProperties.Github github = properties.getGithub();
+		restTemplateBuilder = restTemplateBuilder.rootUri(github.getApiUrl())
+			.requestFactory(() -> requestFactory(github))
 			.additionalInterceptors(new GithubAcceptInterceptor());
 		if (StringUtils.hasText(properties.getGithub().getToken())) {
 			this.restTemplate = restTemplateBuilder
@@ -82,6 +88,23 @@ public class GithubClient {
 		}
 	}
 
+	/**
+	 * Create a request factory whose requests can be interrupted, so that a render whose
+	 * deadline expired does not wait for a slow download to complete, unlike a blocking
+	 * socket read.
+	 * @param github the Github properties
+	 * @return the request factory
+	 */
+	private static JdkClientHttpRequestFactory requestFactory(RendererProperties.Github github) {
+		HttpClient httpClient = HttpClient.newBuilder()
+			.connectTimeout(github.getConnectTimeout())
+			.followRedirects(HttpClient.Redirect.NORMAL)
+			.build();
+		JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+		requestFactory.setReadTimeout(github.getReadTimeout());
+		return requestFactory;
+	}
+
 	/**
 	 * Download a repository as a zipball
 	 * @param organization the github organization name
@@ -98,6 +121,34 @@ public class GithubClient {
 		}
 	}
 
+	/**
+	 * Download a single file of a repository through the contents API
+	 * @param organization the github organization name
+	 * @param repository the repository name
+	 * @param path the path of the file, relative to the root of the repository
+	 * @return the content of the file as raw bytes
+	 * @throws GithubResourceNotFoundException if there is no file at the given path
+	 * @throws IllegalStateException if the file is too large to be downloaded through
+	 * the contents API
+	 */
+	public byte[] downloadRepositoryFile(String organization, String repository, String path) {
+		RepositoryContent response;
+		try {
+			response = this.restTemplate.getForObject(REPO_CONTENTS_PATH, RepositoryContent.class, organization,
+					repository, path);
+		}
+		catch (HttpClientErrorException.NotFound ex) {
+			throw new GithubResourceNotFoundException(organization, repository, path, ex);
+		}
+		if (response == null || !"file".equals(response.type())) {
+			// Directories, symbolic links and submodules are not files to include
+			throw new GithubResourceNotFoundException(organization, repository, path, null);
+		}
+		Assert.state("base64".equals(response.encoding()), () -> "[" + path + "] in repository [" + repository
+				+ "] is too large to be downloaded through the contents API");
+		return Base64.getMimeDecoder().decode(response.content());
+	}
+
 	/**
 	 * Lists all the repositories available under the given organization
 	 * @param organization the github organization name
@@ -150,6 +201,11 @@ public class GithubClient {
 		return this.restTemplate.getForObject(RATE_LIMIT_PATH, RateLimit.class);
 	}
 
+	@JsonIgnoreProperties(ignoreUnknown = true)
+	private record RepositoryContent(String type, String encoding, String content) {
+
+	}
+
 	private static class GithubAppTokenInterceptor implements ClientHttpRequestInterceptor {
 
 		private final String token;
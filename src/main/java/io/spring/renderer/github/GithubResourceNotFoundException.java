@@ -29,6 +29,11 @@ public class GithubResourceNotFoundException extends RuntimeException {
 		this.resourceName = "Repository [" + orgName + "/" + repositoryName + "]";
 	}
 
+	public GithubResourceNotFoundException(String orgName, String repositoryName, String path, Throwable cause) {
+		super("Could not find [" + path + "] in github repository [" + orgName + "/" + repositoryName + "]", cause);
+		this.resourceName = "File [" + path + "] in repository [" + orgName + "/" + repositoryName + "]";
+	}
+
 	public GithubResourceNotFoundException(String orgName, Throwable cause) {
 		super("Could not find github organization [" + orgName + "]", cause);
 		this.resourceName = "Organization [" + orgName + "]";
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import io.spring.renderer.AsciidoctorRuntime;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+/**
+ * Report the {@link AsciidoctorRuntime} as out of service until it is created and warmed
+ * up. Part of the readiness group, so that no traffic is routed to the application before
+ * it can render guides at full speed.
+ */
+@Component
+class AsciidoctorHealthIndicator extends AbstractHealthIndicator {
+
+	private final AsciidoctorRuntime runtime;
+
+	private final AsciidoctorWarmup warmup;
+
+	AsciidoctorHealthIndicator(AsciidoctorRuntime runtime, AsciidoctorWarmup warmup) {
+		this.runtime = runtime;
+		this.warmup = warmup;
+	}
+
+	@Override
+	protected void doHealthCheck(Health.Builder builder) throws Exception {
+		if (!this.warmup.getCompletion().isDone()) {
+			builder.outOfService().withDetail("phase", this.runtime.whenAvailable().isDone() ? "warmup" : "bootstrap");
+			return;
+		}
+		// rethrows the failure to create the runtime, if any
+		this.warmup.getCompletion().join();
+		builder.up().withDetail("bootstrapTime", this.runtime.getBootstrapDuration().toMillis() + "ms");
+	}
+
+}
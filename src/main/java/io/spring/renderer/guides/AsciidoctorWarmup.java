@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.spring.renderer.AsciidoctorRuntime;
+import io.spring.renderer.RendererProperties;
+import io.spring.renderer.guides.content.GuideContentContributor;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Warm up the guide content contributors by rendering a bundled sample guide, once the
+ * {@link AsciidoctorRuntime} is created. JRuby code is slow until it is compiled, so this
+ * spares the first real renders from it. The duration of each startup phase is logged
+ * and recorded as a metric.
+ */
+@Component
+class AsciidoctorWarmup {
+
+	private static final Log logger = LogFactory.getLog(AsciidoctorWarmup.class);
+
+	private static final String WARMUP_GUIDE = "warmup/README.adoc";
+
+	private static final String PHASE_METRIC = "renderer.startup.phase";
+
+	private final AsciidoctorRuntime runtime;
+
+	private final List<GuideContentContributor> contributors;
+
+	private final MeterRegistry meterRegistry;
+
+	private final int iterations;
+
+	private final CompletableFuture<Void> completion;
+
+	AsciidoctorWarmup(AsciidoctorRuntime runtime, List<GuideContentContributor> contributors,
+			MeterRegistry meterRegistry, RendererProperties properties) {
+		this.runtime = runtime;
+		this.contributors = contributors;
+		this.meterRegistry = meterRegistry;
+		this.iterations = properties.getWarmup().getIterations();
+		Executor executor = (task) -> {
+			Thread thread = new Thread(task, "asciidoctor-warmup");
+			thread.setDaemon(true);
+			thread.start();
+		};
+		this.completion = runtime.whenAvailable().thenAcceptAsync((asciidoctor) -> warmup(), executor);
+	}
+
+	/**
+	 * Return a future completed once the Asciidoctor runtime is created and warmed up.
+	 * @return the warm-up completion
+	 */
+	CompletableFuture<Void> getCompletion() {
+		return this.completion;
+	}
+
+	private void warmup() {
+		recordPhase("asciidoctor-bootstrap", this.runtime.getBootstrapDuration());
+		long start = System.nanoTime();
+		File repositoryRoot = null;
+		try {
+			repositoryRoot = Files.createTempDirectory("guide-warmup").toFile();
+			try (InputStream readme = new ClassPathResource(WARMUP_GUIDE).getInputStream()) {
+				Files.copy(readme, new File(repositoryRoot, "README.adoc").toPath());
+			}
+			for (int i = 0; i < this.iterations; i++) {
+				GuideContentModel guideContent = new GuideContentModel();
+				guideContent.setName("warmup");
+				for (GuideContentContributor contributor : this.contributors) {
+					contributor.contribute(guideContent, repositoryRoot);
+				}
+			}
+			Duration warmup = Duration.ofNanos(System.nanoTime() - start);
+			recordPhase("warmup", warmup);
+			logger.info("Asciidoctor runtime warmed up with " + this.iterations + " renders in " + warmup.toMillis()
+					+ "ms");
+		}
+		catch (IOException | RuntimeException ex) {
+			// Readiness should not be held by a failed warm-up, renders will just be slower
+			logger.warn("Asciidoctor runtime warm-up failed", ex);
+		}
+		finally {
+			FileSystemUtils.deleteRecursively(repositoryRoot);
+		}
+	}
+
+	private void recordPhase(String phase, Duration duration) {
+		Timer.builder(PHASE_METRIC)
+			.description("Duration of the application startup phases")
+			.tag("phase", phase)
+			.register(this.meterRegistry)
+			.record(duration);
+	}
+
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.Links;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * A {@link GuideContentModel} response, with its content and table of contents kept
+ * deflated. It can be written to and read from a compact binary form, links being
+ * reduced to their relation and href.
+ */
+final class CompressedGuideContent {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final HttpStatusCode status;
+
+	private final HttpHeaders headers;
+
+	private final String name;
+
+	private final Links links;
+
+	private final byte[] content;
+
+	private final byte[] tableOfContents;
+
+	private CompressedGuideContent(HttpStatusCode status, HttpHeaders headers, String name, Links links,
+			byte[] content, byte[] tableOfContents) {
+		this.status = status;
+		this.headers = headers;
+		this.name = name;
+		this.links = links;
+		this.content = content;
+		this.tableOfContents = tableOfContents;
+	}
+
+	static CompressedGuideContent compress(ResponseEntity<?> entity) {
+		GuideContentModel guideContent = (GuideContentModel) entity.getBody();
+		return new CompressedGuideContent(entity.getStatusCode(), entity.getHeaders(), guideContent.getName(),
+				guideContent.getLinks(), deflate(guideContent.getContent()),
+				deflate(guideContent.getTableOfContents()));
+	}
+
+	ResponseEntity<GuideContentModel> inflate() {
+		GuideContentModel guideContent = new GuideContentModel(this.name, inflate(this.content),
+				inflate(this.tableOfContents));
+		guideContent.add(this.links);
+		return ResponseEntity.status(this.status).headers(this.headers).body(guideContent);
+	}
+
+	/**
+	 * Return the binary form of this content.
+	 * @return the serialized content
+	 */
+	byte[] toBytes() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(size() + 1024);
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+			output.writeShort(this.status.value());
+			output.writeShort(this.headers.size());
+			for (String header : this.headers.keySet()) {
+				List<String> values = this.headers.get(header);
+				output.writeUTF(header);
+				output.writeShort(values.size());
+				for (String value : values) {
+					output.writeUTF(value);
+				}
+			}
+			writeString(output, this.name);
+			output.writeShort(this.links.toList().size());
+			for (Link link : this.links) {
+				output.writeUTF(link.getRel().value());
+				output.writeUTF(link.getHref());
+			}
+			writeBytes(output, this.content);
+			writeBytes(output, this.tableOfContents);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Read content from its binary form.
+	 * @param data the serialized content
+	 * @return the content
+	 * @see #toBytes()
+	 */
+	static CompressedGuideContent fromBytes(byte[] data) {
+		try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(data))) {
+			HttpStatusCode status = HttpStatusCode.valueOf(input.readUnsignedShort());
+			HttpHeaders headers = new HttpHeaders();
+			int headersCount = input.readUnsignedShort();
+			for (int i = 0; i < headersCount; i++) {
+				String header = input.readUTF();
+				int valuesCount = input.readUnsignedShort();
+				for (int j = 0; j < valuesCount; j++) {
+					headers.add(header, input.readUTF());
+				}
+			}
+			String name = readString(input);
+			int linksCount = input.readUnsignedShort();
+			List<Link> links = new ArrayList<>(linksCount);
+			for (int i = 0; i < linksCount; i++) {
+				String rel = input.readUTF();
+				links.add(Link.of(input.readUTF(), rel));
+			}
+			return new CompressedGuideContent(status, headers, name, Links.of(links), readBytes(input),
+					readBytes(input));
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Serialized guide content is invalid", ex);
+		}
+	}
+
+	private static void writeString(DataOutputStream output, String text) throws IOException {
+		writeBytes(output, (text != null) ? text.getBytes(StandardCharsets.UTF_8) : null);
+	}
+
+	private static String readString(DataInputStream input) throws IOException {
+		byte[] bytes = readBytes(input);
+		return (bytes != null) ? new String(bytes, StandardCharsets.UTF_8) : null;
+	}
+
+	private static void writeBytes(DataOutputStream output, byte[] bytes) throws IOException {
+		output.writeInt((bytes != null) ? bytes.length : -1);
+		if (bytes != null) {
+			output.write(bytes);
+		}
+	}
+
+	private static byte[] readBytes(DataInputStream input) throws IOException {
+		int length = input.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		input.readFully(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Return the size of the compressed content and table of contents.
+	 * @return the size in bytes
+	 */
+	int size() {
+		return length(this.content) + length(this.tableOfContents);
+	}
+
+	private static int length(byte[] bytes) {
+		return (bytes != null) ? bytes.length : 0;
+	}
+
+	private static byte[] deflate(String text) {
+		if (text == null) {
+			return null;
+		}
+		byte[] input = text.getBytes(StandardCharsets.UTF_8);
+		Deflater deflater = new Deflater();
+		try {
+			deflater.setInput(input);
+			deflater.finish();
+			ByteArrayOutputStream output = new ByteArrayOutputStream(input.length / 4 + 64);
+			byte[] buffer = new byte[BUFFER_SIZE];
+			while (!deflater.finished()) {
+				int count = deflater.deflate(buffer);
+				output.write(buffer, 0, count);
+			}
+			return output.toByteArray();
+		}
+		finally {
+			deflater.end();
+		}
+	}
+
+	private static String inflate(byte[] data) {
+		if (data == null) {
+			return null;
+		}
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(data);
+			ByteArrayOutputStream output = new ByteArrayOutputStream(data.length * 4);
+			byte[] buffer = new byte[BUFFER_SIZE];
+			while (!inflater.finished()) {
+				int count = inflater.inflate(buffer);
+				if (count == 0 && inflater.needsInput()) {
+					throw new IllegalStateException("Compressed guide content is truncated");
+				}
+				output.write(buffer, 0, count);
+			}
+			return output.toString(StandardCharsets.UTF_8);
+		}
+		catch (DataFormatException ex) {
+			throw new IllegalStateException("Compressed guide content is invalid", ex);
+		}
+		finally {
+			inflater.end();
+		}
+	}
+
+}
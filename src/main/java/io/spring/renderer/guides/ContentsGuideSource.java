@@ -0,0 +1,183 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.micrometer.core.instrument.Timer;
+import io.spring.renderer.github.GithubClient;
+import io.spring.renderer.github.GithubResourceNotFoundException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link GuideSource} downloading only the readme of a guide and the local files it
+ * includes, through the GitHub contents API. Includes are followed transitively and
+ * resolved relative to the file that declares them, as Asciidoctor does. Remote includes
+ * are left to Asciidoctor.
+ * <p>
+ * Guides that cannot be fetched that way fall back to another {@link GuideSource}: when
+ * an include target uses attributes, which are only known once the document is parsed,
+ * when it points outside of the repository, when the guide includes more files than
+ * allowed, or when a file is too large for the contents API. Only files that do not exist
+ * are treated as missing includes: other failures, such as rate limits, fail the render.
+ */
+class ContentsGuideSource implements GuideSource {
+
+	static final String SOURCE_NAME = "contents";
+
+	private static final Log logger = LogFactory.getLog(ContentsGuideSource.class);
+
+	private static final String README_FILENAME = "README.adoc";
+
+	private static final Pattern INCLUDE_PATTERN = Pattern.compile("^include::([^\\[]+)\\[.*]\\s*$",
+			Pattern.MULTILINE);
+
+	private final GithubClient githubClient;
+
+	private final GuideRenderMetrics metrics;
+
+	private final GuideSource fallback;
+
+	private final int maxFiles;
+
+	ContentsGuideSource(GithubClient githubClient, GuideRenderMetrics metrics, GuideSource fallback, int maxFiles) {
+		this.githubClient = githubClient;
+		this.metrics = metrics;
+		this.fallback = fallback;
+		this.maxFiles = maxFiles;
+	}
+
+	@Override
+	public GuideFiles fetch(String organization, String repositoryName) throws IOException {
+		Timer.Sample downloadSample = this.metrics.startStage();
+		Map<String, byte[]> files = download(organization, repositoryName);
+		if (files == null) {
+			return this.fallback.fetch(organization, repositoryName);
+		}
+		this.metrics.stopStage(downloadSample, "download");
+
+		Timer.Sample writeSample = this.metrics.startStage();
+		File root = Files.createTempDirectory(organization + "-" + repositoryName).toFile();
+		try {
+			for (Map.Entry<String, byte[]> file : files.entrySet()) {
+				Path path = root.toPath().resolve(file.getKey());
+				Files.createDirectories(path.getParent());
+				Files.write(path, file.getValue());
+			}
+			this.metrics.stopStage(writeSample, "write");
+			return GuideFiles.temporary(root, root);
+		}
+		catch (IOException | RuntimeException ex) {
+			FileSystemUtils.deleteRecursively(root);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Download the readme and the files it includes.
+	 * @param organization the github organization name
+	 * @param repositoryName the name of the guide repository
+	 * @return the content of the files, keyed by their path in the repository, or
+	 * {@code null} if the guide should be fetched from the fallback source
+	 */
+	private Map<String, byte[]> download(String organization, String repositoryName) {
+		Map<String, byte[]> files = new LinkedHashMap<>();
+		Deque<String> pending = new ArrayDeque<>();
+		Set<String> seen = new HashSet<>();
+		pending.add(README_FILENAME);
+		seen.add(README_FILENAME);
+		long transferred = 0;
+		try {
+			while (!pending.isEmpty()) {
+				String path = pending.poll();
+				if (files.size() == this.maxFiles) {
+					logFallback(organization, repositoryName, "it includes more than " + this.maxFiles + " files");
+					return null;
+				}
+				byte[] content;
+				try {
+					content = this.githubClient.downloadRepositoryFile(organization, repositoryName, path);
+				}
+				catch (GithubResourceNotFoundException ex) {
+					if (README_FILENAME.equals(path)) {
+						logFallback(organization, repositoryName, "its readme could not be found");
+						return null;
+					}
+					// Asciidoctor reports missing includes in the rendered guide
+					continue;
+				}
+				catch (IllegalStateException ex) {
+					logFallback(organization, repositoryName, "[" + path + "] is too large for the contents API");
+					return null;
+				}
+				transferred += content.length;
+				files.put(path, content);
+				Matcher includes = INCLUDE_PATTERN.matcher(new String(content, StandardCharsets.UTF_8));
+				while (includes.find()) {
+					String target = includes.group(1).trim();
+					if (target.contains("://")) {
+						continue;
+					}
+					String included = resolve(path, target);
+					if (included == null) {
+						logFallback(organization, repositoryName, "include [" + target + "] cannot be resolved");
+						return null;
+					}
+					if (seen.add(included)) {
+						pending.add(included);
+					}
+				}
+			}
+			return files;
+		}
+		finally {
+			this.metrics.recordTransferredBytes(SOURCE_NAME, transferred);
+		}
+	}
+
+	private String resolve(String path, String target) {
+		if (target.contains("{") || target.startsWith("/")) {
+			return null;
+		}
+		String resolved = StringUtils.cleanPath(StringUtils.applyRelativePath(path, target));
+		return (resolved.startsWith("../") || resolved.equals("..")) ? null : resolved;
+	}
+
+	private void logFallback(String organization, String repositoryName, String reason) {
+		if (logger.isDebugEnabled()) {
+			logger.debug("Falling back to another source for " + organization + "/" + repositoryName + " as "
+					+ reason);
+		}
+	}
+
+}
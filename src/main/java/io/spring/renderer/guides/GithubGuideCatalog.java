@@ -0,0 +1,46 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.util.List;
+
+import io.spring.renderer.github.GithubClient;
+import io.spring.renderer.github.Repository;
+
+/**
+ * {@link GuideCatalog} listing the repositories of an organization through the GitHub
+ * API.
+ */
+class GithubGuideCatalog implements GuideCatalog {
+
+	private final GithubClient githubClient;
+
+	GithubGuideCatalog(GithubClient githubClient) {
+		this.githubClient = githubClient;
+	}
+
+	@Override
+	public List<Repository> fetchRepositories(String organization) {
+		return this.githubClient.fetchOrgRepositories(organization);
+	}
+
+	@Override
+	public Repository fetchRepository(String organization, String repositoryName) {
+		return this.githubClient.fetchOrgRepository(organization, repositoryName);
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import io.spring.renderer.RendererProperties;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Content-addressed store of the images referenced by guides. Images are captured from
+ * the guide repositories when guides are rendered, and named after the SHA-256 hash of
+ * their content, so that an image shared by several guides is only stored once and its
+ * URL changes whenever its content does.
+ * <p>
+ * Rendered guides outlive the instance that rendered them, through cache snapshots and
+ * stale content, and are served by every replica. Images are therefore only captured
+ * when both the directory of the store, shared by all replicas, and the base URL of the
+ * renderer are configured. The base URL is never derived from requests, as the rewritten
+ * content is cached for all clients.
+ */
+@Component
+public class GuideAssetStore {
+
+	/**
+	 * Path the captured images are served from.
+	 */
+	static final String ASSETS_PATH = "/guides/assets/";
+
+	private static final Log logger = LogFactory.getLog(GuideAssetStore.class);
+
+	private static final Set<String> EXTENSIONS = Set.of("png", "jpg", "jpeg", "gif", "svg", "webp");
+
+	private static final Pattern ASSET_NAME = Pattern.compile("[0-9a-f]{64}\\.(png|jpg|jpeg|gif|svg|webp)");
+
+	private final boolean enabled;
+
+	private final Path directory;
+
+	private final long maxFileSize;
+
+	private final String baseUrl;
+
+	public GuideAssetStore(RendererProperties properties) {
+		RendererProperties.Assets assets = properties.getAssets();
+		this.directory = assets.getDirectory();
+		this.maxFileSize = assets.getMaxFileSize().toBytes();
+		this.baseUrl = StringUtils.trimTrailingCharacter(assets.getBaseUrl(), '/');
+		this.enabled = assets.isEnabled() && this.directory != null && StringUtils.hasText(this.baseUrl);
+		if (assets.isEnabled() && !this.enabled) {
+			logger.info("Images referenced by guides are not captured, as renderer.assets.directory and "
+					+ "renderer.assets.base-url are not both configured");
+		}
+	}
+
+	/**
+	 * Capture the given image file.
+	 * @param file the image file, in a guide repository
+	 * @return the URL the image is served from, or {@code null} if the file is not an
+	 * image that can be captured
+	 */
+	public String capture(Path file) {
+		String extension = StringUtils.getFilenameExtension(file.getFileName().toString());
+		if (!this.enabled || extension == null || !EXTENSIONS.contains(extension.toLowerCase(Locale.ROOT))) {
+			return null;
+		}
+		try {
+			if (!Files.isRegularFile(file) || Files.size(file) > this.maxFileSize) {
+				return null;
+			}
+			byte[] data = Files.readAllBytes(file);
+			String name = hash(data) + "." + extension.toLowerCase(Locale.ROOT);
+			Path target = this.directory.resolve(name);
+			if (!Files.exists(target)) {
+				Files.createDirectories(this.directory);
+				Path temporary = Files.createTempFile(this.directory, "asset-", ".tmp");
+				Files.write(temporary, data);
+				Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			}
+			return this.baseUrl + ASSETS_PATH + name;
+		}
+		catch (IOException ex) {
+			logger.warn("Could not capture image " + file, ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Return the captured image with the given name.
+	 * @param name the name of the image
+	 * @return the image, or {@code null} if no image with that name was captured
+	 */
+	Resource find(String name) {
+		if (this.directory == null || !ASSET_NAME.matcher(name).matches()) {
+			return null;
+		}
+		Path file = this.directory.resolve(name);
+		return Files.isRegularFile(file) ? new FileSystemResource(file) : null;
+	}
+
+	private static String hash(byte[] data) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
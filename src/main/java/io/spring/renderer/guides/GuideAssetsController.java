@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.time.Duration;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Serve the images captured by the {@link GuideAssetStore}. Images are named after their
+ * content, so they can be cached by clients indefinitely.
+ */
+@RestController
+@RequestMapping("/guides/assets")
+public class GuideAssetsController {
+
+	private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+	/**
+	 * Prevent scripts embedded in SVG images from running when they are opened directly.
+	 */
+	private static final String CONTENT_SECURITY_POLICY = "default-src 'none'; style-src 'unsafe-inline'; sandbox";
+
+	private final GuideAssetStore assetStore;
+
+	public GuideAssetsController(GuideAssetStore assetStore) {
+		this.assetStore = assetStore;
+	}
+
+	@GetMapping("/{asset}")
+	public ResponseEntity<Resource> showAsset(@PathVariable String asset) {
+		Resource resource = this.assetStore.find(asset);
+		if (resource == null) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.ok()
+			.cacheControl(IMMUTABLE)
+			.eTag(StringUtils.stripFilenameExtension(asset))
+			.contentType(MediaTypeFactory.getMediaType(asset).orElse(MediaType.APPLICATION_OCTET_STREAM))
+			.header("Content-Security-Policy", CONTENT_SECURITY_POLICY)
+			.body(resource);
+	}
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.util.List;
+
+import io.spring.renderer.github.GithubResourceNotFoundException;
+import io.spring.renderer.github.Repository;
+
+/**
+ * Catalog of the guide repositories of an organization, listed by
+ * {@link GuidesController}.
+ */
+interface GuideCatalog {
+
+	/**
+	 * List all the repositories of the given organization.
+	 * @param organization the github organization name
+	 * @return the repositories of the organization
+	 */
+	List<Repository> fetchRepositories(String organization);
+
+	/**
+	 * Fetch the information of a repository of the given organization.
+	 * @param organization the github organization name
+	 * @param repositoryName the name of the repository
+	 * @return the repository information
+	 * @throws GithubResourceNotFoundException if the repository does not exist
+	 */
+	Repository fetchRepository(String organization, String repositoryName);
+
+}
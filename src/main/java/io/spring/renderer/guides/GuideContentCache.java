@@ -0,0 +1,223 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * {@link CaffeineCache} holding rendered {@link GuideContentModel guides content}.
+ * Entries are weighed by the size of their content, so that the cache can be bounded by
+ * a memory budget, and the content can be kept compressed in the cache and inflated when
+ * read. Entries evicted from memory can be spilled to a {@link GuideContentDiskStore},
+ * from which they are promoted back to memory when accessed.
+ */
+class GuideContentCache extends CaffeineCache {
+
+	/**
+	 * Estimated heap overhead of a cache entry, besides its content.
+	 */
+	private static final int ENTRY_OVERHEAD = 512;
+
+	/**
+	 * Estimated heap overhead of a string, besides its characters.
+	 */
+	private static final int STRING_OVERHEAD = 40;
+
+	private final boolean compressed;
+
+	private final GuideContentDiskStore diskStore;
+
+	GuideContentCache(String name, Cache<Object, Object> cache, boolean compressed) {
+		this(name, cache, compressed, null);
+	}
+
+	GuideContentCache(String name, Cache<Object, Object> cache, boolean compressed, GuideContentDiskStore diskStore) {
+		super(name, cache);
+		this.compressed = compressed;
+		this.diskStore = diskStore;
+	}
+
+	/**
+	 * Weigh a cache entry by the heap retained by its content. The JVM stores strings
+	 * made of Latin-1 characters only with one byte per character, and other strings
+	 * with two. The weight is an approximation: the links and headers of an entry are
+	 * accounted for by a fixed overhead, so the memory budget is approximate as well.
+	 * @param key the cache key
+	 * @param value the stored value
+	 * @return the estimated size of the entry in bytes
+	 */
+	static int weigh(Object key, Object value) {
+		if (value instanceof CompressedGuideContent compressedContent) {
+			return ENTRY_OVERHEAD + compressedContent.size();
+		}
+		if (value instanceof ResponseEntity<?> entity && entity.getBody() instanceof GuideContentModel content) {
+			return ENTRY_OVERHEAD + sizeOf(content.getContent()) + sizeOf(content.getTableOfContents());
+		}
+		return ENTRY_OVERHEAD;
+	}
+
+	private static int sizeOf(String html) {
+		if (html == null) {
+			return 0;
+		}
+		return STRING_OVERHEAD + (isLatin1(html) ? html.length() : html.length() * 2);
+	}
+
+	private static boolean isLatin1(String html) {
+		for (int i = 0; i < html.length(); i++) {
+			if (html.charAt(i) > 0xFF) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	protected Object lookup(Object key) {
+		Object value = super.lookup(key);
+		if (value == null && this.diskStore != null) {
+			value = promote(key);
+			if (value != null) {
+				getNativeCache().put(key, value);
+			}
+		}
+		return value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		if (this.diskStore == null) {
+			return super.get(key, valueLoader);
+		}
+		return super.get(key, () -> {
+			Object value = promote(key);
+			if (value != null) {
+				return (T) value;
+			}
+			T loaded = valueLoader.call();
+			this.diskStore.written(key);
+			return loaded;
+		});
+	}
+
+	private Object promote(Object key) {
+		CompressedGuideContent content = this.diskStore.promote(key);
+		if (content == null) {
+			return null;
+		}
+		return (this.compressed) ? content : content.inflate();
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		super.put(key, value);
+		if (this.diskStore != null) {
+			this.diskStore.written(key);
+		}
+	}
+
+	@Override
+	public void evict(Object key) {
+		super.evict(key);
+		if (this.diskStore != null) {
+			this.diskStore.remove(key);
+		}
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		boolean evicted = super.evictIfPresent(key);
+		if (this.diskStore != null) {
+			evicted = this.diskStore.remove(key) || evicted;
+		}
+		return evicted;
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		if (this.diskStore != null) {
+			this.diskStore.clear();
+		}
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean invalidated = super.invalidate();
+		if (this.diskStore != null) {
+			invalidated = this.diskStore.size() > 0 || invalidated;
+			this.diskStore.clear();
+		}
+		return invalidated;
+	}
+
+	/**
+	 * Return the compressed form of the content held in memory, for instance to take a
+	 * snapshot of this cache.
+	 * @return the compressed content, keyed by cache key
+	 */
+	Map<Object, CompressedGuideContent> compressedEntries() {
+		Map<Object, CompressedGuideContent> entries = new LinkedHashMap<>();
+		getNativeCache().asMap().forEach((key, value) -> {
+			if (value instanceof CompressedGuideContent compressedContent) {
+				entries.put(key, compressedContent);
+			}
+			else if (value instanceof ResponseEntity<?> entity && entity.getBody() instanceof GuideContentModel) {
+				entries.put(key, CompressedGuideContent.compress(entity));
+			}
+		});
+		return entries;
+	}
+
+	/**
+	 * Restore compressed content in memory, without compressing it again.
+	 * @param key the cache key
+	 * @param content the compressed content
+	 */
+	void restore(Object key, CompressedGuideContent content) {
+		getNativeCache().put(key, (this.compressed) ? content : content.inflate());
+		if (this.diskStore != null) {
+			this.diskStore.written(key);
+		}
+	}
+
+	@Override
+	protected Object toStoreValue(Object userValue) {
+		if (this.compressed && userValue instanceof ResponseEntity<?> entity
+				&& entity.getBody() instanceof GuideContentModel) {
+			return CompressedGuideContent.compress(entity);
+		}
+		return super.toStoreValue(userValue);
+	}
+
+	@Override
+	protected Object fromStoreValue(Object storeValue) {
+		if (storeValue instanceof CompressedGuideContent compressedContent) {
+			return compressedContent.inflate();
+		}
+		return super.fromStoreValue(storeValue);
+	}
+
+}
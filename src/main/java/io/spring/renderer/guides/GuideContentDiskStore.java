@@ -0,0 +1,262 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.Assert;
+
+/**
+ * Second tier of the {@link GuideContentCache}, holding entries evicted from memory in a
+ * memory-mapped, append-only file. The offset of each entry in the file is kept in an
+ * in-memory index. Space used by removed entries is only reclaimed once the file is
+ * full, at which point the store starts over from an empty file.
+ * <p>
+ * The store keeps track of the time the entries held in memory were written, so that
+ * spilled entries expire like entries in memory do. The time an entry was last read is
+ * not known once it is evicted from memory, so entries expire after access from the time
+ * they were spilled. Entries are removed from the store when they are promoted back to
+ * memory.
+ */
+final class GuideContentDiskStore implements Closeable {
+
+	private static final Log logger = LogFactory.getLog(GuideContentDiskStore.class);
+
+	private final Path file;
+
+	private final FileChannel channel;
+
+	private final MappedByteBuffer buffer;
+
+	private final Map<Object, Entry> index = new ConcurrentHashMap<>();
+
+	private final Map<Object, Long> writeTimes = new ConcurrentHashMap<>();
+
+	private final Duration expireAfterAccess;
+
+	private final Duration expireAfterWrite;
+
+	private final Ticker ticker;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private int position;
+
+	GuideContentDiskStore(Path directory, long maximumSize) throws IOException {
+		this(directory, maximumSize, null, null, Ticker.systemTicker());
+	}
+
+	GuideContentDiskStore(Path directory, long maximumSize, Duration expireAfterAccess, Duration expireAfterWrite)
+			throws IOException {
+		this(directory, maximumSize, expireAfterAccess, expireAfterWrite, Ticker.systemTicker());
+	}
+
+	GuideContentDiskStore(Path directory, long maximumSize, Duration expireAfterAccess, Duration expireAfterWrite,
+			Ticker ticker) throws IOException {
+		Assert.isTrue(maximumSize > 0 && maximumSize <= Integer.MAX_VALUE,
+				"Maximum size must be positive and at most 2GB");
+		Files.createDirectories(directory);
+		this.file = Files.createTempFile(directory, "guide-content-", ".cache");
+		this.channel = FileChannel.open(this.file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+				StandardOpenOption.DELETE_ON_CLOSE);
+		this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, maximumSize);
+		this.expireAfterAccess = expireAfterAccess;
+		this.expireAfterWrite = expireAfterWrite;
+		this.ticker = ticker;
+	}
+
+	/**
+	 * Record that a value was written in memory, replacing any entry spilled earlier.
+	 * @param key the cache key
+	 */
+	void written(Object key) {
+		this.index.remove(key);
+		this.writeTimes.put(key, this.ticker.read());
+	}
+
+	/**
+	 * Forget a value that expired in memory.
+	 * @param key the cache key
+	 */
+	void expired(Object key) {
+		this.writeTimes.remove(key);
+	}
+
+	/**
+	 * Spill a value evicted from memory. Values that are not rendered guide content, such
+	 * as not found responses, are cheap to recreate and are not stored.
+	 * @param key the cache key
+	 * @param value the value as stored in memory
+	 */
+	void spill(Object key, Object value) {
+		Long writeTime = this.writeTimes.remove(key);
+		long writtenAt = (writeTime != null) ? writeTime : this.ticker.read();
+		if (value instanceof CompressedGuideContent content) {
+			put(key, content, writtenAt);
+		}
+		else if (value instanceof ResponseEntity<?> entity && entity.getBody() instanceof GuideContentModel) {
+			put(key, CompressedGuideContent.compress(entity), writtenAt);
+		}
+	}
+
+	void put(Object key, CompressedGuideContent content) {
+		put(key, content, this.ticker.read());
+	}
+
+	private void put(Object key, CompressedGuideContent content, long writtenAt) {
+		byte[] data = content.toBytes();
+		if (data.length > this.buffer.capacity()) {
+			return;
+		}
+		this.lock.writeLock().lock();
+		try {
+			if (this.position + data.length > this.buffer.capacity()) {
+				logger.info("Guide content disk store is full, discarding " + this.index.size() + " entries");
+				this.index.clear();
+				this.position = 0;
+			}
+			this.buffer.put(this.position, data);
+			this.index.put(key, new Entry(this.position, data.length, writtenAt, this.ticker.read()));
+			this.position += data.length;
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Read an entry, leaving it in this store.
+	 * @param key the cache key
+	 * @return the content or {@code null} if there is no such entry or if it expired
+	 */
+	CompressedGuideContent get(Object key) {
+		this.lock.readLock().lock();
+		try {
+			Entry entry = this.index.get(key);
+			if (entry == null) {
+				return null;
+			}
+			if (isExpired(entry)) {
+				this.index.remove(key, entry);
+				return null;
+			}
+			return read(entry);
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Remove an entry from this store to promote it back to memory. The time the entry
+	 * was originally written is recorded again, so that it keeps expiring from then on.
+	 * @param key the cache key
+	 * @return the content or {@code null} if there is no such entry or if it expired
+	 */
+	CompressedGuideContent promote(Object key) {
+		this.lock.readLock().lock();
+		try {
+			Entry entry = this.index.remove(key);
+			if (entry == null || isExpired(entry)) {
+				return null;
+			}
+			this.writeTimes.put(key, entry.writtenAt());
+			return read(entry);
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	private boolean isExpired(Entry entry) {
+		long now = this.ticker.read();
+		return isElapsed(this.expireAfterWrite, entry.writtenAt(), now)
+				|| isElapsed(this.expireAfterAccess, entry.spilledAt(), now);
+	}
+
+	private boolean isElapsed(Duration duration, long since, long now) {
+		return duration != null && now - since >= duration.toNanos();
+	}
+
+	private CompressedGuideContent read(Entry entry) {
+		byte[] data = new byte[entry.length()];
+		this.buffer.get(entry.offset(), data);
+		return CompressedGuideContent.fromBytes(data);
+	}
+
+	boolean remove(Object key) {
+		this.writeTimes.remove(key);
+		return this.index.remove(key) != null;
+	}
+
+	void clear() {
+		this.lock.writeLock().lock();
+		try {
+			this.index.clear();
+			this.writeTimes.clear();
+			this.position = 0;
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Return the number of entries in this store.
+	 * @return the number of entries
+	 */
+	int size() {
+		return this.index.size();
+	}
+
+	@Override
+	public void close() {
+		this.lock.writeLock().lock();
+		try {
+			this.index.clear();
+			this.channel.close();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to close " + this.file, ex);
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	private record Entry(int offset, int length, long writtenAt, long spilledAt) {
+
+	}
+
+}
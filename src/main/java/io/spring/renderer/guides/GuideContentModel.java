@@ -16,6 +16,10 @@
 
 package io.spring.renderer.guides;
 
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import org.springframework.hateoas.RepresentationModel;
 
 /**
@@ -29,6 +33,8 @@ public class GuideContentModel extends RepresentationModel {
 
 	private String content;
 
+	private List<GuideSection> sections;
+
 	GuideContentModel(String name, String content, String tableOfContents) {
 		this.name = name;
 		this.content = content;
@@ -62,4 +68,19 @@ public class GuideContentModel extends RepresentationModel {
 		this.content = content;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Return the top level sections of the content, as split when the guide was
+	 * rendered. Sections are not part of the serialized content and are not retained
+	 * once the content is cached.
+	 * @return the sections of the content, or {@code null}
+	 */
+	@JsonIgnore
+	public List<GuideSection> getSections() {
+		return this.sections;
+	}
+
+	public void setSections(List<GuideSection> sections) {
+		this.sections = sections;
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Apply the {@code fields} request parameter of the {@link GuidesController} endpoints,
+ * projecting the guides of the response on the requested properties.
+ * <p>
+ * The projection is applied once the response body is resolved so that the cached
+ * guides are shared by all projections. The links of the guides are only kept when
+ * {@value GuideFieldsModel#LINKS_FIELD} is part of the requested fields.
+ */
+@ControllerAdvice(assignableTypes = GuidesController.class)
+class GuideFieldsAdvice implements ResponseBodyAdvice<Object> {
+
+	static final String FIELDS_PARAMETER = "fields";
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+			Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+			ServerHttpResponse response) {
+		if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+			return body;
+		}
+		String parameter = servletRequest.getServletRequest().getParameter(FIELDS_PARAMETER);
+		if (parameter == null) {
+			return body;
+		}
+		if (body instanceof GuideModel guide) {
+			return GuideFieldsModel.of(guide, parseFields(parameter));
+		}
+		if (body instanceof CollectionModel<?> collection && containsGuides(collection)) {
+			List<GuideFieldsModel> guides = project(collection, parseFields(parameter));
+			if (body instanceof PagedModel<?> page) {
+				return PagedModel.of(guides, page.getMetadata(), page.getLinks());
+			}
+			return CollectionModel.of(guides, collection.getLinks());
+		}
+		return body;
+	}
+
+	private Set<String> parseFields(String parameter) {
+		Set<String> fields = new LinkedHashSet<>();
+		for (String field : StringUtils.commaDelimitedListToStringArray(parameter)) {
+			String name = field.trim();
+			if (name.isEmpty()) {
+				continue;
+			}
+			if (!name.equals(GuideFieldsModel.LINKS_FIELD) && !GuideFieldsModel.fieldNames().contains(name)) {
+				throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown guide field " + name);
+			}
+			fields.add(name);
+		}
+		return fields;
+	}
+
+	private boolean containsGuides(CollectionModel<?> collection) {
+		for (Object content : collection.getContent()) {
+			if (!(content instanceof GuideModel)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private List<GuideFieldsModel> project(CollectionModel<?> collection, Set<String> fields) {
+		List<GuideFieldsModel> guides = new ArrayList<>(collection.getContent().size());
+		for (Object content : collection.getContent()) {
+			guides.add(GuideFieldsModel.of((GuideModel) content, fields));
+		}
+		return guides;
+	}
+
+}
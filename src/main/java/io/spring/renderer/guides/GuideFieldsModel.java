@@ -0,0 +1,103 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.core.Relation;
+
+/**
+ * Projection of a {@link GuideModel} on a subset of its properties, and optionally its
+ * links.
+ */
+@Relation(collectionRelation = "guides")
+class GuideFieldsModel extends RepresentationModel<GuideFieldsModel> {
+
+	/**
+	 * Name of the pseudo field that keeps the links of the guides in a projection.
+	 */
+	static final String LINKS_FIELD = "_links";
+
+	private static final Map<String, Function<GuideModel, Object>> PROPERTIES = new LinkedHashMap<>();
+
+	static {
+		PROPERTIES.put("name", GuideModel::getName);
+		PROPERTIES.put("repositoryName", GuideModel::getRepositoryName);
+		PROPERTIES.put("title", GuideModel::getTitle);
+		PROPERTIES.put("description", GuideModel::getDescription);
+		PROPERTIES.put("type", GuideModel::getType);
+		PROPERTIES.put("githubUrl", GuideModel::getGithubUrl);
+		PROPERTIES.put("gitUrl", GuideModel::getGitUrl);
+		PROPERTIES.put("sshUrl", GuideModel::getSshUrl);
+		PROPERTIES.put("cloneUrl", GuideModel::getCloneUrl);
+		PROPERTIES.put("projects", GuideModel::getProjects);
+		PROPERTIES.put("academyUrl", GuideModel::getAcademyUrl);
+		PROPERTIES.put("category", GuideModel::getCategory);
+	}
+
+	private final Map<String, Object> fields;
+
+	private GuideFieldsModel(Map<String, Object> fields) {
+		this.fields = fields;
+	}
+
+	/**
+	 * Project the given guide on the given fields.
+	 * @param guide the guide
+	 * @param fields the names of the properties to keep, and {@value #LINKS_FIELD} to keep
+	 * the links of the guide
+	 * @return the projection of the guide
+	 */
+	static GuideFieldsModel of(GuideModel guide, Collection<String> fields) {
+		Map<String, Object> values = new LinkedHashMap<>();
+		boolean links = false;
+		for (String field : fields) {
+			if (LINKS_FIELD.equals(field)) {
+				links = true;
+			}
+			else {
+				values.put(field, PROPERTIES.get(field).apply(guide));
+			}
+		}
+		GuideFieldsModel model = new GuideFieldsModel(values);
+		if (links) {
+			model.add(guide.getLinks());
+		}
+		return model;
+	}
+
+	/**
+	 * Return the names of the fields a guide can be projected on.
+	 * @return the names of the fields
+	 */
+	static Set<String> fieldNames() {
+		return PROPERTIES.keySet();
+	}
+
+	@JsonAnyGetter
+	public Map<String, Object> getFields() {
+		return this.fields;
+	}
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.File;
+
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Files of a guide repository made available locally by a {@link GuideSource}.
+ */
+final class GuideFiles implements AutoCloseable {
+
+	private final File root;
+
+	private final File[] temporaryFiles;
+
+	private GuideFiles(File root, File... temporaryFiles) {
+		this.root = root;
+		this.temporaryFiles = temporaryFiles;
+	}
+
+	/**
+	 * Files that are only available for the rendering, and are deleted once closed.
+	 * @param root the root directory of the repository
+	 * @param temporaryFiles the files and directories to delete once closed
+	 * @return the guide files
+	 */
+	static GuideFiles temporary(File root, File... temporaryFiles) {
+		return new GuideFiles(root, temporaryFiles);
+	}
+
+	/**
+	 * Files that outlive the rendering, such as those of a local mirror.
+	 * @param root the root directory of the repository
+	 * @return the guide files
+	 */
+	static GuideFiles existing(File root) {
+		return new GuideFiles(root);
+	}
+
+	File getRoot() {
+		return this.root;
+	}
+
+	@Override
+	public void close() {
+		for (File temporaryFile : this.temporaryFiles) {
+			FileSystemUtils.deleteRecursively(temporaryFile);
+		}
+	}
+
+}
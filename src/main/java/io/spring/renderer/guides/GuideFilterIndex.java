@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.hateoas.CollectionModel;
+
+/**
+ * Indexes of the guides of a catalog by type, category and project, so that filtering
+ * the catalog intersects precomputed sets rather than scanning every guide. An index is
+ * built for a given catalog instance, and is rebuilt once the cached catalog is
+ * replaced.
+ */
+final class GuideFilterIndex {
+
+	private final CollectionModel<GuideModel> catalog;
+
+	private final List<GuideModel> guides;
+
+	private final Map<GuideType, BitSet> types = new HashMap<>();
+
+	private final Map<String, BitSet> categories = new HashMap<>();
+
+	private final Map<String, BitSet> projects = new HashMap<>();
+
+	GuideFilterIndex(CollectionModel<GuideModel> catalog) {
+		this.catalog = catalog;
+		this.guides = new ArrayList<>(catalog.getContent());
+		for (int i = 0; i < this.guides.size(); i++) {
+			GuideModel guide = this.guides.get(i);
+			this.types.computeIfAbsent(guide.getType(), (key) -> new BitSet()).set(i);
+			for (String category : guide.getCategory()) {
+				this.categories.computeIfAbsent(normalize(category), (key) -> new BitSet()).set(i);
+			}
+			for (String project : guide.getProjects()) {
+				this.projects.computeIfAbsent(normalize(project), (key) -> new BitSet()).set(i);
+			}
+		}
+	}
+
+	/**
+	 * Return whether this index was built for the given catalog.
+	 * @param catalog the catalog
+	 * @return {@code true} if this index is up to date with the catalog
+	 */
+	boolean isIndexOf(CollectionModel<GuideModel> catalog) {
+		return this.catalog == catalog;
+	}
+
+	/**
+	 * Return the guides matching all the filters of the given query, in catalog order.
+	 * @param query the query
+	 * @return the matching guides
+	 */
+	List<GuideModel> filter(GuidesQuery query) {
+		BitSet matches = new BitSet(this.guides.size());
+		matches.set(0, this.guides.size());
+		if (query.type() != null) {
+			matches.and(lookup(this.types, GuideType.fromSlug(query.type())));
+		}
+		if (query.category() != null) {
+			matches.and(lookup(this.categories, normalize(query.category())));
+		}
+		if (query.project() != null) {
+			matches.and(lookup(this.projects, normalize(query.project())));
+		}
+		if (matches.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<GuideModel> guides = new ArrayList<>(matches.cardinality());
+		for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+			guides.add(this.guides.get(i));
+		}
+		return guides;
+	}
+
+	private static <K> BitSet lookup(Map<K, BitSet> index, K key) {
+		BitSet matches = index.get(key);
+		return (matches != null) ? matches : new BitSet();
+	}
+
+	private static String normalize(String value) {
+		return value.trim().toLowerCase(Locale.ROOT);
+	}
+
+}
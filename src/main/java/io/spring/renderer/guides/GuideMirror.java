@@ -0,0 +1,69 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Directory holding local checkouts of guide repositories, one directory per repository
+ * named after it.
+ */
+class GuideMirror {
+
+	private final Path directory;
+
+	GuideMirror(Path directory) {
+		this.directory = directory.toAbsolutePath().normalize();
+	}
+
+	/**
+	 * Find the checkout of the given repository.
+	 * @param repositoryName the name of the repository
+	 * @return the directory of the checkout, or {@code null} if the repository is not
+	 * mirrored
+	 */
+	Path find(String repositoryName) {
+		Path checkout = this.directory.resolve(repositoryName).normalize();
+		if (!checkout.getParent().equals(this.directory) || !isCheckout(checkout)) {
+			return null;
+		}
+		return checkout;
+	}
+
+	/**
+	 * List the checkouts of all the mirrored repositories, sorted by name.
+	 * @return the directories of the checkouts
+	 */
+	List<Path> checkouts() {
+		try (Stream<Path> children = Files.list(this.directory)) {
+			return children.filter(this::isCheckout).sorted().toList();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Could not list the mirrored repositories in " + this.directory, ex);
+		}
+	}
+
+	private boolean isCheckout(Path path) {
+		return Files.isDirectory(path) && !path.getFileName().toString().startsWith(".");
+	}
+
+}
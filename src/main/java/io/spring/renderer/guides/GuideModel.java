@@ -16,8 +16,13 @@
 
 package io.spring.renderer.guides;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import io.spring.renderer.github.Repository;
 
+import org.springframework.hateoas.Link;
 import org.springframework.hateoas.RepresentationModel;
 import org.springframework.hateoas.server.core.Relation;
 
@@ -81,6 +86,90 @@ class GuideModel extends RepresentationModel<GuideModel> {
 		this.category = guideMetadata.getCategory().toArray(new String[0]);
 	}
 
+	private GuideModel() {
+	}
+
+	/**
+	 * Write this guide, including its links, in a compact binary form.
+	 * @param output the output to write to
+	 * @throws IOException if the guide could not be written
+	 * @see #readFrom(DataInput)
+	 */
+	void writeTo(DataOutput output) throws IOException {
+		writeString(output, this.name);
+		writeString(output, this.repositoryName);
+		writeString(output, this.title);
+		writeString(output, this.description);
+		output.writeUTF(this.type.getSlug());
+		writeString(output, this.githubUrl);
+		writeString(output, this.gitUrl);
+		writeString(output, this.sshUrl);
+		writeString(output, this.cloneUrl);
+		writeStrings(output, this.projects);
+		writeString(output, this.academyUrl);
+		writeStrings(output, this.category);
+		output.writeShort(getLinks().toList().size());
+		for (Link link : getLinks()) {
+			output.writeUTF(link.getRel().value());
+			output.writeUTF(link.getHref());
+		}
+	}
+
+	/**
+	 * Read a guide from its binary form.
+	 * @param input the input to read from
+	 * @return the guide
+	 * @throws IOException if the guide could not be read
+	 * @see #writeTo(DataOutput)
+	 */
+	static GuideModel readFrom(DataInput input) throws IOException {
+		GuideModel guide = new GuideModel();
+		guide.name = readString(input);
+		guide.repositoryName = readString(input);
+		guide.title = readString(input);
+		guide.description = readString(input);
+		guide.type = GuideType.fromSlug(input.readUTF());
+		guide.githubUrl = readString(input);
+		guide.gitUrl = readString(input);
+		guide.sshUrl = readString(input);
+		guide.cloneUrl = readString(input);
+		guide.projects = readStrings(input);
+		guide.academyUrl = readString(input);
+		guide.category = readStrings(input);
+		int linksCount = input.readUnsignedShort();
+		for (int i = 0; i < linksCount; i++) {
+			String rel = input.readUTF();
+			guide.add(Link.of(input.readUTF(), rel));
+		}
+		return guide;
+	}
+
+	private static void writeString(DataOutput output, String value) throws IOException {
+		output.writeBoolean(value != null);
+		if (value != null) {
+			output.writeUTF(value);
+		}
+	}
+
+	private static String readString(DataInput input) throws IOException {
+		return (input.readBoolean()) ? input.readUTF() : null;
+	}
+
+	private static void writeStrings(DataOutput output, String[] values) throws IOException {
+		output.writeShort(values.length);
+		for (String value : values) {
+			output.writeUTF(value);
+		}
+	}
+
+	private static String[] readStrings(DataInput input) throws IOException {
+		String[] values = new String[input.readUnsignedShort()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = input.readUTF();
+		}
+		return values;
+	}
+
 	public String getName() {
 		return this.name;
 	}
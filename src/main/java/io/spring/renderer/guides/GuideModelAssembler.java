@@ -38,7 +38,7 @@ class GuideModelAssembler extends RepresentationModelAssemblerSupport<GuideMetad
 		resource
 			.add(linkTo(methodOn(GuidesController.class).renderGuide(resource.getType().getSlug(), resource.getName()))
 				.withRel("content"));
-		resource.add(linkTo(methodOn(GuidesController.class).listGuides()).withRel("guides"));
+		resource.add(linkTo(methodOn(GuidesController.class).listGuides(null)).withRel("guides"));
 		return resource;
 	}
 
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.nio.charset.StandardCharsets;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.spring.renderer.RendererProperties;
+import io.spring.renderer.guides.content.GuideContentContributor;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Records the duration of each stage of a guide rendering, as well as the size of the
+ * downloaded archives, of the transferred bytes and of the rendered content.
+ * Measurements taken while a render is in progress on the current thread are tagged with
+ * the type of the guide and, optionally, with its name.
+ */
+@Component
+public class GuideRenderMetrics {
+
+	private static final String RENDER_METRIC = "renderer.guides.render";
+
+	private static final String STAGE_METRIC = "renderer.guides.render.stage";
+
+	private static final String CONTRIBUTOR_METRIC = "renderer.guides.render.contributor";
+
+	private static final String ARCHIVE_SIZE_METRIC = "renderer.guides.render.archive.size";
+
+	private static final String CONTENT_SIZE_METRIC = "renderer.guides.render.content.size";
+
+	private static final String TRANSFERRED_METRIC = "renderer.guides.render.transferred";
+
+	private final ThreadLocal<Tags> renderTags = new ThreadLocal<>();
+
+	private final MeterRegistry meterRegistry;
+
+	private final boolean perGuideTags;
+
+	private final Tags defaultTags;
+
+	public GuideRenderMetrics(MeterRegistry meterRegistry, RendererProperties properties) {
+		this.meterRegistry = meterRegistry;
+		this.perGuideTags = properties.getMetrics().isPerGuideTags();
+		// stages measured outside of a render, e.g. during warm-up, use the same tag keys
+		this.defaultTags = guideTags("none", "none");
+	}
+
+	/**
+	 * Start recording the rendering of a guide on the current thread.
+	 * @param type the type of the guide
+	 * @param guideName the name of the guide
+	 * @return the render in progress, to be closed once the rendering is done
+	 */
+	Render startRender(GuideType type, String guideName) {
+		return new Render(guideTags(type.getSlug(), guideName));
+	}
+
+	private Tags guideTags(String type, String guideName) {
+		Tags tags = Tags.of("type", type);
+		return (this.perGuideTags) ? tags.and("guide", guideName) : tags;
+	}
+
+	/**
+	 * Start timing a rendering stage.
+	 * @return the sample to stop once the stage is done
+	 */
+	public Timer.Sample startStage() {
+		return Timer.start(this.meterRegistry);
+	}
+
+	/**
+	 * Stop timing a rendering stage.
+	 * @param sample the sample returned by {@link #startStage()}
+	 * @param stage the name of the stage
+	 */
+	public void stopStage(Timer.Sample sample, String stage) {
+		sample.stop(Timer.builder(STAGE_METRIC)
+			.description("Duration of a guide rendering stage")
+			.tags(currentTags())
+			.tag("stage", stage)
+			.register(this.meterRegistry));
+	}
+
+	void stopContributor(Timer.Sample sample, GuideContentContributor contributor) {
+		sample.stop(Timer.builder(CONTRIBUTOR_METRIC)
+			.description("Duration of a guide content contribution")
+			.tags(currentTags())
+			.tag("contributor", ClassUtils.getUserClass(contributor).getSimpleName())
+			.register(this.meterRegistry));
+	}
+
+	/**
+	 * Record the size of the archive downloaded for the guide being rendered.
+	 * @param bytes the size of the archive in bytes
+	 */
+	public void recordArchiveSize(long bytes) {
+		recordSize(ARCHIVE_SIZE_METRIC, "Size of the archives downloaded to render guides", currentTags(), bytes);
+	}
+
+	/**
+	 * Record the number of bytes transferred from GitHub for the guide being rendered.
+	 * @param source the name of the source the bytes were transferred with
+	 * @param bytes the number of bytes transferred
+	 */
+	public void recordTransferredBytes(String source, long bytes) {
+		recordSize(TRANSFERRED_METRIC, "Bytes transferred from GitHub to render guides",
+				currentTags().and("source", source), bytes);
+	}
+
+	private void recordSize(String name, String description, Tags tags, long bytes) {
+		DistributionSummary.builder(name)
+			.description(description)
+			.baseUnit(BaseUnits.BYTES)
+			.publishPercentileHistogram()
+			.tags(tags)
+			.register(this.meterRegistry)
+			.record(bytes);
+	}
+
+	private Tags currentTags() {
+		Tags tags = this.renderTags.get();
+		return (tags != null) ? tags : this.defaultTags;
+	}
+
+	private static long sizeOf(String html) {
+		return (html != null) ? html.getBytes(StandardCharsets.UTF_8).length : 0;
+	}
+
+	/**
+	 * A guide render in progress on the current thread.
+	 */
+	class Render implements AutoCloseable {
+
+		private final Tags tags;
+
+		private final Tags previousTags;
+
+		private final Timer.Sample sample;
+
+		private String outcome = "error";
+
+		Render(Tags tags) {
+			this.tags = tags;
+			this.previousTags = GuideRenderMetrics.this.renderTags.get();
+			GuideRenderMetrics.this.renderTags.set(tags);
+			this.sample = Timer.start(GuideRenderMetrics.this.meterRegistry);
+		}
+
+		/**
+		 * Mark this render as successful and record the size of its output.
+		 * @param guideContent the rendered guide content
+		 */
+		void success(GuideContentModel guideContent) {
+			this.outcome = "success";
+			long size = sizeOf(guideContent.getContent()) + sizeOf(guideContent.getTableOfContents());
+			recordSize(CONTENT_SIZE_METRIC, "Size of the rendered guides content", this.tags, size);
+		}
+
+		/**
+		 * Mark this render as abandoned because it did not complete before its deadline.
+		 */
+		void timeout() {
+			this.outcome = "timeout";
+		}
+
+		@Override
+		public void close() {
+			this.sample.stop(Timer.builder(RENDER_METRIC)
+				.description("Duration of guide renderings")
+				.publishPercentileHistogram()
+				.tags(this.tags)
+				.tag("outcome", this.outcome)
+				.register(GuideRenderMetrics.this.meterRegistry));
+			if (this.previousTags != null) {
+				GuideRenderMetrics.this.renderTags.set(this.previousTags);
+			}
+			else {
+				GuideRenderMetrics.this.renderTags.remove();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a guide is not rendered because the {@link RenderBulkhead} is full. The
+ * last content rendered for the guide, if any, can be served instead.
+ */
+class GuideRenderRejectedException extends RuntimeException {
+
+	private final Duration retryAfter;
+
+	private final CompressedGuideContent staleContent;
+
+	GuideRenderRejectedException(Duration retryAfter, CompressedGuideContent staleContent) {
+		super("Too many guides are being rendered", null, false, false);
+		this.retryAfter = retryAfter;
+		this.staleContent = staleContent;
+	}
+
+	Duration getRetryAfter() {
+		return this.retryAfter;
+	}
+
+	CompressedGuideContent getStaleContent() {
+		return this.staleContent;
+	}
+
+}
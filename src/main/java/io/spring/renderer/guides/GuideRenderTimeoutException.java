@@ -0,0 +1,31 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a guide could not be rendered before the deadline of its render.
+ */
+public class GuideRenderTimeoutException extends GuideRenderingException {
+
+	public GuideRenderTimeoutException(String repositoryName, Duration timeout, Throwable cause) {
+		super("Guide [" + repositoryName + "] could not be rendered within " + timeout.toMillis() + "ms",
+				repositoryName, cause);
+	}
+
+}
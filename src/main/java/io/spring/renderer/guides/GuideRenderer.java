@@ -16,41 +16,59 @@
 
 package io.spring.renderer.guides;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.Enumeration;
+import java.time.Duration;
 import java.util.List;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 
+import io.micrometer.core.instrument.Timer;
 import io.spring.renderer.RendererProperties;
-import io.spring.renderer.github.GithubClient;
 import io.spring.renderer.guides.content.GuideContentContributor;
 
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.util.FileSystemUtils;
-import org.springframework.util.StreamUtils;
 
 /**
- * Converts <code>org</code> and <code>repo</code> into a rendered guide. Downloads entire
- * repository from GitHub and unpacks it locally before running asciidoctor on the readme.
- * The result is the rendered HTML and table of contents.
+ * Converts <code>org</code> and <code>repo</code> into a rendered guide. Fetches the
+ * files of the repository from a {@link GuideSource} before running asciidoctor on the
+ * readme. The result is the rendered HTML and table of contents. Renders are abandoned
+ * once they exceed their deadline, their files being cleaned up as for any other
+ * failure.
  */
 @Component
-class GuideRenderer {
+class GuideRenderer implements DisposableBean {
 
-	private final GithubClient githubClient;
+	/**
+	 * Version of the rendered content. Must be incremented whenever a change to the
+	 * rendering changes the content, so that content rendered before is not restored from
+	 * a cache snapshot.
+	 */
+	static final int RENDER_VERSION = 1;
+
+	private final GuideSource guideSource;
 
 	private final RendererProperties properties;
 
 	private final List<GuideContentContributor> contributors;
 
-	public GuideRenderer(GithubClient githubClient, RendererProperties properties,
-			List<GuideContentContributor> contributors) {
-		this.githubClient = githubClient;
+	private final GuideRenderMetrics metrics;
+
+	private final Duration timeout;
+
+	private final ScheduledThreadPoolExecutor deadlineScheduler;
+
+	public GuideRenderer(GuideSource guideSource, RendererProperties properties,
+			List<GuideContentContributor> contributors, GuideRenderMetrics metrics) {
+		this.guideSource = guideSource;
 		this.properties = properties;
 		this.contributors = contributors;
+		this.metrics = metrics;
+		this.timeout = properties.getRender().getTimeout();
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("guide-render-deadline-");
+		threadFactory.setDaemon(true);
+		this.deadlineScheduler = new ScheduledThreadPoolExecutor(1, threadFactory);
+		this.deadlineScheduler.setRemoveOnCancelPolicy(true);
 	}
 
 	GuideContentModel render(GuideType type, String guideName) {
@@ -58,50 +76,52 @@ class GuideRenderer {
 		guideContent.setName(guideName);
 		String repositoryName = type.getPrefix() + guideName;
 		String org = this.properties.getGithub().getOrganization();
-		String tempFilePrefix = org + "-" + repositoryName;
-
-		File unzippedRoot = null;
-		File zipball = null;
-		try {
-			byte[] download = this.githubClient.downloadRepositoryAsZipball(org, repositoryName);
-			// First, write the downloaded stream of bytes into a file
-			zipball = File.createTempFile(tempFilePrefix, ".zip");
-			zipball.deleteOnExit();
-			FileOutputStream zipOut = new FileOutputStream(zipball);
-			zipOut.write(download);
-			zipOut.close();
-
-			// Open the zip file and unpack it
-			try (ZipFile zipFile = new ZipFile(zipball)) {
-				unzippedRoot = null;
-				for (Enumeration<? extends ZipEntry> e = zipFile.entries(); e.hasMoreElements();) {
-					ZipEntry entry = e.nextElement();
-					if (entry.isDirectory()) {
-						File dir = new File(zipball.getParent() + File.separator + entry.getName());
-						dir.mkdir();
-						if (unzippedRoot == null) {
-							unzippedRoot = dir; // first directory is the root
-						}
-					}
-					else {
-						StreamUtils.copy(zipFile.getInputStream(entry),
-								new FileOutputStream(zipball.getParent() + File.separator + entry.getName()));
-					}
+
+		try (GuideRenderMetrics.Render render = this.metrics.startRender(type, guideName);
+				RenderDeadline deadline = RenderDeadline.start(this.deadlineScheduler, this.timeout)) {
+			try (GuideFiles files = this.guideSource.fetch(org, repositoryName)) {
+				for (GuideContentContributor contentContributor : this.contributors) {
+					checkDeadline(deadline, repositoryName);
+					Timer.Sample contributorSample = this.metrics.startStage();
+					contentContributor.contribute(guideContent, files.getRoot());
+					this.metrics.stopContributor(contributorSample, contentContributor);
 				}
+				render.success(guideContent);
+				return guideContent;
 			}
-
-			for (GuideContentContributor contentContributor : this.contributors) {
-				contentContributor.contribute(guideContent, unzippedRoot);
+			catch (IOException ex) {
+				if (deadline.isExpired()) {
+					throw timedOut(render, repositoryName, ex);
+				}
+				throw new IllegalStateException("Could not fetch the files of " + org + "/" + repositoryName, ex);
+			}
+			catch (RuntimeException ex) {
+				if (deadline.isExpired()) {
+					throw timedOut(render, repositoryName, ex);
+				}
+				throw ex;
 			}
-			return guideContent;
 		}
-		catch (IOException ex) {
-			throw new IllegalStateException("Could not create temp file for source: " + tempFilePrefix, ex);
+	}
+
+	private void checkDeadline(RenderDeadline deadline, String repositoryName) {
+		if (deadline.isExpired()) {
+			throw new GuideRenderTimeoutException(repositoryName, this.timeout, null);
 		}
-		finally {
-			FileSystemUtils.deleteRecursively(zipball);
-			FileSystemUtils.deleteRecursively(unzippedRoot);
+	}
+
+	private GuideRenderTimeoutException timedOut(GuideRenderMetrics.Render render, String repositoryName,
+			Exception ex) {
+		render.timeout();
+		if (ex instanceof GuideRenderTimeoutException timeoutException) {
+			return timeoutException;
 		}
+		return new GuideRenderTimeoutException(repositoryName, this.timeout, ex);
+	}
+
+	@Override
+	public void destroy() {
+		this.deadlineScheduler.shutdownNow();
 	}
 
 }
@@ -21,7 +21,11 @@ public class GuideRenderingException extends RuntimeException {
 	private final String repositoryName;
 
 	public GuideRenderingException(String repositoryName, Throwable cause) {
-		super("Could not render guide [" + repositoryName + "]", cause);
+		this("Could not render guide [" + repositoryName + "]", repositoryName, cause);
+	}
+
+	protected GuideRenderingException(String message, String repositoryName, Throwable cause) {
+		super(message, cause);
 		this.repositoryName = repositoryName;
 	}
 
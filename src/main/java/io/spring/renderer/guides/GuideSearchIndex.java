@@ -0,0 +1,274 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory inverted index of the guides, used to search them by the words of their
+ * title, description, projects and rendered content. The metadata of the guides is
+ * indexed from the catalog, whenever the catalog is replaced, and guides that are no
+ * longer in the catalog are removed. The content of a guide is indexed once it is
+ * rendered or restored from a cache snapshot, replacing any previous version. Results
+ * are ranked with BM25, words of the title and of the projects weighing more than those
+ * of the content.
+ * <p>
+ * Updates are serialized, lookups are lock-free and only read the postings of the
+ * searched terms.
+ */
+@Component
+class GuideSearchIndex {
+
+	private static final float TITLE_WEIGHT = 5.0f;
+
+	private static final float PROJECT_WEIGHT = 3.0f;
+
+	private static final float DESCRIPTION_WEIGHT = 2.0f;
+
+	private static final float CONTENT_WEIGHT = 1.0f;
+
+	private static final double K1 = 1.2;
+
+	private static final double B = 0.75;
+
+	private static final int MIN_TERM_LENGTH = 2;
+
+	private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "are", "as", "at", "be", "by", "for",
+			"from", "in", "is", "it", "of", "on", "or", "that", "the", "this", "to", "with", "you", "your");
+
+	private final Map<String, Map<String, Float>> postings = new ConcurrentHashMap<>();
+
+	private final Map<String, Document> documents = new ConcurrentHashMap<>();
+
+	private final DoubleAdder totalLength = new DoubleAdder();
+
+	private volatile CollectionModel<GuideModel> catalog;
+
+	/**
+	 * Return whether the metadata of the guides of the given catalog is indexed.
+	 * @param catalog the catalog
+	 * @return {@code true} if this index is up to date with the catalog
+	 */
+	boolean isIndexOf(CollectionModel<GuideModel> catalog) {
+		return this.catalog == catalog;
+	}
+
+	/**
+	 * Index the metadata of all the guides of a catalog, and remove the guides that are
+	 * not part of it.
+	 * @param catalog the catalog
+	 */
+	synchronized void indexCatalog(CollectionModel<GuideModel> catalog) {
+		Set<String> ids = new HashSet<>();
+		for (GuideModel guide : catalog.getContent()) {
+			indexMetadata(guide);
+			ids.add(id(guide.getType(), guide.getName()));
+		}
+		for (String id : new ArrayList<>(this.documents.keySet())) {
+			if (!ids.contains(id)) {
+				update(id, null);
+			}
+		}
+		this.catalog = catalog;
+	}
+
+	/**
+	 * Index the metadata of a guide.
+	 * @param guide the guide
+	 */
+	synchronized void indexMetadata(GuideModel guide) {
+		if (GuideType.UNKNOWN.equals(guide.getType())) {
+			return;
+		}
+		Map<String, Float> terms = new HashMap<>();
+		addTerms(terms, guide.getTitle(), TITLE_WEIGHT);
+		addTerms(terms, guide.getDescription(), DESCRIPTION_WEIGHT);
+		for (String project : guide.getProjects()) {
+			addTerms(terms, project, PROJECT_WEIGHT);
+		}
+		String id = id(guide.getType(), guide.getName());
+		Document previous = this.documents.get(id);
+		Map<String, Float> contentTerms = (previous != null) ? previous.contentTerms() : Map.of();
+		update(id, Document.of(guide.getType(), guide.getName(), guide.getTitle(), guide.getDescription(), terms,
+				contentTerms));
+	}
+
+	/**
+	 * Index the rendered content of a guide.
+	 * @param type the type of the guide
+	 * @param name the name of the guide
+	 * @param content the rendered content
+	 */
+	synchronized void indexContent(GuideType type, String name, GuideContentModel content) {
+		Map<String, Float> terms = new HashMap<>();
+		addTerms(terms, HtmlText.extract(content.getContent()), CONTENT_WEIGHT);
+		String id = id(type, name);
+		Document previous = this.documents.get(id);
+		Document document = (previous != null)
+				? Document.of(type, name, previous.title(), previous.description(), previous.metadataTerms(), terms)
+				: Document.of(type, name, "", "", Map.of(), terms);
+		update(id, document);
+	}
+
+	/**
+	 * Remove a guide from the index.
+	 * @param type the type of the guide
+	 * @param name the name of the guide
+	 */
+	synchronized void remove(GuideType type, String name) {
+		update(id(type, name), null);
+	}
+
+	/**
+	 * Search the guides matching any of the words of the given query.
+	 * @param query the query
+	 * @param limit the maximum number of results
+	 * @return the matching guides, best match first
+	 */
+	List<Result> search(String query, int limit) {
+		Map<String, Float> queryTerms = new HashMap<>();
+		addTerms(queryTerms, query, 1.0f);
+		int count = this.documents.size();
+		if (queryTerms.isEmpty() || count == 0) {
+			return List.of();
+		}
+		double averageLength = Math.max(this.totalLength.sum() / count, 1.0);
+		Map<String, Double> scores = new HashMap<>();
+		for (String term : queryTerms.keySet()) {
+			Map<String, Float> matches = this.postings.get(term);
+			if (matches == null) {
+				continue;
+			}
+			double idf = Math.log(1 + (count - matches.size() + 0.5) / (matches.size() + 0.5));
+			matches.forEach((id, frequency) -> {
+				Document document = this.documents.get(id);
+				if (document != null) {
+					double norm = K1 * (1 - B + B * document.length() / averageLength);
+					scores.merge(id, idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+				}
+			});
+		}
+		List<Result> results = new ArrayList<>(scores.size());
+		scores.forEach((id, score) -> {
+			Document document = this.documents.get(id);
+			if (document != null) {
+				results.add(new Result(document.type(), document.name(), document.title(), document.description(),
+						score));
+			}
+		});
+		results.sort(Comparator.comparingDouble(Result::score).reversed().thenComparing(Result::name));
+		return (results.size() > limit) ? results.subList(0, limit) : results;
+	}
+
+	/**
+	 * Return the number of guides in the index.
+	 * @return the number of guides
+	 */
+	int size() {
+		return this.documents.size();
+	}
+
+	private void update(String id, Document document) {
+		Document previous = (document != null) ? this.documents.put(id, document) : this.documents.remove(id);
+		if (previous != null) {
+			this.totalLength.add(-previous.length());
+			for (String term : previous.terms().keySet()) {
+				if (document == null || !document.terms().containsKey(term)) {
+					this.postings.computeIfPresent(term, (key, matches) -> {
+						matches.remove(id);
+						return (matches.isEmpty()) ? null : matches;
+					});
+				}
+			}
+		}
+		if (document != null) {
+			this.totalLength.add(document.length());
+			document.terms()
+				.forEach((term, frequency) -> this.postings.computeIfAbsent(term, (key) -> new ConcurrentHashMap<>())
+					.put(id, frequency));
+		}
+	}
+
+	private static String id(GuideType type, String name) {
+		return type.getSlug() + "/" + name;
+	}
+
+	private static void addTerms(Map<String, Float> terms, String text, float weight) {
+		if (text == null) {
+			return;
+		}
+		int start = -1;
+		for (int i = 0; i <= text.length(); i++) {
+			boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+			if (wordChar && start == -1) {
+				start = i;
+			}
+			else if (!wordChar && start != -1) {
+				addTerm(terms, text.substring(start, i).toLowerCase(), weight);
+				start = -1;
+			}
+		}
+	}
+
+	private static void addTerm(Map<String, Float> terms, String term, float weight) {
+		if (term.length() >= MIN_TERM_LENGTH && !STOP_WORDS.contains(term)) {
+			terms.merge(term, weight, Float::sum);
+		}
+	}
+
+	/**
+	 * A guide matching a search query.
+	 *
+	 * @param type the type of the guide
+	 * @param name the name of the guide
+	 * @param title the title of the guide
+	 * @param description the description of the guide
+	 * @param score the relevance of the guide for the query
+	 */
+	record Result(GuideType type, String name, String title, String description, double score) {
+
+	}
+
+	private record Document(GuideType type, String name, String title, String description,
+			Map<String, Float> metadataTerms, Map<String, Float> contentTerms, Map<String, Float> terms,
+			double length) {
+
+		static Document of(GuideType type, String name, String title, String description,
+				Map<String, Float> metadataTerms, Map<String, Float> contentTerms) {
+			Map<String, Float> terms = new HashMap<>(contentTerms);
+			metadataTerms.forEach((term, frequency) -> terms.merge(term, frequency, Float::sum));
+			double length = 0;
+			for (float frequency : terms.values()) {
+				length += frequency;
+			}
+			return new Document(type, name, title, description, metadataTerms, contentTerms, terms, length);
+		}
+
+	}
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.core.Relation;
+
+/**
+ * A guide matching a search, with the relevance of the match.
+ */
+@Relation(collectionRelation = "results")
+class GuideSearchResultModel extends RepresentationModel<GuideSearchResultModel> {
+
+	private final String name;
+
+	private final GuideType type;
+
+	private final String title;
+
+	private final String description;
+
+	private final double score;
+
+	GuideSearchResultModel(GuideSearchIndex.Result result) {
+		this.name = result.name();
+		this.type = result.type();
+		this.title = result.title();
+		this.description = result.description();
+		this.score = result.score();
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public GuideType getType() {
+		return this.type;
+	}
+
+	public String getTitle() {
+		return this.title;
+	}
+
+	public String getDescription() {
+		return this.description;
+	}
+
+	public double getScore() {
+		return this.score;
+	}
+
+}
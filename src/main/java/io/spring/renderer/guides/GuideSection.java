@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+
+/**
+ * Top level section of a rendered guide. Sections are identified by the id of their
+ * title, which is the anchor of their entry in the table of contents, and the preamble
+ * of the guide is identified by {@value #PREAMBLE_ID}.
+ */
+public final class GuideSection {
+
+	static final String PREAMBLE_ID = "preamble";
+
+	private final String id;
+
+	private final String title;
+
+	private final String content;
+
+	GuideSection(String id, String title, String content) {
+		this.id = id;
+		this.title = title;
+		this.content = content;
+	}
+
+	public String getId() {
+		return this.id;
+	}
+
+	public String getTitle() {
+		return this.title;
+	}
+
+	public String getContent() {
+		return this.content;
+	}
+
+	/**
+	 * Split the rendered content of a guide in its top level sections.
+	 * @param content the element holding the rendered guide
+	 * @return the sections of the guide, in document order
+	 */
+	public static List<GuideSection> split(Element content) {
+		if (content == null) {
+			return Collections.emptyList();
+		}
+		List<GuideSection> sections = new ArrayList<>();
+		for (Element element : content.children()) {
+			if (PREAMBLE_ID.equals(element.id())) {
+				sections.add(new GuideSection(PREAMBLE_ID, null, element.outerHtml()));
+			}
+			else if (element.hasClass("sect1")) {
+				Element title = findTitle(element);
+				if (title != null) {
+					sections.add(new GuideSection(title.id(), title.text(), element.outerHtml()));
+				}
+			}
+		}
+		return sections;
+	}
+
+	private static Element findTitle(Element section) {
+		for (Element child : section.children()) {
+			if ("h2".equals(child.normalName()) && child.hasAttr("id")) {
+				return child;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Split the rendered HTML of a guide in its top level sections.
+	 * @param html the rendered guide
+	 * @return the sections of the guide, in document order
+	 * @see GuideContentModel#getContent()
+	 */
+	static List<GuideSection> split(String html) {
+		return (html != null) ? split(Jsoup.parseBodyFragment(html).body()) : Collections.emptyList();
+	}
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import org.springframework.hateoas.RepresentationModel;
+
+/**
+ * Top level section of the content of a Spring guide.
+ */
+public class GuideSectionModel extends RepresentationModel<GuideSectionModel> {
+
+	private final String name;
+
+	private final String id;
+
+	private final String title;
+
+	private final String content;
+
+	GuideSectionModel(String name, GuideSection section) {
+		this.name = name;
+		this.id = section.getId();
+		this.title = section.getTitle();
+		this.content = section.getContent();
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public String getId() {
+		return this.id;
+	}
+
+	public String getTitle() {
+		return this.title;
+	}
+
+	public String getContent() {
+		return this.content;
+	}
+
+}
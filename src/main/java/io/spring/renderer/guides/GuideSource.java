@@ -0,0 +1,38 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.IOException;
+
+/**
+ * Source of the files of guide repositories, made available locally so that they can be
+ * rendered.
+ *
+ * @see GuideRenderer
+ */
+interface GuideSource {
+
+	/**
+	 * Make the files of the given guide repository available locally.
+	 * @param organization the github organization name
+	 * @param repositoryName the name of the guide repository
+	 * @return the files of the repository, to be closed once rendered
+	 * @throws IOException if the files could not be made available
+	 */
+	GuideFiles fetch(String organization, String repositoryName) throws IOException;
+
+}
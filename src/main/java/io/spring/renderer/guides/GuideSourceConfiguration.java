@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import io.spring.renderer.RendererProperties;
+import io.spring.renderer.RendererProperties.Source;
+import io.spring.renderer.github.GithubClient;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.Assert;
+
+/**
+ * Configure the {@link GuideSource} used by {@link GuideRenderer} and the
+ * {@link GuideCatalog} used by {@link GuidesController}, according to the
+ * {@code renderer.source.mode} property.
+ */
+@Configuration(proxyBeanMethods = false)
+class GuideSourceConfiguration {
+
+	@Bean
+	GuideSource guideSource(GithubClient githubClient, RendererProperties properties, GuideRenderMetrics metrics) {
+		ZipballGuideSource zipball = new ZipballGuideSource(githubClient, metrics);
+		Source source = properties.getSource();
+		return switch (source.getMode()) {
+			case ZIPBALL -> zipball;
+			case CONTENTS -> new ContentsGuideSource(githubClient, metrics, zipball, source.getMaxFiles());
+			case MIRROR -> new MirrorGuideSource(mirror(source));
+		};
+	}
+
+	@Bean
+	GuideCatalog guideCatalog(GithubClient githubClient, RendererProperties properties) {
+		Source source = properties.getSource();
+		if (source.getMode() == Source.Mode.MIRROR) {
+			return new MirrorGuideCatalog(mirror(source));
+		}
+		return new GithubGuideCatalog(githubClient);
+	}
+
+	private GuideMirror mirror(Source source) {
+		Assert.state(source.getMirrorDirectory() != null,
+				"renderer.source.mirror-directory must be set to render guides from a mirror");
+		return new GuideMirror(source.getMirrorDirectory());
+	}
+
+}
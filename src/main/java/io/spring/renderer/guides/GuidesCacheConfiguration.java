@@ -0,0 +1,143 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.spring.renderer.RendererProperties;
+import io.spring.renderer.RendererProperties.CacheSpec;
+import io.spring.renderer.RendererProperties.ContentCacheSpec;
+import io.spring.renderer.RendererProperties.WeighedCacheSpec;
+import io.spring.renderer.guides.content.CodeBlockHighlighter;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configure the caches used by {@link GuidesController}. Each cache is tuned
+ * independently and records statistics, so that they are published as cache metrics.
+ * The rendered content cache can be bounded by the size of its entries rather than by
+ * their number, and can spill the entries evicted from memory to disk. The caches can be
+ * snapshotted on shutdown and restored on startup. Highlighted code listings are cached
+ * as well, independently of the guides they belong to. The last rendered content of each
+ * guide is kept compressed in a separate cache, bounded by the size of its entries, which
+ * is not evicted when guides change, so that it can be served while guides cannot be
+ * rendered.
+ */
+@Configuration(proxyBeanMethods = false)
+class GuidesCacheConfiguration {
+
+	static final String GUIDES_CACHE = "guides";
+
+	static final String GUIDE_CACHE = "guide";
+
+	static final String GUIDE_CONTENT_CACHE = "guideContent";
+
+	static final String GUIDE_SECTIONS_CACHE = "guideSections";
+
+	static final String STALE_GUIDE_CONTENT_CACHE = "staleGuideContent";
+
+	@Bean
+	@ConditionalOnProperty("renderer.cache.guide-content.disk.enabled")
+	GuideContentDiskStore guideContentDiskStore(RendererProperties properties) throws IOException {
+		ContentCacheSpec contentSpec = properties.getCache().getGuideContent();
+		ContentCacheSpec.Disk disk = contentSpec.getDisk();
+		Path directory = (disk.getDirectory() != null) ? disk.getDirectory()
+				: Path.of(System.getProperty("java.io.tmpdir"));
+		return new GuideContentDiskStore(directory, disk.getMaximumSize().toBytes(),
+				contentSpec.getExpireAfterAccess(), contentSpec.getExpireAfterWrite());
+	}
+
+	@Bean
+	SimpleCacheManager cacheManager(RendererProperties properties, ObjectProvider<GuideContentDiskStore> diskStore) {
+		return createCacheManager(properties, diskStore.getIfAvailable());
+	}
+
+	@Bean
+	@ConditionalOnProperty("renderer.cache.snapshot.path")
+	GuidesCacheSnapshot guidesCacheSnapshot(CacheManager cacheManager, GuideSearchIndex searchIndex,
+			RendererProperties properties) {
+		RendererProperties.Cache.Snapshot snapshot = properties.getCache().getSnapshot();
+		return new GuidesCacheSnapshot(cacheManager, searchIndex, snapshot.getPath(), snapshot.getMaxAge(),
+				GuideRenderer.RENDER_VERSION, properties.getGithub().getOrganization());
+	}
+
+	SimpleCacheManager createCacheManager(RendererProperties properties, GuideContentDiskStore diskStore) {
+		RendererProperties.Cache cache = properties.getCache();
+		ContentCacheSpec contentSpec = cache.getGuideContent();
+		SimpleCacheManager cacheManager = new SimpleCacheManager();
+		cacheManager.setCaches(List.of(new CaffeineCache(GUIDES_CACHE, caffeine(cache.getGuides()).build()),
+				new CaffeineCache(GUIDE_CACHE, caffeine(cache.getGuide()).build()),
+				new GuideContentCache(GUIDE_CONTENT_CACHE, contentCaffeine(contentSpec, diskStore).build(),
+						contentSpec.isCompressed(), diskStore),
+				new CaffeineCache(GUIDE_SECTIONS_CACHE, caffeine(cache.getGuideSections()).build()),
+				new CaffeineCache(CodeBlockHighlighter.CACHE_NAME, caffeine(cache.getCodeHighlights()).build()),
+				new CaffeineCache(STALE_GUIDE_CONTENT_CACHE, weighedCaffeine(cache.getStaleGuideContent()).build())));
+		return cacheManager;
+	}
+
+	private Caffeine<Object, Object> contentCaffeine(ContentCacheSpec spec, GuideContentDiskStore diskStore) {
+		Caffeine<Object, Object> caffeine = weighedCaffeine(spec);
+		if (diskStore != null) {
+			caffeine.evictionListener((key, value, cause) -> {
+				if (cause == RemovalCause.SIZE) {
+					diskStore.spill(key, value);
+				}
+				else {
+					diskStore.expired(key);
+				}
+			});
+		}
+		return caffeine;
+	}
+
+	private Caffeine<Object, Object> weighedCaffeine(WeighedCacheSpec spec) {
+		if (spec.getMaximumWeight() == null) {
+			return caffeine(spec);
+		}
+		Caffeine<Object, Object> caffeine = Caffeine.newBuilder()
+			.maximumWeight(spec.getMaximumWeight().toBytes())
+			.weigher(GuideContentCache::weigh)
+			.recordStats();
+		return expiry(caffeine, spec);
+	}
+
+	private Caffeine<Object, Object> caffeine(CacheSpec spec) {
+		Caffeine<Object, Object> caffeine = Caffeine.newBuilder().maximumSize(spec.getMaximumSize()).recordStats();
+		return expiry(caffeine, spec);
+	}
+
+	private Caffeine<Object, Object> expiry(Caffeine<Object, Object> caffeine, CacheSpec spec) {
+		if (spec.getExpireAfterAccess() != null) {
+			caffeine.expireAfterAccess(spec.getExpireAfterAccess());
+		}
+		if (spec.getExpireAfterWrite() != null) {
+			caffeine.expireAfterWrite(spec.getExpireAfterWrite());
+		}
+		return caffeine;
+	}
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evict the cached responses of {@link GuidesController} that relate to a guide
+ * repository, so that they reflect its latest changes.
+ */
+@Component
+public class GuidesCacheEvictor {
+
+	private static final Log logger = LogFactory.getLog(GuidesCacheEvictor.class);
+
+	private final CacheManager cacheManager;
+
+	public GuidesCacheEvictor(CacheManager cacheManager) {
+		this.cacheManager = cacheManager;
+	}
+
+	/**
+	 * Evict the guide and the rendered content and sections of the given repository, as
+	 * well as the list of guides which holds its metadata.
+	 * @param repositoryName the name of the guide repository
+	 * @return {@code true} if the repository is a guide, {@code false} otherwise
+	 */
+	public boolean evict(String repositoryName) {
+		GuideType type = GuideType.fromRepositoryName(repositoryName);
+		if (GuideType.UNKNOWN.equals(type)) {
+			return false;
+		}
+		SimpleKey key = new SimpleKey(type.getSlug(), type.stripPrefix(repositoryName));
+		evict(GuidesCacheConfiguration.GUIDE_CACHE, key);
+		evict(GuidesCacheConfiguration.GUIDE_CONTENT_CACHE, key);
+		evict(GuidesCacheConfiguration.GUIDE_SECTIONS_CACHE, key);
+		evict(GuidesCacheConfiguration.GUIDES_CACHE, SimpleKey.EMPTY);
+		logger.info("Evicted cached guide " + repositoryName);
+		return true;
+	}
+
+	private void evict(String cacheName, Object key) {
+		Cache cache = this.cacheManager.getCache(cacheName);
+		if (cache != null) {
+			cache.evictIfPresent(key);
+		}
+	}
+
+}
@@ -0,0 +1,379 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Snapshot of the caches of {@link GuidesController}, so that a new instance of the
+ * application does not start with empty caches. The snapshot is written on shutdown,
+ * once the web server stopped serving requests, and restored on startup before it
+ * starts. Snapshots holding content of another
+ * {@linkplain GuideRenderer#RENDER_VERSION render version} or of another organization,
+ * as well as snapshots older than the maximum age, are discarded, so that a new build of
+ * the application restores the snapshot of the previous one unless rendering changed.
+ * The restored catalog and content are indexed for search, as they were not rendered by
+ * this instance.
+ * <p>
+ * Values are written in a compact binary form, and only cache keys are serialized with
+ * Java serialization, restricted to {@link SimpleKey} when read.
+ */
+class GuidesCacheSnapshot implements SmartLifecycle {
+
+	private static final Log logger = LogFactory.getLog(GuidesCacheSnapshot.class);
+
+	/**
+	 * Restore the caches before the web server starts, and take the snapshot once it
+	 * stopped.
+	 */
+	private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+	private static final int MAGIC = 0x47435348;
+
+	private static final int FORMAT_VERSION = 2;
+
+	private static final ObjectInputFilter KEY_FILTER = ObjectInputFilter.Config.createFilter(
+			"maxdepth=3;org.springframework.cache.interceptor.SimpleKey;java.lang.Object;java.lang.String;!*");
+
+	private final CacheManager cacheManager;
+
+	private final GuideSearchIndex searchIndex;
+
+	private final Path path;
+
+	private final Duration maxAge;
+
+	private final int renderVersion;
+
+	private final String organization;
+
+	private volatile boolean running;
+
+	GuidesCacheSnapshot(CacheManager cacheManager, GuideSearchIndex searchIndex, Path path, Duration maxAge,
+			int renderVersion, String organization) {
+		this.cacheManager = cacheManager;
+		this.searchIndex = searchIndex;
+		this.path = path;
+		this.maxAge = maxAge;
+		this.renderVersion = renderVersion;
+		this.organization = organization;
+	}
+
+	@Override
+	public void start() {
+		restore();
+		this.running = true;
+	}
+
+	@Override
+	public void stop() {
+		this.running = false;
+		write();
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.running;
+	}
+
+	@Override
+	public int getPhase() {
+		return PHASE;
+	}
+
+	/**
+	 * Write the content of the caches to the snapshot file, replacing any previous
+	 * snapshot.
+	 * @return the number of entries written
+	 */
+	int write() {
+		Path temporary = this.path.resolveSibling(this.path.getFileName() + ".tmp");
+		try {
+			Files.createDirectories(this.path.toAbsolutePath().getParent());
+			int count = 0;
+			try (ObjectOutputStream output = new ObjectOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+				output.writeInt(MAGIC);
+				output.writeInt(FORMAT_VERSION);
+				output.writeInt(this.renderVersion);
+				output.writeUTF(this.organization);
+				output.writeLong(Instant.now().toEpochMilli());
+				count += writeCache(output, GuidesCacheConfiguration.GUIDES_CACHE, this::encodeGuides);
+				count += writeCache(output, GuidesCacheConfiguration.GUIDE_CACHE, this::encodeGuide);
+				count += writeCache(output, GuidesCacheConfiguration.GUIDE_CONTENT_CACHE, this::encodeGuideContent);
+			}
+			Files.move(temporary, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			logger.info("Wrote " + count + " cache entries to snapshot " + this.path);
+			return count;
+		}
+		catch (IOException | RuntimeException ex) {
+			logger.warn("Could not write cache snapshot to " + this.path, ex);
+			try {
+				Files.deleteIfExists(temporary);
+			}
+			catch (IOException deleteEx) {
+				// ignore
+			}
+			return 0;
+		}
+	}
+
+	/**
+	 * Restore the content of the caches from the snapshot file, if it exists and is
+	 * compatible with this application. Entries are only restored once the whole
+	 * snapshot could be read.
+	 * @return the number of entries restored
+	 */
+	int restore() {
+		if (!Files.isRegularFile(this.path)) {
+			return 0;
+		}
+		try (ObjectInputStream input = new ObjectInputStream(
+				new BufferedInputStream(Files.newInputStream(this.path)))) {
+			input.setObjectInputFilter(KEY_FILTER);
+			String incompatibility = checkHeader(input);
+			if (incompatibility != null) {
+				logger.info("Discarding cache snapshot " + this.path + " as " + incompatibility);
+				return 0;
+			}
+			long maxLength = Files.size(this.path);
+			Map<Object, Object> guides = readCache(input, GuidesCacheConfiguration.GUIDES_CACHE, maxLength,
+					this::decodeGuides);
+			Map<Object, Object> guide = readCache(input, GuidesCacheConfiguration.GUIDE_CACHE, maxLength,
+					this::decodeGuide);
+			Map<Object, Object> guideContent = readCache(input, GuidesCacheConfiguration.GUIDE_CONTENT_CACHE,
+					maxLength, CompressedGuideContent::fromBytes);
+			restoreCache(GuidesCacheConfiguration.GUIDES_CACHE, guides);
+			restoreCache(GuidesCacheConfiguration.GUIDE_CACHE, guide);
+			restoreCache(GuidesCacheConfiguration.GUIDE_CONTENT_CACHE, guideContent);
+			index(guides.get(SimpleKey.EMPTY), guideContent);
+			int count = guides.size() + guide.size() + guideContent.size();
+			logger.info("Restored " + count + " cache entries from snapshot " + this.path);
+			return count;
+		}
+		catch (IOException | ClassNotFoundException | RuntimeException ex) {
+			logger.warn("Discarding unreadable cache snapshot " + this.path, ex);
+			return 0;
+		}
+	}
+
+	private String checkHeader(ObjectInputStream input) throws IOException {
+		if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+			return "its format is not supported";
+		}
+		int snapshotRenderVersion = input.readInt();
+		if (this.renderVersion != snapshotRenderVersion) {
+			return "it holds content of render version " + snapshotRenderVersion;
+		}
+		String snapshotOrganization = input.readUTF();
+		if (!this.organization.equals(snapshotOrganization)) {
+			return "it holds the guides of " + snapshotOrganization;
+		}
+		Instant createdAt = Instant.ofEpochMilli(input.readLong());
+		if (createdAt.plus(this.maxAge).isBefore(Instant.now())) {
+			return "it was written at " + createdAt;
+		}
+		return null;
+	}
+
+	private int writeCache(ObjectOutputStream output, String cacheName, ValueEncoder encoder) throws IOException {
+		Map<Object, byte[]> entries = new LinkedHashMap<>();
+		for (Map.Entry<Object, Object> entry : storeValues(cacheName).entrySet()) {
+			byte[] value = (entry.getKey() instanceof Serializable) ? encoder.encode(entry.getValue()) : null;
+			if (value != null) {
+				entries.put(entry.getKey(), value);
+			}
+		}
+		output.writeUTF(cacheName);
+		output.writeInt(entries.size());
+		for (Map.Entry<Object, byte[]> entry : entries.entrySet()) {
+			output.writeObject(entry.getKey());
+			output.writeInt(entry.getValue().length);
+			output.write(entry.getValue());
+		}
+		return entries.size();
+	}
+
+	private Map<Object, Object> storeValues(String cacheName) {
+		Cache cache = this.cacheManager.getCache(cacheName);
+		if (cache instanceof GuideContentCache contentCache) {
+			return new LinkedHashMap<>(contentCache.compressedEntries());
+		}
+		if (cache instanceof CaffeineCache caffeineCache) {
+			return new LinkedHashMap<>(caffeineCache.getNativeCache().asMap());
+		}
+		return Collections.emptyMap();
+	}
+
+	private Map<Object, Object> readCache(ObjectInputStream input, String cacheName, long maxLength,
+			ValueDecoder decoder) throws IOException, ClassNotFoundException {
+		String snapshotCacheName = input.readUTF();
+		if (!cacheName.equals(snapshotCacheName)) {
+			throw new IOException("Expected entries of cache " + cacheName + " but found " + snapshotCacheName);
+		}
+		int count = input.readInt();
+		Map<Object, Object> entries = new LinkedHashMap<>();
+		for (int i = 0; i < count; i++) {
+			Object key = input.readObject();
+			int length = input.readInt();
+			if (length < 0 || length > maxLength) {
+				throw new IOException("Invalid length " + length + " of a value of cache " + cacheName);
+			}
+			byte[] value = new byte[length];
+			input.readFully(value);
+			entries.put(key, decoder.decode(value));
+		}
+		return entries;
+	}
+
+	private void restoreCache(String cacheName, Map<Object, Object> entries) {
+		Cache cache = this.cacheManager.getCache(cacheName);
+		if (cache == null) {
+			return;
+		}
+		entries.forEach((key, value) -> {
+			if (cache instanceof GuideContentCache contentCache) {
+				contentCache.restore(key, (CompressedGuideContent) value);
+			}
+			else {
+				cache.put(key, value);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private void index(Object guides, Map<Object, Object> guideContent) {
+		if (!(guides instanceof CollectionModel<?>)) {
+			return;
+		}
+		CollectionModel<GuideModel> catalog = (CollectionModel<GuideModel>) guides;
+		this.searchIndex.indexCatalog(catalog);
+		for (GuideModel guide : catalog.getContent()) {
+			Object content = guideContent.get(new SimpleKey(guide.getType().getSlug(), guide.getName()));
+			if (content instanceof CompressedGuideContent compressed
+					&& compressed.inflate().getBody() instanceof GuideContentModel contentModel) {
+				this.searchIndex.indexContent(guide.getType(), guide.getName(), contentModel);
+			}
+		}
+	}
+
+	private byte[] encodeGuides(Object value) throws IOException {
+		if (!(value instanceof CollectionModel<?> guides)) {
+			return null;
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+			output.writeShort(guides.getLinks().toList().size());
+			for (Link link : guides.getLinks()) {
+				output.writeUTF(link.getRel().value());
+				output.writeUTF(link.getHref());
+			}
+			output.writeInt(guides.getContent().size());
+			for (Object guide : guides.getContent()) {
+				((GuideModel) guide).writeTo(output);
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	private Object decodeGuides(byte[] value) throws IOException {
+		try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(value))) {
+			int linksCount = input.readUnsignedShort();
+			List<Link> links = new ArrayList<>(linksCount);
+			for (int i = 0; i < linksCount; i++) {
+				String rel = input.readUTF();
+				links.add(Link.of(input.readUTF(), rel));
+			}
+			int guidesCount = input.readInt();
+			List<GuideModel> guides = new ArrayList<>();
+			for (int i = 0; i < guidesCount; i++) {
+				guides.add(GuideModel.readFrom(input));
+			}
+			return CollectionModel.of(guides, links);
+		}
+	}
+
+	private byte[] encodeGuide(Object value) throws IOException {
+		if (!(value instanceof ResponseEntity<?> entity) || !entity.getStatusCode().isSameCodeAs(HttpStatus.OK)
+				|| !(entity.getBody() instanceof GuideModel guide)) {
+			return null;
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+			guide.writeTo(output);
+		}
+		return bytes.toByteArray();
+	}
+
+	private Object decodeGuide(byte[] value) throws IOException {
+		try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(value))) {
+			return ResponseEntity.ok(GuideModel.readFrom(input));
+		}
+	}
+
+	private byte[] encodeGuideContent(Object value) {
+		return (value instanceof CompressedGuideContent content) ? content.toBytes() : null;
+	}
+
+	@FunctionalInterface
+	private interface ValueEncoder {
+
+		byte[] encode(Object value) throws IOException;
+
+	}
+
+	@FunctionalInterface
+	private interface ValueDecoder {
+
+		Object decode(byte[] value) throws IOException;
+
+	}
+
+}
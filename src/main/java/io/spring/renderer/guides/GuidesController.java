@@ -16,7 +16,9 @@
 
 package io.spring.renderer.guides;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -24,20 +26,35 @@ import java.util.stream.Collectors;
 
 import io.spring.renderer.RendererProperties;
 import io.spring.renderer.RendererProperties.Webhook.Category;
-import io.spring.renderer.github.GithubClient;
 import io.spring.renderer.github.GithubResourceNotFoundException;
 import io.spring.renderer.github.Repository;
 
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.interceptor.SimpleKey;
 import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.Links;
 import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -49,20 +66,47 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @RequestMapping(path = "/guides", produces = MediaTypes.HAL_JSON_VALUE)
 public class GuidesController {
 
+	private static final int MAX_SEARCH_RESULTS = 50;
+
+	private static final int DEFAULT_PAGE_SIZE = 20;
+
+	private static final int MAX_PAGE_SIZE = 100;
+
 	private final GuideRenderer guideRenderer;
 
-	private final GithubClient githubClient;
+	private final GuideCatalog guideCatalog;
+
+	private final GuideSearchIndex searchIndex;
+
+	private final RenderBulkhead renderBulkhead;
 
 	private final RendererProperties properties;
 
+	private final Cache guidesCache;
+
+	private final Cache guideContentCache;
+
+	private final Cache guideSectionsCache;
+
+	private final Cache staleGuideContentCache;
+
+	private volatile GuideFilterIndex filterIndex;
+
 	private final GuideModelAssembler guideAssembler = new GuideModelAssembler();
 
 	private Set<String> DEFAULT_CATEGORY = Collections.singleton("Misc");
 
-	public GuidesController(GuideRenderer guideRenderer, GithubClient github, RendererProperties properties) {
+	public GuidesController(GuideRenderer guideRenderer, GuideCatalog guideCatalog, GuideSearchIndex searchIndex,
+			RenderBulkhead renderBulkhead, CacheManager cacheManager, RendererProperties properties) {
 		this.guideRenderer = guideRenderer;
-		this.githubClient = github;
+		this.guideCatalog = guideCatalog;
+		this.searchIndex = searchIndex;
+		this.renderBulkhead = renderBulkhead;
 		this.properties = properties;
+		this.guidesCache = cacheManager.getCache(GuidesCacheConfiguration.GUIDES_CACHE);
+		this.guideContentCache = cacheManager.getCache(GuidesCacheConfiguration.GUIDE_CONTENT_CACHE);
+		this.guideSectionsCache = cacheManager.getCache(GuidesCacheConfiguration.GUIDE_SECTIONS_CACHE);
+		this.staleGuideContentCache = cacheManager.getCache(GuidesCacheConfiguration.STALE_GUIDE_CONTENT_CACHE);
 	}
 
 	@ExceptionHandler(GithubResourceNotFoundException.class)
@@ -70,11 +114,82 @@ public class GuidesController {
 		return ResponseEntity.notFound().build();
 	}
 
+	@ExceptionHandler(GuideRenderTimeoutException.class)
+	public ResponseEntity renderTimeout() {
+		return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+	}
+
+	@ExceptionHandler(GuideRenderRejectedException.class)
+	public ResponseEntity<?> renderRejected(GuideRenderRejectedException ex) {
+		CompressedGuideContent staleContent = ex.getStaleContent();
+		if (staleContent != null) {
+			ResponseEntity<GuideContentModel> response = staleContent.inflate();
+			return ResponseEntity.ok()
+				.headers(response.getHeaders())
+				.header(HttpHeaders.WARNING, "110 - \"Response is Stale\"")
+				.cacheControl(CacheControl.noCache())
+				.body(response.getBody());
+		}
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+			.header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+			.build();
+	}
+
 	@GetMapping("")
-	@Cacheable("guides")
-	public CollectionModel<GuideModel> listGuides() {
-		List<Repository> repositories = this.githubClient
-			.fetchOrgRepositories(this.properties.getGithub().getOrganization());
+	public CollectionModel<GuideModel> listGuides(GuidesQuery query) {
+		CollectionModel<GuideModel> catalog = this.guidesCache.get(SimpleKey.EMPTY, this::fetchGuides);
+		catalogChanged(catalog);
+		if (query == null || (!query.isFiltered() && !query.isPaged())) {
+			return catalog;
+		}
+		GuideFilterIndex filterIndex = this.filterIndex;
+		if (filterIndex == null || !filterIndex.isIndexOf(catalog)) {
+			filterIndex = new GuideFilterIndex(catalog);
+			this.filterIndex = filterIndex;
+		}
+		List<GuideModel> guides = filterIndex.filter(query);
+		if (!query.isPaged()) {
+			return CollectionModel.of(guides, catalog.getLinks());
+		}
+		return page(guides, query, catalog.getLinks());
+	}
+
+	private PagedModel<GuideModel> page(List<GuideModel> guides, GuidesQuery query, Links links) {
+		int page = (query.page() != null) ? query.page() : 0;
+		int size = (query.size() != null) ? Math.min(query.size(), MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+		if (page < 0 || size < 1) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page " + page + " of size " + size);
+		}
+		int from = (int) Math.min((long) page * size, guides.size());
+		int to = Math.min(from + size, guides.size());
+		PagedModel<GuideModel> result = PagedModel.of(guides.subList(from, to),
+				new PagedModel.PageMetadata(size, page, guides.size()));
+		int lastPage = Math.max((guides.size() - 1) / size, 0);
+		result.add(pageLink(IanaLinkRelations.SELF, page, size));
+		result.add(pageLink(IanaLinkRelations.FIRST, 0, size));
+		if (page > 0) {
+			result.add(pageLink(IanaLinkRelations.PREV, Math.min(page - 1, lastPage), size));
+		}
+		if (page < lastPage) {
+			result.add(pageLink(IanaLinkRelations.NEXT, page + 1, size));
+		}
+		result.add(pageLink(IanaLinkRelations.LAST, lastPage, size));
+		result.add(links);
+		return result;
+	}
+
+	private Link pageLink(LinkRelation relation, int page, int size) {
+		String href = ServletUriComponentsBuilder.fromCurrentRequest()
+			.replaceQueryParam("page", page)
+			.replaceQueryParam("size", size)
+			.build()
+			.toUriString();
+		return Link.of(href, relation);
+	}
+
+	private CollectionModel<GuideModel> fetchGuides() {
+		List<Repository> repositories = this.guideCatalog
+			.fetchRepositories(this.properties.getGithub().getOrganization());
 		List<GuideMetadata> guideMetadataList = repositories.stream()
 			.map((repository) -> new GuideMetadata(repository, getAcademyUrl(repository), getCategory(repository)))
 			.toList();
@@ -93,6 +208,45 @@ public class GuidesController {
 		return resources;
 	}
 
+	/**
+	 * Update the metadata of the search index once the catalog is replaced, so that the
+	 * index only holds the guides of the catalog. Content is indexed when it is rendered,
+	 * not from the caches, so that listing guides does not read them. The stale content
+	 * of the guides that are no longer in the catalog is evicted, so that deleted or
+	 * renamed guides are not served.
+	 * @param catalog the catalog
+	 */
+	private void catalogChanged(CollectionModel<GuideModel> catalog) {
+		if (this.searchIndex.isIndexOf(catalog)) {
+			return;
+		}
+		this.searchIndex.indexCatalog(catalog);
+		if (this.staleGuideContentCache instanceof CaffeineCache staleContent) {
+			Set<SimpleKey> keys = catalog.getContent()
+				.stream()
+				.map((guide) -> new SimpleKey(guide.getType().getSlug(), guide.getName()))
+				.collect(Collectors.toSet());
+			staleContent.getNativeCache().asMap().keySet().removeIf((key) -> !keys.contains(key));
+		}
+	}
+
+	@GetMapping("/search")
+	public CollectionModel<GuideSearchResultModel> searchGuides(@RequestParam String q) {
+		catalogChanged(this.guidesCache.get(SimpleKey.EMPTY, this::fetchGuides));
+		List<GuideSearchResultModel> results = this.searchIndex.search(q, MAX_SEARCH_RESULTS)
+			.stream()
+			.map((result) -> {
+				GuideSearchResultModel model = new GuideSearchResultModel(result);
+				String slug = result.type().getSlug();
+				model.add(linkTo(methodOn(GuidesController.class).showGuide(slug, result.name())).withRel("guide"));
+				model.add(linkTo(methodOn(GuidesController.class).renderGuide(slug, result.name()))
+					.withRel("content"));
+				return model;
+			})
+			.toList();
+		return CollectionModel.of(results, linkTo(methodOn(GuidesController.class).searchGuides(q)).withSelfRel());
+	}
+
 	private Set<String> getCategory(Repository repository) {
 		Map<String, Category> category = this.properties.getCategory();
 		Set<String> values = category.values()
@@ -108,13 +262,13 @@ public class GuidesController {
 	}
 
 	@GetMapping("/{type}/{guide}")
-	@Cacheable("guide")
+	@Cacheable(cacheNames = "guide", sync = true)
 	public ResponseEntity<GuideModel> showGuide(@PathVariable String type, @PathVariable String guide) {
 		GuideType guideType = GuideType.fromSlug(type);
 		if (GuideType.UNKNOWN.equals(guideType)) {
 			return ResponseEntity.notFound().build();
 		}
-		Repository repository = this.githubClient.fetchOrgRepository(this.properties.getGithub().getOrganization(),
+		Repository repository = this.guideCatalog.fetchRepository(this.properties.getGithub().getOrganization(),
 				guideType.getPrefix() + guide);
 		String academyUrl = this.properties.getAcademy().get(repository.getName());
 		GuideMetadata guideMetadata = new GuideMetadata(repository, academyUrl, getCategory(repository));
@@ -122,22 +276,105 @@ public class GuidesController {
 		if (guideModel.getType().equals(GuideType.UNKNOWN)) {
 			return ResponseEntity.notFound().build();
 		}
+		this.searchIndex.indexMetadata(guideModel);
 		return ResponseEntity.ok(guideModel);
 	}
 
 	@GetMapping("/{type}/{guide}/content")
-	@Cacheable("guideContent")
+	@Cacheable(cacheNames = "guideContent", sync = true)
 	public ResponseEntity<GuideContentModel> renderGuide(@PathVariable String type, @PathVariable String guide) {
 		GuideType guideType = GuideType.fromSlug(type);
 		if (GuideType.UNKNOWN.equals(guideType)) {
 			return ResponseEntity.notFound().build();
 		}
-		GuideContentModel guideContentModel = this.guideRenderer.render(guideType, guide);
+		ResponseEntity<GuideContentModel> response;
+		try {
+			response = renderContent(guideType, guide);
+		}
+		catch (GuideRenderRejectedException ex) {
+			// Thrown rather than returned, so that stale content is not cached as fresh
+			CompressedGuideContent staleContent = this.staleGuideContentCache
+				.get(new SimpleKey(guideType.getSlug(), guide), CompressedGuideContent.class);
+			if (staleContent == null) {
+				throw ex;
+			}
+			throw new GuideRenderRejectedException(ex.getRetryAfter(), staleContent);
+		}
+		this.guideSectionsCache.put(new SimpleKey(type, guide), toSectionResponses(guideType, guide, response));
+		return response;
+	}
+
+	@GetMapping("/{type}/{guide}/content/sections/{section}")
+	public ResponseEntity<GuideSectionModel> renderGuideSection(@PathVariable String type, @PathVariable String guide,
+			@PathVariable String section) {
+		GuideType guideType = GuideType.fromSlug(type);
+		if (GuideType.UNKNOWN.equals(guideType)) {
+			return ResponseEntity.notFound().build();
+		}
+		SimpleKey key = new SimpleKey(type, guide);
+		Map<String, ResponseEntity<GuideSectionModel>> sections = this.guideSectionsCache.get(key, () -> {
+			ResponseEntity<GuideContentModel> content = this.guideContentCache.get(key,
+					() -> renderContent(guideType, guide));
+			return toSectionResponses(guideType, guide, content);
+		});
+		ResponseEntity<GuideSectionModel> response = sections.get(section);
+		return (response != null) ? response : ResponseEntity.notFound().build();
+	}
+
+	private ResponseEntity<GuideContentModel> renderContent(GuideType guideType, String guide) {
+		RenderBulkhead.Permit permit = this.renderBulkhead.tryAcquire();
+		if (permit == null) {
+			throw new GuideRenderRejectedException(this.renderBulkhead.getRetryAfter(), null);
+		}
+		GuideContentModel guideContentModel;
+		try (permit) {
+			guideContentModel = this.guideRenderer.render(guideType, guide);
+		}
+		this.searchIndex.indexContent(guideType, guide, guideContentModel);
 		guideContentModel
 			.add(linkTo(methodOn(GuidesController.class).renderGuide(guideType.getSlug(), guide)).withSelfRel());
 		guideContentModel
 			.add(linkTo(methodOn(GuidesController.class).showGuide(guideType.getSlug(), guide)).withRel("guide"));
-		return ResponseEntity.ok(guideContentModel);
+		ResponseEntity<GuideContentModel> response = ResponseEntity.ok(guideContentModel);
+		this.staleGuideContentCache.put(new SimpleKey(guideType.getSlug(), guide),
+				CompressedGuideContent.compress(response));
+		return response;
+	}
+
+	/**
+	 * Prepare the responses of the sections of the given content, each with an ETag
+	 * derived from the section content. Sections split when the guide was rendered are
+	 * detached from the content, so that they are not retained by the content cache;
+	 * otherwise the cached content is split again.
+	 * @param guideType the type of the guide
+	 * @param guide the name of the guide
+	 * @param content the content response
+	 * @return the section responses, keyed by section id
+	 */
+	private Map<String, ResponseEntity<GuideSectionModel>> toSectionResponses(GuideType guideType, String guide,
+			ResponseEntity<GuideContentModel> content) {
+		Map<String, ResponseEntity<GuideSectionModel>> responses = new LinkedHashMap<>();
+		GuideContentModel guideContent = content.getBody();
+		if (guideContent == null) {
+			return responses;
+		}
+		List<GuideSection> sections = guideContent.getSections();
+		guideContent.setSections(null);
+		if (sections == null) {
+			sections = GuideSection.split(guideContent.getContent());
+		}
+		for (GuideSection section : sections) {
+			GuideSectionModel model = new GuideSectionModel(guideContent.getName(), section);
+			model.add(linkTo(methodOn(GuidesController.class).renderGuideSection(guideType.getSlug(), guide,
+					section.getId()))
+				.withSelfRel());
+			model.add(linkTo(methodOn(GuidesController.class).renderGuide(guideType.getSlug(), guide))
+				.withRel("content"));
+			model.add(linkTo(methodOn(GuidesController.class).showGuide(guideType.getSlug(), guide)).withRel("guide"));
+			String etag = DigestUtils.md5DigestAsHex(section.getContent().getBytes(StandardCharsets.UTF_8));
+			responses.put(section.getId(), ResponseEntity.ok().eTag(etag).body(model));
+		}
+		return responses;
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+/**
+ * Query parameters narrowing down the guides listed by {@link GuidesController}. Guides
+ * can be filtered by type, category and project, and listed one page at a time.
+ *
+ * @param type the slug of the type of the guides
+ * @param category the display name of a category of the guides, ignoring case
+ * @param project a project of the guides
+ * @param page the zero-based index of the page
+ * @param size the number of guides in a page
+ */
+public record GuidesQuery(String type, String category, String project, Integer page, Integer size) {
+
+	/**
+	 * Return whether this query filters the guides.
+	 * @return whether a filter is set
+	 */
+	boolean isFiltered() {
+		return this.type != null || this.category != null || this.project != null;
+	}
+
+	/**
+	 * Return whether this query lists a single page of guides.
+	 * @return whether the page or its size is set
+	 */
+	boolean isPaged() {
+		return this.page != null || this.size != null;
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.util.Map;
+
+/**
+ * Extracts the text of rendered HTML, for instance to index it. Markup is dropped, as
+ * well as the content of scripts and styles, and the common character entities are
+ * decoded.
+ */
+final class HtmlText {
+
+	private static final Map<String, String> ENTITIES = Map.of("amp", "&", "lt", "<", "gt", ">", "quot", "\"",
+			"apos", "'", "nbsp", " ", "#39", "'", "#8217", "'", "#8230", "...");
+
+	private HtmlText() {
+	}
+
+	/**
+	 * Extract the text of the given HTML.
+	 * @param html the HTML, can be {@code null}
+	 * @return the text, with markup replaced by spaces
+	 */
+	static String extract(String html) {
+		if (html == null) {
+			return "";
+		}
+		StringBuilder text = new StringBuilder(html.length());
+		int i = 0;
+		while (i < html.length()) {
+			char c = html.charAt(i);
+			if (c == '<') {
+				int end = html.indexOf('>', i);
+				if (end == -1) {
+					break;
+				}
+				String tag = html.substring(i + 1, end).trim().toLowerCase();
+				i = end + 1;
+				if (tag.startsWith("script") || tag.startsWith("style")) {
+					String closing = "</" + (tag.startsWith("script") ? "script" : "style");
+					int close = indexOfIgnoreCase(html, closing, i);
+					i = (close != -1) ? close : html.length();
+				}
+				text.append(' ');
+			}
+			else if (c == '&') {
+				int end = html.indexOf(';', i);
+				String entity = (end != -1 && end - i <= 8) ? ENTITIES.get(html.substring(i + 1, end)) : null;
+				if (entity != null) {
+					text.append(entity);
+					i = end + 1;
+				}
+				else {
+					text.append(c);
+					i++;
+				}
+			}
+			else {
+				text.append(c);
+				i++;
+			}
+		}
+		return text.toString();
+	}
+
+	private static int indexOfIgnoreCase(String text, String searched, int from) {
+		for (int i = from; i <= text.length() - searched.length(); i++) {
+			if (text.regionMatches(true, i, searched, 0, searched.length())) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import io.spring.renderer.github.GithubResourceNotFoundException;
+import io.spring.renderer.github.Repository;
+
+/**
+ * {@link GuideCatalog} listing the checkouts of a {@link GuideMirror}. Git does not know
+ * the description of a GitHub repository, so it is read from the description file of the
+ * checkout, in the same {@code title :: description} format, and otherwise defaults to
+ * the title of the readme. URLs point to the mirrored repository on GitHub.
+ */
+class MirrorGuideCatalog implements GuideCatalog {
+
+	private static final String DEFAULT_GIT_DESCRIPTION = "Unnamed repository";
+
+	private static final String README_FILENAME = "README.adoc";
+
+	private final GuideMirror mirror;
+
+	MirrorGuideCatalog(GuideMirror mirror) {
+		this.mirror = mirror;
+	}
+
+	@Override
+	public List<Repository> fetchRepositories(String organization) {
+		return this.mirror.checkouts().stream().map((checkout) -> repository(organization, checkout)).toList();
+	}
+
+	@Override
+	public Repository fetchRepository(String organization, String repositoryName) {
+		Path checkout = this.mirror.find(repositoryName);
+		if (checkout == null) {
+			throw new GithubResourceNotFoundException(organization, repositoryName, null);
+		}
+		return repository(organization, checkout);
+	}
+
+	private Repository repository(String organization, Path checkout) {
+		String name = checkout.getFileName().toString();
+		String fullName = organization + "/" + name;
+		return new Repository(null, name, fullName, description(checkout), "https://github.com/" + fullName,
+				"git://github.com/" + fullName + ".git", "git@github.com:" + fullName + ".git",
+				"https://github.com/" + fullName + ".git", Collections.emptyList());
+	}
+
+	private String description(Path checkout) {
+		try {
+			Path gitDescription = checkout.resolve(".git").resolve("description");
+			if (Files.isRegularFile(gitDescription)) {
+				String description = Files.readString(gitDescription, StandardCharsets.UTF_8).trim();
+				if (!description.isEmpty() && !description.startsWith(DEFAULT_GIT_DESCRIPTION)) {
+					return description;
+				}
+			}
+			Path readme = checkout.resolve(README_FILENAME);
+			if (Files.isRegularFile(readme)) {
+				try (Stream<String> lines = Files.lines(readme, StandardCharsets.UTF_8)) {
+					return lines.filter((line) -> line.startsWith("= "))
+						.map((line) -> line.substring(2).trim())
+						.findFirst()
+						.orElse(null);
+				}
+			}
+			return null;
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Could not read the description of " + checkout, ex);
+		}
+	}
+
+}
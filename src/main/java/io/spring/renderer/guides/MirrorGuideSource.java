@@ -0,0 +1,44 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.nio.file.Path;
+
+import io.spring.renderer.github.GithubResourceNotFoundException;
+
+/**
+ * {@link GuideSource} rendering guides in place from the checkouts of a
+ * {@link GuideMirror}, without any download.
+ */
+class MirrorGuideSource implements GuideSource {
+
+	private final GuideMirror mirror;
+
+	MirrorGuideSource(GuideMirror mirror) {
+		this.mirror = mirror;
+	}
+
+	@Override
+	public GuideFiles fetch(String organization, String repositoryName) {
+		Path checkout = this.mirror.find(repositoryName);
+		if (checkout == null) {
+			throw new GithubResourceNotFoundException(organization, repositoryName, null);
+		}
+		return GuideFiles.existing(checkout.toFile());
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.spring.renderer.RendererProperties;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+/**
+ * Bound the number of guides rendered concurrently, so that a burst of renders, such as
+ * when the caches are cold, cannot take all the request threads and starve cheaper
+ * requests. Renders beyond the limit wait for a permit in a bounded queue, and are
+ * rejected once the queue is full or when they waited for too long.
+ */
+@Component
+class RenderBulkhead {
+
+	private final Semaphore permits;
+
+	private final int maxQueued;
+
+	private final Duration queueTimeout;
+
+	private final Duration retryAfter;
+
+	private final AtomicInteger queued = new AtomicInteger();
+
+	private final Permit permit;
+
+	RenderBulkhead(RendererProperties properties) {
+		RendererProperties.Render render = properties.getRender();
+		Assert.isTrue(render.getMaxConcurrent() > 0, "Maximum number of concurrent renders must be positive");
+		this.permits = new Semaphore(render.getMaxConcurrent(), true);
+		this.maxQueued = render.getMaxQueued();
+		this.queueTimeout = render.getQueueTimeout();
+		this.retryAfter = render.getRetryAfter();
+		this.permit = this.permits::release;
+	}
+
+	/**
+	 * Acquire a permit to render a guide, waiting in the queue if all permits are in use.
+	 * @return the permit, to be closed once the render is done, or {@code null} if the
+	 * render is rejected
+	 */
+	Permit tryAcquire() {
+		if (this.permits.tryAcquire()) {
+			return this.permit;
+		}
+		if (this.queued.incrementAndGet() > this.maxQueued) {
+			this.queued.decrementAndGet();
+			return null;
+		}
+		try {
+			return this.permits.tryAcquire(this.queueTimeout.toNanos(), TimeUnit.NANOSECONDS) ? this.permit : null;
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+		finally {
+			this.queued.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Return how long clients should wait before retrying a rejected render.
+	 * @return the time to wait
+	 */
+	Duration getRetryAfter() {
+		return this.retryAfter;
+	}
+
+	/**
+	 * Permit to render a guide.
+	 */
+	@FunctionalInterface
+	interface Permit extends AutoCloseable {
+
+		@Override
+		void close();
+
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline of a guide render running on the current thread. Once the deadline expires,
+ * the rendering thread is interrupted so that interruptible operations, such as the
+ * requests of the {@link io.spring.renderer.github.GithubClient GithubClient} and the
+ * Asciidoctor conversion, are abandoned, and the render checks the deadline between its
+ * stages. The interrupt never outlives the render: it is cleared when the deadline is
+ * closed.
+ */
+final class RenderDeadline implements AutoCloseable {
+
+	private final Thread thread;
+
+	private final long expiresAt;
+
+	private final ScheduledFuture<?> interruption;
+
+	private boolean expired;
+
+	private boolean closed;
+
+	private RenderDeadline(ScheduledExecutorService scheduler, Duration timeout) {
+		this.thread = Thread.currentThread();
+		this.expiresAt = System.nanoTime() + timeout.toNanos();
+		this.interruption = scheduler.schedule(this::expire, timeout.toNanos(), TimeUnit.NANOSECONDS);
+	}
+
+	private RenderDeadline() {
+		this.thread = Thread.currentThread();
+		this.expiresAt = 0;
+		this.interruption = null;
+	}
+
+	/**
+	 * Start the deadline of a render running on the current thread.
+	 * @param scheduler the scheduler used to interrupt the render once it expires
+	 * @param timeout the time the render may take, or {@code null} or zero for no deadline
+	 * @return the deadline, to be closed once the render is done
+	 */
+	static RenderDeadline start(ScheduledExecutorService scheduler, Duration timeout) {
+		if (timeout == null || timeout.isZero() || timeout.isNegative()) {
+			return new RenderDeadline();
+		}
+		return new RenderDeadline(scheduler, timeout);
+	}
+
+	private synchronized void expire() {
+		if (!this.closed) {
+			this.expired = true;
+			this.thread.interrupt();
+		}
+	}
+
+	/**
+	 * Return whether the deadline expired.
+	 * @return whether the deadline expired
+	 */
+	synchronized boolean isExpired() {
+		return this.expired || (this.interruption != null && System.nanoTime() - this.expiresAt >= 0);
+	}
+
+	@Override
+	public void close() {
+		if (this.interruption == null) {
+			return;
+		}
+		this.interruption.cancel(false);
+		synchronized (this) {
+			this.closed = true;
+			if (this.expired) {
+				// Clear the interrupt of the expired render
+				Thread.interrupted();
+			}
+		}
+	}
+
+}
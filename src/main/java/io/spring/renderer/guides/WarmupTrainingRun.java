@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exit the application once it is started and warmed up. The warm-up renders a bundled
+ * guide offline, so such a training run loads the classes needed to serve guides without
+ * any network access, and can be used to record a class data sharing archive.
+ */
+@Component
+@ConditionalOnProperty("renderer.warmup.training-run")
+class WarmupTrainingRun implements ApplicationListener<ApplicationReadyEvent> {
+
+	private static final Log logger = LogFactory.getLog(WarmupTrainingRun.class);
+
+	private final AsciidoctorWarmup warmup;
+
+	WarmupTrainingRun(AsciidoctorWarmup warmup) {
+		this.warmup = warmup;
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationReadyEvent event) {
+		int exitCode = 0;
+		try {
+			this.warmup.getCompletion().join();
+			logger.info("Training run completed, application was ready in "
+					+ event.getTimeTaken().toMillis() + "ms");
+		}
+		catch (RuntimeException ex) {
+			logger.error("Training run failed", ex);
+			exitCode = 1;
+		}
+		int status = exitCode;
+		System.exit(SpringApplication.exit(event.getApplicationContext(), () -> status));
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Enumeration;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import io.micrometer.core.instrument.Timer;
+import io.spring.renderer.github.GithubClient;
+
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StreamUtils;
+
+/**
+ * {@link GuideSource} downloading entire repositories from GitHub as zipballs, and
+ * unpacking them locally.
+ */
+class ZipballGuideSource implements GuideSource {
+
+	static final String SOURCE_NAME = "zipball";
+
+	private final GithubClient githubClient;
+
+	private final GuideRenderMetrics metrics;
+
+	ZipballGuideSource(GithubClient githubClient, GuideRenderMetrics metrics) {
+		this.githubClient = githubClient;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public GuideFiles fetch(String organization, String repositoryName) throws IOException {
+		Timer.Sample downloadSample = this.metrics.startStage();
+		byte[] download = this.githubClient.downloadRepositoryAsZipball(organization, repositoryName);
+		this.metrics.stopStage(downloadSample, "download");
+		this.metrics.recordArchiveSize(download.length);
+		this.metrics.recordTransferredBytes(SOURCE_NAME, download.length);
+
+		Timer.Sample extractSample = this.metrics.startStage();
+		File zipball = null;
+		File unzippedRoot = null;
+		try {
+			// First, write the downloaded stream of bytes into a file
+			zipball = File.createTempFile(organization + "-" + repositoryName, ".zip");
+			zipball.deleteOnExit();
+			try (FileOutputStream zipOut = new FileOutputStream(zipball)) {
+				zipOut.write(download);
+			}
+
+			// Open the zip file and unpack it
+			try (ZipFile zipFile = new ZipFile(zipball)) {
+				for (Enumeration<? extends ZipEntry> e = zipFile.entries(); e.hasMoreElements();) {
+					ZipEntry entry = e.nextElement();
+					if (entry.isDirectory()) {
+						File dir = new File(zipball.getParent() + File.separator + entry.getName());
+						dir.mkdir();
+						if (unzippedRoot == null) {
+							unzippedRoot = dir; // first directory is the root
+						}
+					}
+					else {
+						try (FileOutputStream output = new FileOutputStream(
+								zipball.getParent() + File.separator + entry.getName())) {
+							StreamUtils.copy(zipFile.getInputStream(entry), output);
+						}
+					}
+				}
+			}
+			this.metrics.stopStage(extractSample, "extract");
+			return GuideFiles.temporary(unzippedRoot, zipball, unzippedRoot);
+		}
+		catch (IOException | RuntimeException ex) {
+			FileSystemUtils.deleteRecursively(zipball);
+			FileSystemUtils.deleteRecursively(unzippedRoot);
+			throw ex;
+		}
+	}
+
+}
@@ -20,33 +20,50 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 
+import io.micrometer.core.instrument.Timer;
+import io.spring.renderer.AsciidoctorRuntime;
+import io.spring.renderer.guides.GuideAssetStore;
 import io.spring.renderer.guides.GuideContentModel;
+import io.spring.renderer.guides.GuideRenderMetrics;
 import io.spring.renderer.guides.GuideRenderingException;
-import org.asciidoctor.Asciidoctor;
+import io.spring.renderer.guides.GuideSection;
 import org.asciidoctor.Attributes;
 import org.asciidoctor.Options;
 import org.asciidoctor.SafeMode;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
 import org.jsoup.nodes.Node;
 import org.jsoup.select.Elements;
 
 import org.springframework.stereotype.Component;
 
 /**
- * Render the README.adoc file with Asciidoctor and contribute the guide content and its
- * table of contents.
+ * Render the README.adoc file with Asciidoctor and contribute the guide content, its
+ * table of contents and its top level sections.
  */
 @Component
 public class AsciidoctorGuideContentContributor implements GuideContentContributor {
 
 	private static final String README_FILENAME = "README.adoc";
 
-	private final Asciidoctor asciidoctor;
+	private final AsciidoctorRuntime asciidoctor;
 
-	public AsciidoctorGuideContentContributor(Asciidoctor asciidoctor) {
+	private final GuideRenderMetrics metrics;
+
+	private final GuideAssetStore assetStore;
+
+	private final CodeBlockHighlighter highlighter;
+
+	public AsciidoctorGuideContentContributor(AsciidoctorRuntime asciidoctor, GuideRenderMetrics metrics,
+			GuideAssetStore assetStore, CodeBlockHighlighter highlighter) {
 		this.asciidoctor = asciidoctor;
+		this.metrics = metrics;
+		this.assetStore = assetStore;
+		this.highlighter = highlighter;
 	}
 
 	@Override
@@ -61,16 +78,60 @@ public class AsciidoctorGuideContentContributor implements GuideContentContribut
 				.attributes(attributes)
 				.build();
 			StringWriter writer = new StringWriter();
-			this.asciidoctor.convert(new FileReader(readmeAdocFile), writer, options);
+			Timer.Sample convertSample = this.metrics.startStage();
+			this.asciidoctor.get().convert(new FileReader(readmeAdocFile), writer, options);
+			this.metrics.stopStage(convertSample, "convert");
+			Timer.Sample parseSample = this.metrics.startStage();
 			Document doc = Jsoup.parse(writer.toString());
+			this.metrics.stopStage(parseSample, "parse");
+			Timer.Sample assetsSample = this.metrics.startStage();
+			captureImages(doc, repositoryRoot);
+			this.metrics.stopStage(assetsSample, "assets");
+			Timer.Sample highlightSample = this.metrics.startStage();
+			this.highlighter.highlight(doc.body());
+			this.metrics.stopStage(highlightSample, "highlight");
+			Timer.Sample contentSample = this.metrics.startStage();
 			guideContent.setContent(doc.select("#content").html() + "\n<!-- rendered by Sagan Renderer Service -->");
+			this.metrics.stopStage(contentSample, "extract-content");
+			Timer.Sample sectionsSample = this.metrics.startStage();
+			guideContent.setSections(GuideSection.split(doc.getElementById("content")));
+			this.metrics.stopStage(sectionsSample, "sections");
+			Timer.Sample tocSample = this.metrics.startStage();
 			guideContent.setTableOfContents(findTableOfContents(doc));
+			this.metrics.stopStage(tocSample, "table-of-contents");
 		}
 		catch (IOException e) {
 			throw new GuideRenderingException(guideContent.getName(), e);
 		}
 	}
 
+	/**
+	 * Capture the images of the repository referenced by the guide, and point them to
+	 * their captured copy. Remote images and images that cannot be captured are left as
+	 * they are.
+	 * @param doc the rendered HTML guide
+	 * @param repositoryRoot the repository root folder
+	 */
+	private void captureImages(Document doc, File repositoryRoot) {
+		Path root = repositoryRoot.toPath().toAbsolutePath().normalize();
+		for (Element image : doc.select("#content img[src]")) {
+			String src = image.attr("src");
+			if (src.isEmpty() || src.startsWith("/") || src.contains(":")) {
+				continue;
+			}
+			try {
+				Path file = root.resolve(src).normalize();
+				String url = (file.startsWith(root)) ? this.assetStore.capture(file) : null;
+				if (url != null) {
+					image.attr("src", url);
+				}
+			}
+			catch (InvalidPathException ex) {
+				// Not a file of the repository
+			}
+		}
+	}
+
 	/**
 	 * Extract top level table-of-content entries, and discard lower level links
 	 * @param doc the rendered HTML guide
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides.content;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+import io.spring.renderer.RendererProperties;
+import org.jsoup.nodes.Element;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Component;
+
+/**
+ * Highlight the code listings of rendered guides on the server, so that browsers only
+ * have to style them. Highlighted code is cached by language and hash of the code, and
+ * shared by all guides and renders: most listings are unchanged between two renders of a
+ * guide, and build files are shared by many guides. The hits and misses of the
+ * {@value #CACHE_NAME} cache are published with the other cache metrics.
+ */
+@Component
+public class CodeBlockHighlighter {
+
+	/**
+	 * Name of the cache of highlighted code.
+	 */
+	public static final String CACHE_NAME = "codeHighlights";
+
+	private final boolean enabled;
+
+	private final Cache cache;
+
+	public CodeBlockHighlighter(RendererProperties properties, CacheManager cacheManager) {
+		this.enabled = properties.getHighlighting().isEnabled();
+		this.cache = cacheManager.getCache(CACHE_NAME);
+	}
+
+	/**
+	 * Highlight the source listings of the given rendered content, in place. Listings in
+	 * an unsupported language, or holding markup such as callouts or code already
+	 * highlighted by Asciidoctor, are left as they are. Highlighted listings are no
+	 * longer marked for client-side highlighting with prettify.
+	 * @param content the rendered content
+	 */
+	public void highlight(Element content) {
+		if (!this.enabled) {
+			return;
+		}
+		for (Element code : content.select("pre.highlight > code[data-lang]")) {
+			String language = code.attr("data-lang").toLowerCase(Locale.ROOT);
+			if (!SourceHighlighter.supports(language) || code.childrenSize() > 0) {
+				continue;
+			}
+			String source = code.wholeText();
+			code.html(highlight(language, source));
+			code.addClass("hljs");
+			code.parent().removeClass("prettyprint");
+		}
+	}
+
+	private String highlight(String language, String source) {
+		if (this.cache == null) {
+			return SourceHighlighter.highlight(language, source);
+		}
+		SimpleKey key = new SimpleKey(language, hash(source));
+		return this.cache.get(key, () -> SourceHighlighter.highlight(language, source));
+	}
+
+	private static String hash(String source) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
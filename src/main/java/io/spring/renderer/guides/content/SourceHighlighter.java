@@ -0,0 +1,447 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides.content;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lightweight lexical highlighter for the languages commonly used in guides. Tokens are
+ * wrapped in spans using the class names of highlight.js, so that its stylesheets can
+ * style the highlighted code without running it in the browser.
+ */
+final class SourceHighlighter {
+
+	private static final Set<String> JAVA_KEYWORDS = Set.of("abstract", "assert", "boolean", "break", "byte",
+			"case", "catch", "char", "class", "const", "continue", "default", "do", "double", "else", "enum",
+			"extends", "final", "finally", "float", "for", "goto", "if", "implements", "import", "instanceof", "int",
+			"interface", "long", "native", "new", "package", "private", "protected", "public", "record", "return",
+			"short", "static", "strictfp", "super", "switch", "synchronized", "this", "throw", "throws", "transient",
+			"try", "var", "void", "volatile", "while", "yield");
+
+	private static final Set<String> KOTLIN_KEYWORDS = Set.of("as", "break", "by", "catch", "class", "companion",
+			"constructor", "continue", "data", "do", "else", "enum", "for", "fun", "if", "import", "in", "init",
+			"interface", "internal", "is", "lateinit", "object", "open", "override", "package", "private",
+			"protected", "public", "return", "sealed", "super", "this", "throw", "try", "typealias", "val", "var",
+			"when", "while");
+
+	private static final Set<String> GROOVY_KEYWORDS = Set.of("as", "assert", "break", "case", "catch", "class",
+			"continue", "def", "default", "do", "else", "enum", "extends", "final", "finally", "for", "if",
+			"implements", "import", "in", "instanceof", "interface", "new", "package", "private", "protected",
+			"public", "return", "static", "super", "switch", "this", "throw", "throws", "try", "void", "while");
+
+	private static final Set<String> JAVASCRIPT_KEYWORDS = Set.of("async", "await", "break", "case", "catch",
+			"class", "const", "continue", "default", "delete", "do", "else", "export", "extends", "finally", "for",
+			"from", "function", "if", "import", "in", "instanceof", "let", "new", "of", "return", "super", "switch",
+			"this", "throw", "try", "typeof", "var", "void", "while", "yield");
+
+	private static final Set<String> SQL_KEYWORDS = Set.of("add", "alter", "and", "as", "asc", "by", "constraint",
+			"create", "default", "delete", "desc", "drop", "exists", "foreign", "from", "group", "if", "in", "index",
+			"insert", "into", "join", "key", "left", "not", "on", "or", "order", "primary", "references", "select",
+			"set", "table", "unique", "update", "values", "where");
+
+	private static final Set<String> LITERALS = Set.of("true", "false", "null");
+
+	private static final Map<String, Language> LANGUAGES = new HashMap<>();
+
+	static {
+		register(new CLikeLanguage(JAVA_KEYWORDS, "//", true, false, false), "java");
+		register(new CLikeLanguage(KOTLIN_KEYWORDS, "//", true, false, false), "kotlin", "kt");
+		register(new CLikeLanguage(GROOVY_KEYWORDS, "//", true, false, false), "groovy", "gradle");
+		register(new CLikeLanguage(JAVASCRIPT_KEYWORDS, "//", false, true, false), "javascript", "js", "typescript",
+				"ts");
+		register(new CLikeLanguage(SQL_KEYWORDS, "--", false, false, true), "sql");
+		register(new MarkupLanguage(), "xml", "html");
+		register(new HashCommentLanguage(':'), "yaml", "yml");
+		register(new HashCommentLanguage('='), "properties");
+		register(new HashCommentLanguage((char) 0), "bash", "sh", "shell", "console");
+		register(new JsonLanguage(), "json");
+	}
+
+	private SourceHighlighter() {
+	}
+
+	private static void register(Language language, String... names) {
+		for (String name : names) {
+			LANGUAGES.put(name, language);
+		}
+	}
+
+	/**
+	 * Return whether code in the given language can be highlighted.
+	 * @param language the name of the language
+	 * @return whether the language is supported
+	 */
+	static boolean supports(String language) {
+		return language != null && LANGUAGES.containsKey(language.toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * Highlight the given code.
+	 * @param language the name of the language of the code
+	 * @param code the code, as plain text
+	 * @return the highlighted code, as HTML
+	 */
+	static String highlight(String language, String code) {
+		Language grammar = LANGUAGES.get(language.toLowerCase(Locale.ROOT));
+		Output output = new Output(code.length());
+		grammar.highlight(code, output);
+		return output.toString();
+	}
+
+	private static int scanString(String code, int start, char quote) {
+		int i = start + 1;
+		while (i < code.length()) {
+			char c = code.charAt(i);
+			if (c == '\\') {
+				i += 2;
+			}
+			else if (c == quote) {
+				return i + 1;
+			}
+			else if (c == '\n') {
+				return i;
+			}
+			else {
+				i++;
+			}
+		}
+		return code.length();
+	}
+
+	private static int scanUntil(String code, int start, String end) {
+		int index = code.indexOf(end, start);
+		return (index != -1) ? index + end.length() : code.length();
+	}
+
+	private static int scanNumber(String code, int start) {
+		int i = start;
+		while (i < code.length() && (Character.isLetterOrDigit(code.charAt(i)) || code.charAt(i) == '_'
+				|| (code.charAt(i) == '.' && i + 1 < code.length() && Character.isDigit(code.charAt(i + 1))))) {
+			i++;
+		}
+		return i;
+	}
+
+	private static int scanIdentifier(String code, int start) {
+		int i = start;
+		while (i < code.length() && Character.isJavaIdentifierPart(code.charAt(i))) {
+			i++;
+		}
+		return i;
+	}
+
+	private static boolean isWordBoundary(String code, int index) {
+		return index == 0 || !Character.isJavaIdentifierPart(code.charAt(index - 1));
+	}
+
+	private interface Language {
+
+		void highlight(String code, Output output);
+
+	}
+
+	/**
+	 * Languages with C-style block comments, such as Java or Kotlin. Keywords that are
+	 * not case-sensitive, as in SQL, are registered in lower case.
+	 */
+	private record CLikeLanguage(Set<String> keywords, String lineComment, boolean annotations, boolean backticks,
+			boolean ignoreCase) implements Language {
+
+		@Override
+		public void highlight(String code, Output output) {
+			int i = 0;
+			while (i < code.length()) {
+				char c = code.charAt(i);
+				int end;
+				if (code.startsWith(this.lineComment, i)) {
+					end = code.indexOf('\n', i);
+					end = (end != -1) ? end : code.length();
+					output.span("comment", code, i, end);
+					i = end;
+				}
+				else if (code.startsWith("/*", i)) {
+					end = scanUntil(code, i + 2, "*/");
+					output.span("comment", code, i, end);
+					i = end;
+				}
+				else if (code.startsWith("\"\"\"", i)) {
+					end = scanUntil(code, i + 3, "\"\"\"");
+					output.span("string", code, i, end);
+					i = end;
+				}
+				else if (c == '"' || c == '\'' || (c == '`' && this.backticks)) {
+					end = scanString(code, i, c);
+					output.span("string", code, i, end);
+					i = end;
+				}
+				else if (c == '@' && this.annotations && i + 1 < code.length()
+						&& Character.isJavaIdentifierStart(code.charAt(i + 1))) {
+					end = scanIdentifier(code, i + 1);
+					while (end + 1 < code.length() && code.charAt(end) == '.'
+							&& Character.isJavaIdentifierStart(code.charAt(end + 1))) {
+						end = scanIdentifier(code, end + 1);
+					}
+					output.span("meta", code, i, end);
+					i = end;
+				}
+				else if (Character.isDigit(c) && isWordBoundary(code, i)) {
+					end = scanNumber(code, i);
+					output.span("number", code, i, end);
+					i = end;
+				}
+				else if (Character.isJavaIdentifierStart(c)) {
+					end = scanIdentifier(code, i);
+					String word = code.substring(i, end);
+					String match = this.ignoreCase ? word.toLowerCase(Locale.ROOT) : word;
+					if (this.keywords.contains(match)) {
+						output.span("keyword", code, i, end);
+					}
+					else if (LITERALS.contains(match)) {
+						output.span("literal", code, i, end);
+					}
+					else {
+						output.text(code, i, end);
+					}
+					i = end;
+				}
+				else {
+					output.text(code, i, i + 1);
+					i++;
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Languages with comments starting with {@code #}, such as YAML or shell scripts,
+	 * optionally made of key-value pairs.
+	 */
+	private record HashCommentLanguage(char separator) implements Language {
+
+		@Override
+		public void highlight(String code, Output output) {
+			int i = 0;
+			boolean lineStart = true;
+			while (i < code.length()) {
+				char c = code.charAt(i);
+				int end;
+				if (lineStart && this.separator != 0 && (end = scanKey(code, i)) > i) {
+					output.span("attr", code, i, end);
+					i = end;
+				}
+				else if (c == '#' && (i == 0 || Character.isWhitespace(code.charAt(i - 1)))) {
+					end = code.indexOf('\n', i);
+					end = (end != -1) ? end : code.length();
+					output.span("comment", code, i, end);
+					i = end;
+				}
+				else if ((c == '"' || c == '\'') && (i == 0 || " \t:=[{,(".indexOf(code.charAt(i - 1)) != -1)) {
+					end = scanString(code, i, c);
+					output.span("string", code, i, end);
+					i = end;
+				}
+				else {
+					output.text(code, i, i + 1);
+					i++;
+				}
+				lineStart = (c == '\n') || (lineStart && (c == ' ' || c == '\t' || c == '-'));
+			}
+		}
+
+		private int scanKey(String code, int start) {
+			int i = start;
+			while (i < code.length() && isKeyCharacter(code.charAt(i))) {
+				i++;
+			}
+			if (i == start) {
+				return start;
+			}
+			int separatorIndex = i;
+			while (separatorIndex < code.length() && code.charAt(separatorIndex) == ' ') {
+				separatorIndex++;
+			}
+			if (separatorIndex < code.length() && (code.charAt(separatorIndex) == this.separator
+					|| (this.separator == '=' && code.charAt(separatorIndex) == ':'))) {
+				return i;
+			}
+			return start;
+		}
+
+		private boolean isKeyCharacter(char c) {
+			return Character.isLetterOrDigit(c) || "_-.[]".indexOf(c) != -1;
+		}
+
+	}
+
+	/**
+	 * Markup languages, such as XML or HTML.
+	 */
+	private record MarkupLanguage() implements Language {
+
+		@Override
+		public void highlight(String code, Output output) {
+			int i = 0;
+			while (i < code.length()) {
+				if (code.startsWith("<!--", i)) {
+					int end = scanUntil(code, i + 4, "-->");
+					output.span("comment", code, i, end);
+					i = end;
+				}
+				else if (code.charAt(i) == '<' && i + 1 < code.length()
+						&& (Character.isLetter(code.charAt(i + 1)) || "/?!".indexOf(code.charAt(i + 1)) != -1)) {
+					i = highlightTag(code, i, output);
+				}
+				else {
+					output.text(code, i, i + 1);
+					i++;
+				}
+			}
+		}
+
+		private int highlightTag(String code, int start, Output output) {
+			int i = start + 1;
+			while (i < code.length() && "/?!".indexOf(code.charAt(i)) != -1) {
+				i++;
+			}
+			output.text(code, start, i);
+			int end = i;
+			while (end < code.length() && isNameCharacter(code.charAt(end))) {
+				end++;
+			}
+			output.span("name", code, i, end);
+			i = end;
+			while (i < code.length() && code.charAt(i) != '>') {
+				char c = code.charAt(i);
+				if (c == '"' || c == '\'') {
+					end = scanUntil(code, i + 1, String.valueOf(c));
+					output.span("string", code, i, end);
+					i = end;
+				}
+				else if (isNameCharacter(c)) {
+					end = i;
+					while (end < code.length() && isNameCharacter(code.charAt(end))) {
+						end++;
+					}
+					output.span("attr", code, i, end);
+					i = end;
+				}
+				else {
+					output.text(code, i, i + 1);
+					i++;
+				}
+			}
+			if (i < code.length()) {
+				output.text(code, i, i + 1);
+				i++;
+			}
+			return i;
+		}
+
+		private boolean isNameCharacter(char c) {
+			return Character.isLetterOrDigit(c) || c == ':' || c == '-' || c == '_' || c == '.';
+		}
+
+	}
+
+	/**
+	 * JSON documents, whose object keys are highlighted as attributes.
+	 */
+	private record JsonLanguage() implements Language {
+
+		@Override
+		public void highlight(String code, Output output) {
+			int i = 0;
+			while (i < code.length()) {
+				char c = code.charAt(i);
+				int end;
+				if (c == '"') {
+					end = scanString(code, i, c);
+					int next = end;
+					while (next < code.length() && Character.isWhitespace(code.charAt(next))) {
+						next++;
+					}
+					output.span((next < code.length() && code.charAt(next) == ':') ? "attr" : "string", code, i, end);
+					i = end;
+				}
+				else if ((Character.isDigit(c) || c == '-') && isWordBoundary(code, i)) {
+					end = scanNumber(code, i + 1);
+					output.span("number", code, i, end);
+					i = end;
+				}
+				else if (Character.isLetter(c)) {
+					end = scanIdentifier(code, i);
+					if (LITERALS.contains(code.substring(i, end))) {
+						output.span("literal", code, i, end);
+					}
+					else {
+						output.text(code, i, end);
+					}
+					i = end;
+				}
+				else {
+					output.text(code, i, i + 1);
+					i++;
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Highlighted HTML, escaping the code it is made of.
+	 */
+	private static final class Output {
+
+		private final StringBuilder html;
+
+		Output(int length) {
+			this.html = new StringBuilder(length + length / 2);
+		}
+
+		void span(String type, String code, int start, int end) {
+			if (start == end) {
+				return;
+			}
+			this.html.append("<span class=\"hljs-").append(type).append("\">");
+			text(code, start, end);
+			this.html.append("</span>");
+		}
+
+		void text(String code, int start, int end) {
+			for (int i = start; i < end; i++) {
+				char c = code.charAt(i);
+				switch (c) {
+					case '&' -> this.html.append("&amp;");
+					case '<' -> this.html.append("&lt;");
+					case '>' -> this.html.append("&gt;");
+					default -> this.html.append(c);
+				}
+			}
+		}
+
+		@Override
+		public String toString() {
+			return this.html.toString();
+		}
+
+	}
+
+}
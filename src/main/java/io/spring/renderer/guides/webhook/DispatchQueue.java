@@ -0,0 +1,274 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides.webhook;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.spring.renderer.RendererProperties;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Durable queue of the {@link QueuedDispatch repository dispatches} requested by
+ * webhooks. Each dispatch is stored in its own file, named after its position in the
+ * queue, so that pending dispatches survive a restart of the application. Dispatches
+ * that exhausted their attempts are moved to a {@code failed} sub-directory.
+ */
+@Component
+class DispatchQueue {
+
+	private static final Log logger = LogFactory.getLog(DispatchQueue.class);
+
+	private static final String EXTENSION = ".json";
+
+	private final Path directory;
+
+	private final Path failedDirectory;
+
+	private final ObjectMapper objectMapper;
+
+	private final NavigableMap<Long, QueuedDispatch> dispatches = new TreeMap<>();
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Condition notEmpty = this.lock.newCondition();
+
+	private long nextSequence;
+
+	@Autowired
+	DispatchQueue(RendererProperties properties, ObjectMapper objectMapper) throws IOException {
+		this(queueDirectory(properties.getGithub().getWebhook().getDispatch()), objectMapper);
+	}
+
+	DispatchQueue(Path directory, ObjectMapper objectMapper) throws IOException {
+		this.directory = directory;
+		this.failedDirectory = directory.resolve("failed");
+		this.objectMapper = objectMapper;
+		Files.createDirectories(this.failedDirectory);
+		load();
+	}
+
+	private static Path queueDirectory(RendererProperties.Webhook.Dispatch dispatch) throws IOException {
+		if (dispatch.getQueueDirectory() != null) {
+			return dispatch.getQueueDirectory();
+		}
+		Path directory = Files.createTempDirectory("renderer-dispatch-queue-");
+		logger.warn("No queue directory configured, pending repository dispatches are queued in " + directory
+				+ " and will not be resumed after a restart");
+		return directory;
+	}
+
+	private void load() throws IOException {
+		try (Stream<Path> files = Files.list(this.directory)) {
+			for (Path file : files.filter((candidate) -> candidate.toString().endsWith(EXTENSION)).toList()) {
+				String name = file.getFileName().toString();
+				long sequence;
+				try {
+					sequence = Long.parseLong(name.substring(0, name.length() - EXTENSION.length()));
+				}
+				catch (NumberFormatException ex) {
+					logger.warn("Moving unknown file " + file + " to " + this.failedDirectory);
+					Files.move(file, this.failedDirectory.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+					continue;
+				}
+				try {
+					this.dispatches.put(sequence, this.objectMapper.readValue(file.toFile(), QueuedDispatch.class));
+				}
+				catch (IOException ex) {
+					logger.warn("Moving unreadable queued dispatch " + file + " to " + this.failedDirectory, ex);
+					Files.move(file, this.failedDirectory.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+				}
+				this.nextSequence = Math.max(this.nextSequence, sequence + 1);
+			}
+		}
+		if (!this.dispatches.isEmpty()) {
+			logger.info("Resuming " + this.dispatches.size() + " queued repository dispatches");
+		}
+	}
+
+	/**
+	 * Add a dispatch at the end of the queue. The dispatch is written to disk before this
+	 * method returns.
+	 * @param dispatch the dispatch to add
+	 */
+	void add(QueuedDispatch dispatch) {
+		this.lock.lock();
+		try {
+			long sequence = this.nextSequence++;
+			write(sequence, dispatch);
+			this.dispatches.put(sequence, dispatch);
+			this.notEmpty.signalAll();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Return the dispatch at the head of the queue, without removing it, waiting for a
+	 * dispatch to be added if the queue is empty.
+	 * @param timeout how long to wait for a dispatch
+	 * @return the head of the queue, or {@code null} if the queue was still empty
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	Entry peek(Duration timeout) throws InterruptedException {
+		this.lock.lock();
+		try {
+			long nanos = timeout.toNanos();
+			while (this.dispatches.isEmpty()) {
+				if (nanos <= 0) {
+					return null;
+				}
+				nanos = this.notEmpty.awaitNanos(nanos);
+			}
+			Map.Entry<Long, QueuedDispatch> head = this.dispatches.firstEntry();
+			return new Entry(head.getKey(), head.getValue());
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Return the dispatches currently in the queue, in order.
+	 * @return the entries of the queue
+	 */
+	List<Entry> entries() {
+		this.lock.lock();
+		try {
+			return this.dispatches.entrySet()
+				.stream()
+				.map((dispatch) -> new Entry(dispatch.getKey(), dispatch.getValue()))
+				.toList();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Replace a dispatch in the queue, keeping its position.
+	 * @param entry the entry of the dispatch
+	 * @param dispatch the new state of the dispatch
+	 */
+	void update(Entry entry, QueuedDispatch dispatch) {
+		this.lock.lock();
+		try {
+			if (this.dispatches.containsKey(entry.sequence())) {
+				write(entry.sequence(), dispatch);
+				this.dispatches.put(entry.sequence(), dispatch);
+			}
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Remove a dispatch from the queue, once it has been performed.
+	 * @param entry the entry of the dispatch
+	 */
+	void remove(Entry entry) {
+		this.lock.lock();
+		try {
+			this.dispatches.remove(entry.sequence());
+			Files.deleteIfExists(file(entry.sequence()));
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to remove performed dispatch", ex);
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Move a dispatch that exhausted its attempts out of the queue.
+	 * @param entry the entry of the dispatch
+	 */
+	void fail(Entry entry) {
+		this.lock.lock();
+		try {
+			this.dispatches.remove(entry.sequence());
+			Path file = file(entry.sequence());
+			Files.move(file, this.failedDirectory.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to move failed dispatch", ex);
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Return the number of dispatches in the queue.
+	 * @return the size of the queue
+	 */
+	int size() {
+		this.lock.lock();
+		try {
+			return this.dispatches.size();
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void write(long sequence, QueuedDispatch dispatch) {
+		Path file = file(sequence);
+		try {
+			Path temp = Files.createTempFile(this.directory, "dispatch-", ".tmp");
+			this.objectMapper.writeValue(temp.toFile(), dispatch);
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to write queued dispatch " + file, ex);
+		}
+	}
+
+	private Path file(long sequence) {
+		return this.directory.resolve(String.format("%019d", sequence) + EXTENSION);
+	}
+
+	/**
+	 * A dispatch and its position in the queue.
+	 *
+	 * @param sequence the position of the dispatch
+	 * @param dispatch the dispatch
+	 */
+	record Entry(long sequence, QueuedDispatch dispatch) {
+
+	}
+
+}
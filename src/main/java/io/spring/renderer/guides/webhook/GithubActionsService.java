@@ -16,7 +16,13 @@
 
 package io.spring.renderer.guides.webhook;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -42,10 +48,28 @@ class GithubActionsService {
 	}
 
 	void triggerRespositoryDispatch(String org, String repo, String token) {
-		RequestEntity<String> entity = RequestEntity.post(DISPATCH_PATH_TEMPLATE, org, repo)
+		triggerRespositoryDispatch(org, repo, token, List.of());
+	}
+
+	/**
+	 * Trigger a repository dispatch for the given updated guides, listed in the
+	 * {@code guides} attribute of its client payload.
+	 * @param org the organization of the repository to dispatch to
+	 * @param repo the repository to dispatch to
+	 * @param token the token used to authenticate
+	 * @param guides the names of the updated guide repositories
+	 */
+	void triggerRespositoryDispatch(String org, String repo, String token, Collection<String> guides) {
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("event_type", "guides");
+		if (!guides.isEmpty()) {
+			body.put("client_payload", Map.of("guides", guides));
+		}
+		RequestEntity<Map<String, Object>> entity = RequestEntity.post(DISPATCH_PATH_TEMPLATE, org, repo)
 			.header("Authorization", "Bearer " + token)
 			.header("Accept", ACCEPT_HEADER)
-			.body("{\"event_type\": \"guides\"}");
+			.contentType(MediaType.APPLICATION_JSON)
+			.body(body);
 		try {
 			this.restTemplate.exchange(entity, Void.class);
 		}
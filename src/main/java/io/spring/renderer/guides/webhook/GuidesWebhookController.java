@@ -17,18 +17,9 @@
 package io.spring.renderer.guides.webhook;
 
 import java.io.IOException;
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-import java.util.Map;
-
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
+import java.time.Instant;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.spring.renderer.RendererProperties;
-import jakarta.xml.bind.DatatypeConverter;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -44,9 +35,13 @@ import org.springframework.web.bind.annotation.RestController;
 
 /**
  * Controller that handles requests from GitHub webhook set up at
- * <a href="https://github.com/spring-guides/">the org level </a> and triggers the Github
- * Action to update the website. Github requests are signed with a shared secret, using an
- * HMAC sha-1 algorithm.
+ * <a href="https://github.com/spring-guides/">the org level </a> and queues a trigger of
+ * the Github Action to update the website, performed by the
+ * {@link RepositoryDispatchWorker}. The updated guide is also evicted from the caches of
+ * this application and of its peers. Github requests are signed with a shared secret,
+ * using an HMAC sha-256 or, for the legacy signature header, sha-1 algorithm.
+ * Redeliveries of a webhook, identified by its {@code X-GitHub-Delivery} header, are
+ * acknowledged without being processed again.
  */
 @RestController
 @RequestMapping("/webhook/")
@@ -54,48 +49,66 @@ class GuidesWebhookController {
 
 	private static final Log logger = LogFactory.getLog(GuidesWebhookController.class);
 
-	private static final Charset CHARSET = StandardCharsets.UTF_8;
-
-	private static final String HMAC_ALGORITHM = "HmacSHA1";
-
 	private static final String PING_EVENT = "ping";
 
 	private final ObjectMapper objectMapper;
 
-	private final Mac hmac;
+	private final WebhookSignatureVerifier signatureVerifier;
+
+	private final DispatchQueue dispatchQueue;
 
-	private final GithubActionsService service;
+	private final PeerEvictionService evictionService;
 
-	private final RendererProperties properties;
+	private final WebhookDeliveries deliveries;
 
 	@Autowired
-	public GuidesWebhookController(ObjectMapper objectMapper, RendererProperties properties,
-			GithubActionsService service) throws NoSuchAlgorithmException, InvalidKeyException {
+	public GuidesWebhookController(ObjectMapper objectMapper, DispatchQueue dispatchQueue,
+			PeerEvictionService evictionService, WebhookSignatureVerifier signatureVerifier,
+			WebhookDeliveries deliveries) {
 		this.objectMapper = objectMapper;
-		this.service = service;
-		// initialize HMAC with SHA1 algorithm and secret
-		SecretKeySpec secret = new SecretKeySpec(properties.getGithub().getWebhook().getSecret().getBytes(CHARSET),
-				HMAC_ALGORITHM);
-		this.hmac = Mac.getInstance(HMAC_ALGORITHM);
-		this.hmac.init(secret);
-		this.properties = properties;
+		this.dispatchQueue = dispatchQueue;
+		this.evictionService = evictionService;
+		this.signatureVerifier = signatureVerifier;
+		this.deliveries = deliveries;
 	}
 
 	@PostMapping(path = "guides", consumes = "application/json", produces = "application/json")
-	public ResponseEntity<String> processGuidesUpdate(@RequestBody String payload,
-			@RequestHeader("X-Hub-Signature") String signature,
-			@RequestHeader(name = "X-GitHub-Event", required = false, defaultValue = "push") String event)
-			throws IOException {
-		verifyHmacSignature(payload, signature);
+	public ResponseEntity<String> processGuidesUpdate(@RequestBody byte[] payload,
+			@RequestHeader(name = "X-Hub-Signature-256", required = false) String sha256Signature,
+			@RequestHeader(name = "X-Hub-Signature", required = false) String sha1Signature,
+			@RequestHeader(name = "X-GitHub-Event", required = false, defaultValue = "push") String event,
+			@RequestHeader(name = "X-GitHub-Delivery", required = false) String deliveryId) throws IOException {
+		if (sha256Signature == null && sha1Signature == null) {
+			return ResponseEntity.badRequest().body("{ \"message\": \"Missing signature\" }");
+		}
+		this.signatureVerifier.verify(payload, sha256Signature, sha1Signature);
+		if (deliveryId == null) {
+			return processEvent(payload, event);
+		}
+		if (!this.deliveries.register(deliveryId)) {
+			logger.info("Ignoring redelivery " + deliveryId + " of " + event + " event");
+			return ResponseEntity.ok("{ \"message\": \"Delivery already processed\" }");
+		}
+		try {
+			return processEvent(payload, event);
+		}
+		catch (IOException | RuntimeException ex) {
+			this.deliveries.forget(deliveryId);
+			throw ex;
+		}
+	}
+
+	private ResponseEntity<String> processEvent(byte[] payload, String event) throws IOException {
 		if (PING_EVENT.equals(event)) {
 			return ResponseEntity.ok("{ \"message\": \"Successfully processed ping event\" }");
 		}
-		Map<?, ?> push = this.objectMapper.readValue(payload, Map.class);
+		PushEvent push = PushEvent.parse(this.objectMapper.getFactory(), payload);
 		logPayload(push);
-		RendererProperties.Webhook webhook = this.properties.getGithub().getWebhook();
-		this.service.triggerRespositoryDispatch(webhook.getActionOrg(), webhook.getActionRepo(),
-				webhook.getDispatchToken());
-		return ResponseEntity.ok("{ \"message\": \"Successfully processed update\" }");
+		if (push.repository() != null) {
+			this.evictionService.evict(push.repository());
+		}
+		this.dispatchQueue.add(new QueuedDispatch(push.repository(), Instant.now(), 0));
+		return ResponseEntity.accepted().body("{ \"message\": \"Successfully queued update\" }");
 	}
 
 	@ExceptionHandler(WebhookAuthenticationException.class)
@@ -110,25 +123,14 @@ class GuidesWebhookController {
 		return ResponseEntity.badRequest().body("{ \"message\": \"Bad Request\" }");
 	}
 
-	private void verifyHmacSignature(String message, String signature) {
-		byte[] sig = hmac.doFinal(message.getBytes(CHARSET));
-		String computedSignature = "sha1=" + DatatypeConverter.printHexBinary(sig);
-		if (!computedSignature.equalsIgnoreCase(signature)) {
-			throw new WebhookAuthenticationException(computedSignature, signature);
-		}
-	}
-
-	private void logPayload(Map<?, ?> push) {
-		if (push.containsKey("head_commit")) {
-			final Object headCommit = push.get("head_commit");
-			if (headCommit != null) {
-				final Map<?, ?> headCommitMap = (Map<?, ?>) headCommit;
-				logger.info("Received new webhook payload for push with head_commit message: "
-						+ headCommitMap.get("message"));
-			}
+	private void logPayload(PushEvent push) {
+		if (push.headCommitId() != null) {
+			logger.info("Received new webhook payload for push of " + push.repository() + " " + push.ref()
+					+ " with head_commit " + push.headCommitId() + " message: " + push.headCommitMessage());
 		}
 		else {
-			logger.info("Received new webhook payload for push, but with no head_commit");
+			logger.info("Received new webhook payload for push of " + push.repository() + " " + push.ref()
+					+ ", but with no head_commit");
 		}
 	}
 
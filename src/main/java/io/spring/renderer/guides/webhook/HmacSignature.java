@@ -0,0 +1,105 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides.webhook;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * HMAC signature of messages, in the {@code <algorithm>=<hex digest>} form used by Github
+ * webhooks. {@link Mac} instances are not thread-safe, so each thread uses its own
+ * instance, initialized once with the secret.
+ */
+final class HmacSignature {
+
+	private static final HexFormat HEX = HexFormat.of();
+
+	private final String prefix;
+
+	private final ThreadLocal<Mac> mac;
+
+	private HmacSignature(String prefix, String algorithm, String secret) {
+		this.prefix = prefix;
+		SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), algorithm);
+		createMac(key);
+		this.mac = ThreadLocal.withInitial(() -> createMac(key));
+	}
+
+	static HmacSignature sha1(String secret) {
+		return new HmacSignature("sha1=", "HmacSHA1", secret);
+	}
+
+	static HmacSignature sha256(String secret) {
+		return new HmacSignature("sha256=", "HmacSHA256", secret);
+	}
+
+	private static Mac createMac(SecretKeySpec key) {
+		try {
+			Mac mac = Mac.getInstance(key.getAlgorithm());
+			mac.init(key);
+			return mac;
+		}
+		catch (GeneralSecurityException ex) {
+			throw new IllegalStateException("Failed to initialize " + key.getAlgorithm(), ex);
+		}
+	}
+
+	/**
+	 * Sign the given message.
+	 * @param message the message
+	 * @return the signature of the message
+	 */
+	String sign(byte[] message) {
+		return this.prefix + HEX.formatHex(this.mac.get().doFinal(message));
+	}
+
+	/**
+	 * Return whether the given signature is the signature of the message. The hex digest
+	 * of the signature is decoded and compared to the digest of the message in constant
+	 * time.
+	 * @param message the message
+	 * @param signature the signature to verify
+	 * @return {@code true} if the signature matches the message
+	 */
+	boolean matches(byte[] message, String signature) {
+		byte[] expected = this.mac.get().doFinal(message);
+		byte[] actual = decode(signature, expected.length);
+		return actual != null && MessageDigest.isEqual(expected, actual);
+	}
+
+	private byte[] decode(String signature, int length) {
+		if (signature == null || !signature.startsWith(this.prefix)
+				|| signature.length() != this.prefix.length() + length * 2) {
+			return null;
+		}
+		byte[] digest = new byte[length];
+		for (int i = 0; i < length; i++) {
+			int index = this.prefix.length() + i * 2;
+			if (!HexFormat.isHexDigit(signature.charAt(index)) || !HexFormat.isHexDigit(signature.charAt(index + 1))) {
+				return null;
+			}
+			digest[i] = (byte) HexFormat.fromHexDigits(signature, index, index + 2);
+		}
+		return digest;
+	}
+
+}
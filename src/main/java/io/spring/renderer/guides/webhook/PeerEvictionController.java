@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides.webhook;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller that handles eviction messages sent by the peers of this application when
+ * they receive a webhook for an updated guide.
+ *
+ * @see PeerEvictionService
+ */
+@RestController
+@RequestMapping("/webhook/")
+class PeerEvictionController {
+
+	private static final Log logger = LogFactory.getLog(PeerEvictionController.class);
+
+	private final ObjectMapper objectMapper;
+
+	private final PeerSignature signature;
+
+	private final PeerEvictionService service;
+
+	PeerEvictionController(ObjectMapper objectMapper, PeerSignature signature, PeerEvictionService service) {
+		this.objectMapper = objectMapper;
+		this.signature = signature;
+		this.service = service;
+	}
+
+	@PostMapping(path = "evictions", consumes = "application/json", produces = "application/json")
+	public ResponseEntity<String> processEviction(@RequestBody byte[] payload,
+			@RequestHeader(PeerSignature.HEADER) String signature,
+			@RequestHeader(PeerSignature.TIMESTAMP_HEADER) long timestamp) throws IOException {
+		this.signature.verify(payload, timestamp, signature);
+		EvictionMessage message = this.objectMapper.readValue(payload, EvictionMessage.class);
+		if (!this.service.receive(message)) {
+			return ResponseEntity.ok("{ \"message\": \"Eviction already processed\" }");
+		}
+		return ResponseEntity.ok("{ \"message\": \"Successfully processed eviction\" }");
+	}
+
+	@ExceptionHandler(WebhookAuthenticationException.class)
+	public ResponseEntity<String> handleWebhookAuthenticationFailure(WebhookAuthenticationException exception) {
+		logger.error("Peer eviction authentication failure: " + exception.getMessage());
+		return ResponseEntity.status(HttpStatus.FORBIDDEN).body("{ \"message\": \"Forbidden\" }");
+	}
+
+	@ExceptionHandler(IOException.class)
+	public ResponseEntity<String> handlePayloadParsingException(IOException exception) {
+		logger.error("Payload parsing exception", exception);
+		return ResponseEntity.badRequest().body("{ \"message\": \"Bad Request\" }");
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides.webhook;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.spring.renderer.RendererProperties;
+import io.spring.renderer.guides.GuidesCacheEvictor;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Service evicting updated guides from the caches of this application and of its peers.
+ * Eviction messages are sent to each peer over HTTP, signed with the webhook secret along
+ * with the time they are sent at. The identifiers of the messages already handled are
+ * kept as long as these messages could still be accepted, so that a message delivered
+ * more than once, or sent back to this application, is only applied once.
+ */
+@Service
+class PeerEvictionService {
+
+	private static final Log logger = LogFactory.getLog(PeerEvictionService.class);
+
+	static final String EVICTIONS_PATH = "/webhook/evictions";
+
+	private final GuidesCacheEvictor evictor;
+
+	private final PeerSignature signature;
+
+	private final ObjectMapper objectMapper;
+
+	private final TaskExecutor executor;
+
+	private final RestTemplate restTemplate;
+
+	private final List<URI> peers;
+
+	private final Cache<String, Boolean> handledMessages;
+
+	PeerEvictionService(GuidesCacheEvictor evictor, PeerSignature signature, ObjectMapper objectMapper,
+			TaskExecutor executor, RestTemplateBuilder builder, RendererProperties properties) {
+		this.evictor = evictor;
+		this.signature = signature;
+		this.objectMapper = objectMapper;
+		this.executor = executor;
+		RendererProperties.Cluster cluster = properties.getCluster();
+		this.restTemplate = builder.setConnectTimeout(cluster.getTimeout())
+			.setReadTimeout(cluster.getTimeout())
+			.build();
+		this.peers = List.copyOf(cluster.getPeers());
+		// Messages signed up to the maximum age before or after they are received are
+		// accepted, so they could be accepted again during twice that time
+		this.handledMessages = Caffeine.newBuilder()
+			.maximumSize(10_000)
+			.expireAfterWrite(signature.getMaxMessageAge().multipliedBy(2))
+			.build();
+	}
+
+	/**
+	 * Evict the given guide repository from the caches of this application, and send an
+	 * eviction message to its peers.
+	 * @param repositoryName the name of the guide repository
+	 */
+	void evict(String repositoryName) {
+		if (!this.evictor.evict(repositoryName)) {
+			return;
+		}
+		EvictionMessage message = new EvictionMessage(UUID.randomUUID().toString(), repositoryName);
+		this.handledMessages.put(message.id(), Boolean.TRUE);
+		if (!this.peers.isEmpty()) {
+			this.executor.execute(() -> broadcast(message));
+		}
+	}
+
+	/**
+	 * Apply an eviction message received from a peer.
+	 * @param message the eviction message
+	 * @return {@code true} if the message was applied, {@code false} if it was already
+	 * handled
+	 */
+	boolean receive(EvictionMessage message) {
+		if (this.handledMessages.asMap().putIfAbsent(message.id(), Boolean.TRUE) != null) {
+			return false;
+		}
+		this.evictor.evict(message.repository());
+		return true;
+	}
+
+	private void broadcast(EvictionMessage message) {
+		byte[] body;
+		try {
+			body = this.objectMapper.writeValueAsBytes(message);
+		}
+		catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Failed to serialize " + message, ex);
+		}
+		long timestamp = Instant.now().getEpochSecond();
+		String bodySignature = this.signature.sign(body, timestamp);
+		for (URI peer : this.peers) {
+			RequestEntity<byte[]> request = RequestEntity.post(peer.resolve(EVICTIONS_PATH))
+				.contentType(MediaType.APPLICATION_JSON)
+				.header(PeerSignature.HEADER, bodySignature)
+				.header(PeerSignature.TIMESTAMP_HEADER, String.valueOf(timestamp))
+				.body(body);
+			try {
+				this.restTemplate.exchange(request, Void.class);
+			}
+			catch (RestClientException ex) {
+				logger.warn("Failed to evict " + message.repository() + " from peer " + peer + ": " + ex.getMessage());
+			}
+		}
+	}
+
+}
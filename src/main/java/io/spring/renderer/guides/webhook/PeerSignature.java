@@ -0,0 +1,94 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides.webhook;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import io.spring.renderer.RendererProperties;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Sign and verify the messages exchanged between replicas of this application, using an
+ * HMAC sha-256 of the message keyed with the shared webhook secret. The time the message
+ * was signed at is part of the signed content, and messages signed too long ago are
+ * rejected, so that a captured message cannot be replayed later on.
+ */
+@Component
+class PeerSignature {
+
+	static final String HEADER = "X-Renderer-Signature";
+
+	static final String TIMESTAMP_HEADER = "X-Renderer-Timestamp";
+
+	private final HmacSignature signature;
+
+	private final Duration maxMessageAge;
+
+	PeerSignature(RendererProperties properties) {
+		this.signature = HmacSignature.sha256(properties.getGithub().getWebhook().getSecret());
+		this.maxMessageAge = properties.getCluster().getMaxMessageAge();
+	}
+
+	/**
+	 * Sign the given message.
+	 * @param message the message
+	 * @param timestamp the time the message is signed at, in seconds since the epoch
+	 * @return the signature of the message
+	 */
+	String sign(byte[] message, long timestamp) {
+		return this.signature.sign(signedContent(message, timestamp));
+	}
+
+	/**
+	 * Verify that the given message was signed with the shared secret, recently enough.
+	 * @param message the message
+	 * @param timestamp the time the message was signed at, in seconds since the epoch
+	 * @param signature the signature of the message
+	 * @throws WebhookAuthenticationException if the signature does not match or if the
+	 * message was not signed recently enough
+	 */
+	void verify(byte[] message, long timestamp, String signature) {
+		if (!this.signature.matches(signedContent(message, timestamp), signature)) {
+			throw new WebhookAuthenticationException(signature);
+		}
+		Instant signedAt = Instant.ofEpochSecond(timestamp);
+		if (Duration.between(signedAt, Instant.now()).abs().compareTo(this.maxMessageAge) > 0) {
+			throw new WebhookAuthenticationException(signedAt, this.maxMessageAge);
+		}
+	}
+
+	/**
+	 * Return the maximum difference between the time a message was signed at and the
+	 * time it is verified.
+	 * @return the maximum age of a message
+	 */
+	Duration getMaxMessageAge() {
+		return this.maxMessageAge;
+	}
+
+	private byte[] signedContent(byte[] message, long timestamp) {
+		byte[] prefix = (timestamp + ".").getBytes(StandardCharsets.US_ASCII);
+		byte[] content = new byte[prefix.length + message.length];
+		System.arraycopy(prefix, 0, content, 0, prefix.length);
+		System.arraycopy(message, 0, content, prefix.length, message.length);
+		return content;
+	}
+
+}
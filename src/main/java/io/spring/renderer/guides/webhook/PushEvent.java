@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides.webhook;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Fields of a Github push event payload used by this application. The fields are
+ * extracted with a streaming parser, skipping over the rest of the payload which can be
+ * large when many commits are pushed at once.
+ *
+ * @param ref the pushed ref
+ * @param repository the name of the pushed repository
+ * @param headCommitId the identifier of the head commit, if any
+ * @param headCommitMessage the message of the head commit, if any
+ */
+record PushEvent(String ref, String repository, String headCommitId, String headCommitMessage) {
+
+	/**
+	 * Extract the fields of a push event from its payload.
+	 * @param factory the factory of the JSON parser
+	 * @param payload the JSON payload
+	 * @return the push event
+	 * @throws IOException if the payload is not a valid JSON object
+	 */
+	static PushEvent parse(JsonFactory factory, byte[] payload) throws IOException {
+		try (JsonParser parser = factory.createParser(payload)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new JsonParseException(parser, "Push event payload is not a JSON object");
+			}
+			String ref = null;
+			String repository = null;
+			String headCommitId = null;
+			String headCommitMessage = null;
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.currentName();
+				JsonToken value = parser.nextToken();
+				if ("ref".equals(field)) {
+					ref = parser.getValueAsString();
+				}
+				else if ("repository".equals(field) && value == JsonToken.START_OBJECT) {
+					while (parser.nextToken() == JsonToken.FIELD_NAME) {
+						String repositoryField = parser.currentName();
+						parser.nextToken();
+						if ("name".equals(repositoryField)) {
+							repository = parser.getValueAsString();
+						}
+						parser.skipChildren();
+					}
+				}
+				else if ("head_commit".equals(field) && value == JsonToken.START_OBJECT) {
+					while (parser.nextToken() == JsonToken.FIELD_NAME) {
+						String commitField = parser.currentName();
+						parser.nextToken();
+						if ("id".equals(commitField)) {
+							headCommitId = parser.getValueAsString();
+						}
+						else if ("message".equals(commitField)) {
+							headCommitMessage = parser.getValueAsString();
+						}
+						parser.skipChildren();
+					}
+				}
+				else {
+					parser.skipChildren();
+				}
+			}
+			return new PushEvent(ref, repository, headCommitId, headCommitMessage);
+		}
+	}
+
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides.webhook;
+
+import java.time.Instant;
+
+/**
+ * Repository dispatch waiting in the {@link DispatchQueue}.
+ *
+ * @param repository the name of the updated guide repository, if known
+ * @param receivedAt when the webhook that requested the dispatch was received
+ * @param attempts the number of failed attempts of the dispatch so far
+ */
+record QueuedDispatch(String repository, Instant receivedAt, int attempts) {
+
+	QueuedDispatch failedAttempt() {
+		return new QueuedDispatch(this.repository, this.receivedAt, this.attempts + 1);
+	}
+
+}
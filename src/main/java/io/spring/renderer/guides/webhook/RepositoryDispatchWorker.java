@@ -0,0 +1,210 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides.webhook;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.spring.renderer.RendererProperties;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background worker draining the {@link DispatchQueue}. Webhooks received in a burst are
+ * coalesced into a single repository dispatch, listing the updated guides in its client
+ * payload. Failed dispatches stay at the head of the queue and are retried with an
+ * exponential backoff.
+ */
+@Component
+class RepositoryDispatchWorker implements SmartLifecycle {
+
+	private static final Log logger = LogFactory.getLog(RepositoryDispatchWorker.class);
+
+	private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+
+	private final DispatchQueue queue;
+
+	private final GithubActionsService service;
+
+	private final RendererProperties.Webhook webhook;
+
+	private final MeterRegistry meterRegistry;
+
+	private volatile Thread thread;
+
+	RepositoryDispatchWorker(DispatchQueue queue, GithubActionsService service, RendererProperties properties,
+			MeterRegistry meterRegistry) {
+		this.queue = queue;
+		this.service = service;
+		this.webhook = properties.getGithub().getWebhook();
+		this.meterRegistry = meterRegistry;
+		Gauge.builder("renderer.webhook.dispatch.queue.depth", queue, DispatchQueue::size)
+			.description("Number of repository dispatches waiting to be triggered")
+			.register(meterRegistry);
+	}
+
+	@Override
+	public void start() {
+		Thread thread = new Thread(this::run, "webhook-dispatch");
+		thread.setDaemon(true);
+		this.thread = thread;
+		thread.start();
+	}
+
+	@Override
+	public void stop() {
+		Thread thread = this.thread;
+		this.thread = null;
+		if (thread != null) {
+			thread.interrupt();
+			try {
+				thread.join(POLL_TIMEOUT.toMillis());
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.thread != null;
+	}
+
+	private void run() {
+		while (this.thread == Thread.currentThread()) {
+			try {
+				if (this.queue.peek(POLL_TIMEOUT) == null) {
+					continue;
+				}
+				List<DispatchQueue.Entry> batch = this.queue.entries();
+				Duration delay = coalescingDelay(batch, Instant.now());
+				if (!delay.isZero()) {
+					Thread.sleep(Math.min(delay.toMillis(), POLL_TIMEOUT.toMillis()));
+				}
+				else if (!dispatch(batch)) {
+					Thread.sleep(backoff(batch.get(0).dispatch().attempts() + 1).toMillis());
+				}
+			}
+			catch (InterruptedException ex) {
+				return;
+			}
+			catch (RuntimeException ex) {
+				logger.error("Failed to process the repository dispatch queue", ex);
+			}
+		}
+	}
+
+	/**
+	 * Return how long to wait before dispatching the given batch, so that the webhooks
+	 * received in a burst are coalesced. A batch is dispatched once no webhook was
+	 * received for the coalescing window, or once its oldest webhook reaches the maximum
+	 * delay. Retries are not delayed further than their backoff.
+	 * @param batch the queued dispatches
+	 * @param now the current time
+	 * @return the delay before dispatching the batch, or {@link Duration#ZERO}
+	 */
+	Duration coalescingDelay(List<DispatchQueue.Entry> batch, Instant now) {
+		if (batch.get(0).dispatch().attempts() > 0) {
+			return Duration.ZERO;
+		}
+		RendererProperties.Webhook.Dispatch dispatch = this.webhook.getDispatch();
+		Instant oldest = batch.get(0).dispatch().receivedAt();
+		Instant newest = oldest;
+		for (DispatchQueue.Entry entry : batch) {
+			newest = (entry.dispatch().receivedAt().isAfter(newest)) ? entry.dispatch().receivedAt() : newest;
+		}
+		Instant quietEnd = newest.plus(dispatch.getCoalescingWindow());
+		Instant deadline = oldest.plus(dispatch.getMaxDelay());
+		Instant dispatchAt = (quietEnd.isBefore(deadline)) ? quietEnd : deadline;
+		return (dispatchAt.isAfter(now)) ? Duration.between(now, dispatchAt) : Duration.ZERO;
+	}
+
+	/**
+	 * Trigger a single repository dispatch for the given queued dispatches, listing all
+	 * their guides. Failed attempts are recorded against the head of the batch.
+	 * @param batch the queued dispatches
+	 * @return {@code true} if the batch was removed from the queue, {@code false} if it
+	 * should be retried
+	 */
+	boolean dispatch(List<DispatchQueue.Entry> batch) {
+		DispatchQueue.Entry head = batch.get(0);
+		Set<String> guides = new LinkedHashSet<>();
+		for (DispatchQueue.Entry entry : batch) {
+			if (entry.dispatch().repository() != null) {
+				guides.add(entry.dispatch().repository());
+			}
+		}
+		Timer.Sample sample = Timer.start(this.meterRegistry);
+		try {
+			this.service.triggerRespositoryDispatch(this.webhook.getActionOrg(), this.webhook.getActionRepo(),
+					this.webhook.getDispatchToken(), guides);
+		}
+		catch (RuntimeException ex) {
+			sample.stop(dispatchTimer("failure"));
+			QueuedDispatch failed = head.dispatch().failedAttempt();
+			if (failed.attempts() >= this.webhook.getDispatch().getMaxAttempts()) {
+				logger.error("Giving up repository dispatch for " + guides + " after " + failed.attempts()
+						+ " attempts", ex);
+				batch.forEach(this.queue::fail);
+				return true;
+			}
+			logger.warn("Repository dispatch for " + guides + " failed, retrying in " + backoff(failed.attempts())
+					+ ": " + ex.getMessage());
+			this.queue.update(head, failed);
+			return false;
+		}
+		sample.stop(dispatchTimer("success"));
+		DistributionSummary.builder("renderer.webhook.dispatch.batch.size")
+			.description("Number of webhooks coalesced in a repository dispatch")
+			.register(this.meterRegistry)
+			.record(batch.size());
+		Timer delay = Timer.builder("renderer.webhook.dispatch.delay")
+			.description("Time between the reception of a webhook and its repository dispatch")
+			.register(this.meterRegistry);
+		Instant now = Instant.now();
+		for (DispatchQueue.Entry entry : batch) {
+			delay.record(Duration.between(entry.dispatch().receivedAt(), now));
+			this.queue.remove(entry);
+		}
+		return true;
+	}
+
+	private Timer dispatchTimer(String outcome) {
+		return Timer.builder("renderer.webhook.dispatch")
+			.description("Time taken to trigger a repository dispatch")
+			.tag("outcome", outcome)
+			.register(this.meterRegistry);
+	}
+
+	Duration backoff(int attempts) {
+		RendererProperties.Webhook.Dispatch dispatch = this.webhook.getDispatch();
+		Duration backoff = dispatch.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+		return (backoff.compareTo(dispatch.getMaxBackoff()) < 0) ? backoff : dispatch.getMaxBackoff();
+	}
+
+}
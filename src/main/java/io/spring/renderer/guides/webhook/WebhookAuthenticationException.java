@@ -16,14 +16,22 @@
 
 package io.spring.renderer.guides.webhook;
 
+import java.time.Duration;
+import java.time.Instant;
+
 /**
  * Exception raised when a github webhook message is received but its HMAC signature does
- * not match the one computed with the shared secret.
+ * not match the one computed with the shared secret, or when a signed message is too old
+ * to be accepted.
  */
 class WebhookAuthenticationException extends RuntimeException {
 
-	WebhookAuthenticationException(String expected, String actual) {
-		super(String.format("Could not verify signature: '%s', expected '%s'", actual, expected));
+	WebhookAuthenticationException(String actual) {
+		super(String.format("Could not verify signature: '%s'", actual));
+	}
+
+	WebhookAuthenticationException(Instant timestamp, Duration maxAge) {
+		super(String.format("Message signed at %s is not within %s of the current time", timestamp, maxAge));
 	}
 
 }
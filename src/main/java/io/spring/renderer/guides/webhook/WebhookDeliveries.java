@@ -0,0 +1,74 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides.webhook;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.spring.renderer.RendererProperties;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Registry of the Github webhook deliveries processed recently, identified by their
+ * {@code X-GitHub-Delivery} header. Github redelivers webhooks that timed out, and
+ * redeliveries of an already processed webhook should not trigger any work.
+ */
+@Component
+class WebhookDeliveries {
+
+	private static final int MAXIMUM_SIZE = 10_000;
+
+	private final Cache<String, Boolean> deliveries;
+
+	private final Counter duplicates;
+
+	WebhookDeliveries(RendererProperties properties, MeterRegistry meterRegistry) {
+		this.deliveries = Caffeine.newBuilder()
+			.maximumSize(MAXIMUM_SIZE)
+			.expireAfterWrite(properties.getGithub().getWebhook().getDeduplicationWindow())
+			.build();
+		this.duplicates = Counter.builder("renderer.webhook.deliveries.duplicate")
+			.description("Number of webhook deliveries acknowledged without processing, as already processed")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * Register a delivery that is about to be processed.
+	 * @param deliveryId the identifier of the delivery
+	 * @return {@code true} if the delivery should be processed, {@code false} if it is a
+	 * duplicate of a delivery processed recently
+	 */
+	boolean register(String deliveryId) {
+		if (this.deliveries.asMap().putIfAbsent(deliveryId, Boolean.TRUE) == null) {
+			return true;
+		}
+		this.duplicates.increment();
+		return false;
+	}
+
+	/**
+	 * Forget a delivery that failed to be processed, so that it is processed again if it
+	 * is redelivered.
+	 * @param deliveryId the identifier of the delivery
+	 */
+	void forget(String deliveryId) {
+		this.deliveries.invalidate(deliveryId);
+	}
+
+}
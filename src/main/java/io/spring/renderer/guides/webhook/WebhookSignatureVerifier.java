@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides.webhook;
+
+import io.spring.renderer.RendererProperties;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Verify the signature of Github webhook deliveries, computed with the shared webhook
+ * secret. The HMAC sha-256 signature of the {@code X-Hub-Signature-256} header is
+ * preferred, the HMAC sha-1 signature of the legacy {@code X-Hub-Signature} header is
+ * verified when it is the only one provided.
+ */
+@Component
+class WebhookSignatureVerifier {
+
+	private final HmacSignature sha1;
+
+	private final HmacSignature sha256;
+
+	WebhookSignatureVerifier(RendererProperties properties) {
+		String secret = properties.getGithub().getWebhook().getSecret();
+		this.sha1 = HmacSignature.sha1(secret);
+		this.sha256 = HmacSignature.sha256(secret);
+	}
+
+	/**
+	 * Verify the signature of a webhook payload.
+	 * @param payload the payload
+	 * @param sha256Signature the {@code X-Hub-Signature-256} header, if any
+	 * @param sha1Signature the {@code X-Hub-Signature} header, if any
+	 * @throws WebhookAuthenticationException if the signature does not match
+	 */
+	void verify(byte[] payload, String sha256Signature, String sha1Signature) {
+		boolean verified = (sha256Signature != null) ? this.sha256.matches(payload, sha256Signature)
+				: this.sha1.matches(payload, sha1Signature);
+		if (!verified) {
+			throw new WebhookAuthenticationException((sha256Signature != null) ? sha256Signature : sha1Signature);
+		}
+	}
+
+}
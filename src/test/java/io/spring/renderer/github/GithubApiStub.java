@@ -0,0 +1,338 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.github;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Local stand-in for the endpoints of the Github API used by {@link GithubClient}, with a
+ * synthetic catalog of guide repositories. The files of the served archive are also
+ * available through the contents API. Responses can be delayed and can randomly fail to
+ * emulate a degraded Github API.
+ */
+public class GithubApiStub implements AutoCloseable {
+
+	private static final Pattern REPOS_LIST = Pattern.compile("/orgs/([^/]+)/repos");
+
+	private static final Pattern REPO_INFO = Pattern.compile("/repos/([^/]+)/([^/]+)");
+
+	private static final Pattern REPO_ZIPBALL = Pattern.compile("/repos/([^/]+)/([^/]+)/zipball");
+
+	private static final Pattern REPO_CONTENTS = Pattern.compile("/repos/([^/]+)/([^/]+)/contents/(.+)");
+
+	private static final String RATE_LIMIT = "/rate_limit";
+
+	private static final int PAGE_SIZE = 100;
+
+	private static final String REPOSITORY_PREFIX = "gs-guide-";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final AtomicLong requests = new AtomicLong();
+
+	private final HttpServer server;
+
+	private final ExecutorService executor;
+
+	private final int catalogSize;
+
+	private final byte[] zipball;
+
+	private final Map<String, byte[]> files;
+
+	private volatile Duration latency = Duration.ZERO;
+
+	private volatile double failureRate;
+
+	private volatile long maxContentSize = Long.MAX_VALUE;
+
+	private volatile int contentsStatus;
+
+	/**
+	 * Create a stub serving a catalog of {@code catalogSize} getting started guides named
+	 * {@code gs-guide-&lt;index&gt;}, all with the content of the given sample archive.
+	 * @param catalogSize the number of guide repositories in the organization
+	 * @param archive the classpath location of the zipball served for every repository
+	 */
+	public GithubApiStub(int catalogSize, String archive) {
+		this.catalogSize = catalogSize;
+		try (InputStream input = new ClassPathResource(archive).getInputStream()) {
+			this.zipball = StreamUtils.copyToByteArray(input);
+			this.files = unzip(this.zipball);
+			this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		this.executor = Executors.newCachedThreadPool();
+		this.server.setExecutor(this.executor);
+		this.server.createContext("/", this::handle);
+	}
+
+	public GithubApiStub start() {
+		this.server.start();
+		return this;
+	}
+
+	/**
+	 * Return the base URL of the stub, to be used as the Github API URL.
+	 * @return the base URL
+	 */
+	public String getUrl() {
+		return "http://localhost:" + this.server.getAddress().getPort();
+	}
+
+	/**
+	 * Delay every response by the given latency.
+	 * @param latency the latency to add
+	 */
+	public void setLatency(Duration latency) {
+		this.latency = latency;
+	}
+
+	/**
+	 * Fail the given ratio of requests with a {@code 502 Bad Gateway} response.
+	 * @param failureRate the ratio of requests to fail, between 0 and 1
+	 */
+	public void setFailureRate(double failureRate) {
+		this.failureRate = failureRate;
+	}
+
+	/**
+	 * Serve files larger than the given size through the contents API without their
+	 * content, as Github does for files over 1MB.
+	 * @param maxContentSize the maximum size of the files served with their content
+	 */
+	public void setMaxContentSize(long maxContentSize) {
+		this.maxContentSize = maxContentSize;
+	}
+
+	/**
+	 * Fail every request to the contents API with the given status, for instance to
+	 * emulate an exhausted rate limit.
+	 * @param contentsStatus the status of the responses, or {@code 0} to serve files
+	 */
+	public void setContentsStatus(int contentsStatus) {
+		this.contentsStatus = contentsStatus;
+	}
+
+	/**
+	 * Return the number of requests received so far.
+	 * @return the number of requests
+	 */
+	public long getRequestCount() {
+		return this.requests.get();
+	}
+
+	/**
+	 * Return the name of the repository of the guide at the given index.
+	 * @param index the index of the guide in the catalog
+	 * @return the repository name
+	 */
+	public static String repositoryName(int index) {
+		return REPOSITORY_PREFIX + index;
+	}
+
+	@Override
+	public void close() {
+		this.server.stop(0);
+		this.executor.shutdownNow();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		this.requests.incrementAndGet();
+		try {
+			delay();
+			if (this.failureRate > 0 && ThreadLocalRandom.current().nextDouble() < this.failureRate) {
+				exchange.sendResponseHeaders(502, -1);
+				return;
+			}
+			String path = exchange.getRequestURI().getPath();
+			Matcher matcher;
+			if (RATE_LIMIT.equals(path)) {
+				sendJson(exchange, rateLimit());
+			}
+			else if ((matcher = REPOS_LIST.matcher(path)).matches()) {
+				sendRepositoriesPage(exchange, matcher.group(1));
+			}
+			else if ((matcher = REPO_ZIPBALL.matcher(path)).matches()) {
+				if (isKnownRepository(matcher.group(2))) {
+					send(exchange, "application/zip", this.zipball);
+				}
+				else {
+					exchange.sendResponseHeaders(404, -1);
+				}
+			}
+			else if ((matcher = REPO_CONTENTS.matcher(path)).matches()) {
+				byte[] file = this.files.get(matcher.group(3));
+				if (this.contentsStatus != 0) {
+					exchange.sendResponseHeaders(this.contentsStatus, -1);
+				}
+				else if (isKnownRepository(matcher.group(2)) && file != null) {
+					sendJson(exchange, content(matcher.group(3), file));
+				}
+				else {
+					exchange.sendResponseHeaders(404, -1);
+				}
+			}
+			else if ((matcher = REPO_INFO.matcher(path)).matches()) {
+				if (isKnownRepository(matcher.group(2))) {
+					sendJson(exchange, repository(matcher.group(1), matcher.group(2)));
+				}
+				else {
+					exchange.sendResponseHeaders(404, -1);
+				}
+			}
+			else {
+				exchange.sendResponseHeaders(404, -1);
+			}
+		}
+		finally {
+			exchange.close();
+		}
+	}
+
+	private void delay() {
+		if (!this.latency.isZero()) {
+			try {
+				Thread.sleep(this.latency.toMillis());
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private boolean isKnownRepository(String name) {
+		if (!name.startsWith(REPOSITORY_PREFIX)) {
+			return false;
+		}
+		try {
+			int index = Integer.parseInt(name.substring(REPOSITORY_PREFIX.length()));
+			return index >= 0 && index < this.catalogSize && repositoryName(index).equals(name);
+		}
+		catch (NumberFormatException ex) {
+			return false;
+		}
+	}
+
+	private void sendRepositoriesPage(HttpExchange exchange, String organization) throws IOException {
+		String page = UriComponentsBuilder.fromUri(exchange.getRequestURI()).build().getQueryParams().getFirst("page");
+		int pageNumber = (page != null) ? Integer.parseInt(page) : 1;
+		int from = (pageNumber - 1) * PAGE_SIZE;
+		int to = Math.min(from + PAGE_SIZE, this.catalogSize);
+		List<Map<String, Object>> repositories = new ArrayList<>();
+		for (int i = from; i < to; i++) {
+			repositories.add(repository(organization, repositoryName(i)));
+		}
+		if (to < this.catalogSize) {
+			String next = getUrl() + "/orgs/" + organization + "/repos?per_page=" + PAGE_SIZE + "&page="
+					+ (pageNumber + 1);
+			exchange.getResponseHeaders().add("Link", "<" + next + ">; rel=\"next\"");
+		}
+		sendJson(exchange, repositories);
+	}
+
+	private Map<String, Object> repository(String organization, String name) {
+		Map<String, Object> repository = new LinkedHashMap<>();
+		repository.put("id", (long) name.hashCode());
+		repository.put("name", name);
+		repository.put("full_name", organization + "/" + name);
+		repository.put("description", "Guide " + name + " :: Learn how to build " + name + " with Spring");
+		repository.put("html_url", "https://github.com/" + organization + "/" + name);
+		repository.put("git_url", "git://github.com/" + organization + "/" + name + ".git");
+		repository.put("ssh_url", "git@github.com:" + organization + "/" + name + ".git");
+		repository.put("clone_url", "https://github.com/" + organization + "/" + name + ".git");
+		repository.put("topics", List.of("spring-boot", "spring-framework"));
+		return repository;
+	}
+
+	private Map<String, Object> content(String path, byte[] file) {
+		Map<String, Object> content = new LinkedHashMap<>();
+		boolean tooLarge = file.length > this.maxContentSize;
+		content.put("type", "file");
+		content.put("encoding", (tooLarge) ? "none" : "base64");
+		content.put("size", file.length);
+		content.put("name", path.substring(path.lastIndexOf('/') + 1));
+		content.put("path", path);
+		content.put("content", (tooLarge) ? "" : Base64.getMimeEncoder().encodeToString(file));
+		return content;
+	}
+
+	private static Map<String, byte[]> unzip(byte[] zipball) throws IOException {
+		Map<String, byte[]> files = new LinkedHashMap<>();
+		try (ZipInputStream input = new ZipInputStream(new ByteArrayInputStream(zipball))) {
+			for (ZipEntry entry = input.getNextEntry(); entry != null; entry = input.getNextEntry()) {
+				int root = entry.getName().indexOf('/');
+				if (!entry.isDirectory() && root != -1) {
+					files.put(entry.getName().substring(root + 1), StreamUtils.copyToByteArray(input));
+				}
+			}
+		}
+		return files;
+	}
+
+	private Map<String, Object> rateLimit() {
+		Map<String, Object> rate = new LinkedHashMap<>();
+		rate.put("limit", "5000");
+		rate.put("remaining", "5000");
+		rate.put("reset", Long.toString(Instant.now().plusSeconds(3600).getEpochSecond()));
+		rate.put("used", "0");
+		return Map.of("rate", rate);
+	}
+
+	private void sendJson(HttpExchange exchange, Object body) throws IOException {
+		send(exchange, "application/json", this.objectMapper.writeValueAsBytes(body));
+	}
+
+	private void send(HttpExchange exchange, String contentType, byte[] body) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", contentType);
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream output = exchange.getResponseBody()) {
+			output.write(body);
+		}
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.github;
+
+import java.util.List;
+
+import io.spring.renderer.RendererProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link GithubApiStub}, using a {@link GithubClient} configured against it.
+ */
+class GithubApiStubTests {
+
+	private GithubApiStub github;
+
+	private GithubClient client;
+
+	@BeforeEach
+	void setup() {
+		this.github = new GithubApiStub(250, "io/spring/renderer/guides/gs-sample.zip").start();
+		RendererProperties properties = new RendererProperties();
+		properties.getGithub().setApiUrl(this.github.getUrl());
+		this.client = new GithubClient(new RestTemplateBuilder(), properties);
+	}
+
+	@AfterEach
+	void stop() {
+		this.github.close();
+	}
+
+	@Test
+	void fetchRepositoriesFollowsLinkHeaders() {
+		List<Repository> repositories = this.client.fetchOrgRepositories("spring-guides");
+		assertThat(repositories).hasSize(250);
+		assertThat(repositories.get(249).getFullName()).isEqualTo("spring-guides/gs-guide-249");
+		assertThat(this.github.getRequestCount()).isEqualTo(3);
+	}
+
+	@Test
+	void fetchRepository() {
+		Repository repository = this.client.fetchOrgRepository("spring-guides", "gs-guide-12");
+		assertThat(repository.getName()).isEqualTo("gs-guide-12");
+		assertThat(repository.getTopics()).containsExactly("spring-boot", "spring-framework");
+	}
+
+	@Test
+	void fetchUnknownRepository() {
+		assertThatExceptionOfType(GithubResourceNotFoundException.class)
+			.isThrownBy(() -> this.client.fetchOrgRepository("spring-guides", "gs-guide-250"));
+	}
+
+	@Test
+	void downloadZipball() {
+		assertThat(this.client.downloadRepositoryAsZipball("spring-guides", "gs-guide-0")).isNotEmpty();
+	}
+
+	@Test
+	void downloadFile() {
+		assertThat(new String(this.client.downloadRepositoryFile("spring-guides", "gs-guide-0", "README.adoc")))
+			.contains("This is a sample guide.");
+	}
+
+	@Test
+	void downloadUnknownFile() {
+		assertThatExceptionOfType(GithubResourceNotFoundException.class)
+			.isThrownBy(() -> this.client.downloadRepositoryFile("spring-guides", "gs-guide-0", "missing.adoc"))
+			.withMessage("Could not find [missing.adoc] in github repository [spring-guides/gs-guide-0]");
+	}
+
+	@Test
+	void fetchRateLimit() {
+		assertThat(this.client.fetchRateLimitInfo().getRemaining()).isEqualTo(5000);
+	}
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import io.spring.renderer.AsciidoctorRuntime;
+import org.asciidoctor.Asciidoctor;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link AsciidoctorHealthIndicator}.
+ */
+class AsciidoctorHealthIndicatorTests {
+
+	private final AsciidoctorRuntime runtime = mock(AsciidoctorRuntime.class);
+
+	private final AsciidoctorWarmup warmup = mock(AsciidoctorWarmup.class);
+
+	private final AsciidoctorHealthIndicator healthIndicator = new AsciidoctorHealthIndicator(this.runtime,
+			this.warmup);
+
+	@Test
+	void outOfServiceWhileBootstrapping() {
+		given(this.runtime.whenAvailable()).willReturn(new CompletableFuture<>());
+		given(this.warmup.getCompletion()).willReturn(new CompletableFuture<>());
+		Health health = this.healthIndicator.getHealth(true);
+		assertThat(health.getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+		assertThat(health.getDetails()).containsEntry("phase", "bootstrap");
+	}
+
+	@Test
+	void outOfServiceWhileWarmingUp() {
+		given(this.runtime.whenAvailable()).willReturn(CompletableFuture.completedFuture(mock(Asciidoctor.class)));
+		given(this.warmup.getCompletion()).willReturn(new CompletableFuture<>());
+		Health health = this.healthIndicator.getHealth(true);
+		assertThat(health.getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+		assertThat(health.getDetails()).containsEntry("phase", "warmup");
+	}
+
+	@Test
+	void upOnceWarmedUp() {
+		given(this.runtime.getBootstrapDuration()).willReturn(Duration.ofSeconds(3));
+		given(this.warmup.getCompletion()).willReturn(CompletableFuture.completedFuture(null));
+		Health health = this.healthIndicator.getHealth(true);
+		assertThat(health.getStatus()).isEqualTo(Status.UP);
+		assertThat(health.getDetails()).containsEntry("bootstrapTime", "3000ms");
+	}
+
+	@Test
+	void downWhenRuntimeCouldNotBeCreated() {
+		given(this.warmup.getCompletion())
+			.willReturn(CompletableFuture.failedFuture(new IllegalStateException("JRuby failed")));
+		Health health = this.healthIndicator.getHealth(true);
+		assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+	}
+
+}
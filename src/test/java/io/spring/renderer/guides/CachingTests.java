@@ -1,21 +1,34 @@
 package io.spring.renderer.guides;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.List;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.spring.renderer.github.GithubClient;
 import io.spring.renderer.github.Repository;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.unit.DataSize;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
@@ -25,13 +38,22 @@ import static org.mockito.Mockito.verify;
 /**
  * Tests for ensuring that responses from {@link GuidesController} are cached.
  */
-@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "renderer.render.max-queued=0")
 @ActiveProfiles("test")
 class CachingTests {
 
 	@Autowired
 	private TestRestTemplate restTemplate;
 
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private RenderBulkhead renderBulkhead;
+
 	@MockBean
 	private GuideRenderer guideRenderer;
 
@@ -40,6 +62,14 @@ class CachingTests {
 
 	private static final String BASIC_AUTH = "basic " + Base64.getEncoder().encodeToString("user:test".getBytes());
 
+	@TempDir
+	static Path directory;
+
+	@DynamicPropertySource
+	static void dispatchQueueProperties(DynamicPropertyRegistry registry) {
+		registry.add("renderer.github.webhook.dispatch.queue-directory", () -> directory.resolve("dispatch-queue"));
+	}
+
 	@Test
 	void fetchAllGuidesIsCached() {
 		Repository restService = new Repository(12L, "gs-rest-service-test", "spring-guides/gs-rest-service-test",
@@ -99,4 +129,111 @@ class CachingTests {
 		verify(this.guideRenderer, times(1)).render(GuideType.GETTING_STARTED, "rest-service");
 	}
 
+	@Test
+	void guideContentCacheStatisticsArePublished() {
+		GuideContentModel content = new GuideContentModel("rest-service", "content", "toc");
+		given(this.guideRenderer.render(GuideType.TUTORIAL, "rest-service")).willReturn(content);
+		RequestEntity<Void> entity = RequestEntity.get("/guides/tutorial/rest-service/content")
+			.header("Authorization", BASIC_AUTH)
+			.build();
+		this.restTemplate.exchange(entity, Object.class);
+		this.restTemplate.exchange(entity, Object.class);
+		assertThat(this.meterRegistry.get("cache.gets")
+			.tag("cache", "guideContent")
+			.tag("result", "hit")
+			.functionCounter()
+			.count()).isGreaterThanOrEqualTo(1);
+		assertThat(this.meterRegistry.get("cache.gets")
+			.tag("cache", "guideContent")
+			.tag("result", "miss")
+			.functionCounter()
+			.count()).isGreaterThanOrEqualTo(1);
+	}
+
+	@Test
+	void staleGuideContentIsServedWhenTooManyGuidesAreRendered() {
+		GuideContentModel content = new GuideContentModel("stale-guide", "<p>Stale content</p>", "toc");
+		given(this.guideRenderer.render(GuideType.TOPICAL, "stale-guide")).willReturn(content);
+		RequestEntity<Void> entity = RequestEntity.get("/guides/topical/stale-guide/content")
+			.header("Authorization", BASIC_AUTH)
+			.build();
+		assertThat(this.restTemplate.exchange(entity, String.class).getStatusCode())
+			.isEqualTo(HttpStatusCode.valueOf(200));
+		SimpleKey key = new SimpleKey("topical", "stale-guide");
+		this.cacheManager.getCache("guideContent").evict(key);
+		List<RenderBulkhead.Permit> permits = new ArrayList<>();
+		try {
+			RenderBulkhead.Permit permit;
+			while ((permit = this.renderBulkhead.tryAcquire()) != null) {
+				permits.add(permit);
+			}
+			ResponseEntity<String> exchange = this.restTemplate.exchange(entity, String.class);
+			assertThat(exchange.getStatusCode()).isEqualTo(HttpStatusCode.valueOf(200));
+			assertThat(exchange.getHeaders().getFirst(HttpHeaders.WARNING)).startsWith("110");
+			assertThat(exchange.getHeaders().getCacheControl()).isEqualTo("no-cache");
+			assertThat(exchange.getBody()).contains("Stale content");
+			assertThat(this.cacheManager.getCache("guideContent").get(key)).isNull();
+		}
+		finally {
+			permits.forEach(RenderBulkhead.Permit::close);
+		}
+		verify(this.guideRenderer, times(1)).render(GuideType.TOPICAL, "stale-guide");
+	}
+
+	@Test
+	void staleGuideContentOfGuidesRemovedFromCatalogIsEvicted() {
+		Repository restService = new Repository(12L, "gs-rest-service-test", "spring-guides/gs-rest-service-test",
+				"REST service sample :: Building a REST service",
+				"http://example.org/spring-guides/gs-rest-service-test", null, null, null, null);
+		given(this.githubClient.fetchOrgRepositories("spring-guides")).willReturn(List.of(restService));
+		Cache<Object, Object> staleContent = getNativeCache("staleGuideContent");
+		SimpleKey listed = new SimpleKey("getting-started", "rest-service-test");
+		SimpleKey removed = new SimpleKey("getting-started", "removed-service");
+		staleContent.put(listed, CompressedGuideContent
+			.compress(ResponseEntity.ok(new GuideContentModel("rest-service-test", "content", "toc"))));
+		staleContent.put(removed, CompressedGuideContent
+			.compress(ResponseEntity.ok(new GuideContentModel("removed-service", "content", "toc"))));
+		this.cacheManager.getCache("guides").clear();
+		try {
+			RequestEntity<Void> entity = RequestEntity.get("/guides").header("Authorization", BASIC_AUTH).build();
+			assertThat(this.restTemplate.exchange(entity, Object.class).getStatusCode())
+				.isEqualTo(HttpStatusCode.valueOf(200));
+			assertThat(staleContent.asMap()).containsKey(listed);
+			assertThat(staleContent.asMap()).doesNotContainKey(removed);
+		}
+		finally {
+			this.cacheManager.getCache("guides").clear();
+		}
+	}
+
+	@Test
+	void cachesAreConfiguredIndependently() {
+		for (String name : new String[] { "guides", "guide" }) {
+			Cache<Object, Object> cache = getNativeCache(name);
+			assertThat(cache.policy().eviction()).hasValueSatisfying((eviction) -> {
+				assertThat(eviction.isWeighted()).isFalse();
+				assertThat(eviction.getMaximum()).isEqualTo(500);
+			});
+			assertThat(cache.policy().expireAfterAccess()).isPresent();
+			assertThat(cache.policy().isRecordingStats()).isTrue();
+		}
+		Cache<Object, Object> contentCache = getNativeCache("guideContent");
+		assertThat(contentCache.policy().eviction()).hasValueSatisfying((eviction) -> {
+			assertThat(eviction.isWeighted()).isTrue();
+			assertThat(eviction.getMaximum()).isEqualTo(DataSize.ofMegabytes(64).toBytes());
+		});
+		assertThat(contentCache.policy().isRecordingStats()).isTrue();
+		Cache<Object, Object> staleContentCache = getNativeCache("staleGuideContent");
+		assertThat(staleContentCache.policy().eviction()).hasValueSatisfying((eviction) -> {
+			assertThat(eviction.isWeighted()).isTrue();
+			assertThat(eviction.getMaximum()).isEqualTo(DataSize.ofMegabytes(32).toBytes());
+		});
+		assertThat(staleContentCache.policy().expireAfterAccess()).isEmpty();
+		assertThat(staleContentCache.policy().expireAfterWrite()).isEmpty();
+	}
+
+	private Cache<Object, Object> getNativeCache(String name) {
+		return ((CaffeineCache) this.cacheManager.getCache(name)).getNativeCache();
+	}
+
 }
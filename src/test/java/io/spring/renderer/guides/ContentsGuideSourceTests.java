@@ -0,0 +1,120 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.File;
+import java.io.IOException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.renderer.RendererProperties;
+import io.spring.renderer.github.GithubApiStub;
+import io.spring.renderer.github.GithubClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.client.HttpClientErrorException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link ContentsGuideSource}, using a {@link GithubClient} configured against
+ * a {@link GithubApiStub}.
+ */
+class ContentsGuideSourceTests {
+
+	private GithubApiStub github;
+
+	private GithubClient client;
+
+	private MeterRegistry meterRegistry;
+
+	private GuideRenderMetrics metrics;
+
+	@BeforeEach
+	void setup() {
+		this.github = new GithubApiStub(1, "io/spring/renderer/github/gs-rest-service.zip").start();
+		RendererProperties properties = new RendererProperties();
+		properties.getGithub().setApiUrl(this.github.getUrl());
+		this.client = new GithubClient(new RestTemplateBuilder(), properties);
+		this.meterRegistry = new SimpleMeterRegistry();
+		this.metrics = new GuideRenderMetrics(this.meterRegistry, properties);
+	}
+
+	@AfterEach
+	void stop() {
+		this.github.close();
+	}
+
+	@Test
+	void fetchDownloadsReadmeAndLocalIncludes() throws IOException {
+		File root;
+		try (GuideFiles files = createSource(20).fetch("spring-guides", "gs-guide-0")) {
+			root = files.getRoot();
+			assertThat(new File(root, "README.adoc")).isFile();
+			assertThat(new File(root, "complete/src/main/java/hello/GreetingController.java")).isFile();
+			assertThat(new File(root, "LICENSE.code.txt")).doesNotExist();
+		}
+		assertThat(root).doesNotExist();
+		assertThat(this.github.getRequestCount()).isEqualTo(4);
+		assertThat(this.meterRegistry.get("renderer.guides.render.transferred")
+			.tag("source", "contents")
+			.summary()
+			.totalAmount()).isPositive();
+		assertThat(this.meterRegistry.find("renderer.guides.render.transferred").tag("source", "zipball").summary())
+			.isNull();
+	}
+
+	@Test
+	void fetchFallsBackToZipballWhenTooManyFilesAreIncluded() throws IOException {
+		try (GuideFiles files = createSource(2).fetch("spring-guides", "gs-guide-0")) {
+			assertThat(new File(files.getRoot(), "LICENSE.code.txt")).isFile();
+		}
+		assertThat(this.meterRegistry.get("renderer.guides.render.transferred")
+			.tag("source", "zipball")
+			.summary()
+			.count()).isEqualTo(1);
+	}
+
+	@Test
+	void fetchFallsBackToZipballWhenFileIsTooLargeForContentsApi() throws IOException {
+		this.github.setMaxContentSize(64);
+		try (GuideFiles files = createSource(20).fetch("spring-guides", "gs-guide-0")) {
+			assertThat(new File(files.getRoot(), "LICENSE.code.txt")).isFile();
+		}
+		assertThat(this.meterRegistry.get("renderer.guides.render.transferred")
+			.tag("source", "zipball")
+			.summary()
+			.count()).isEqualTo(1);
+	}
+
+	@Test
+	void fetchFailsWhenContentsApiRejectsRequests() {
+		this.github.setContentsStatus(403);
+		assertThatExceptionOfType(HttpClientErrorException.Forbidden.class)
+			.isThrownBy(() -> createSource(20).fetch("spring-guides", "gs-guide-0"));
+	}
+
+	private ContentsGuideSource createSource(int maxFiles) {
+		return new ContentsGuideSource(this.client, this.metrics, new ZipballGuideSource(this.client, this.metrics),
+				maxFiles);
+	}
+
+}
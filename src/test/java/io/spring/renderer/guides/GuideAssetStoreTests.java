@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.spring.renderer.RendererProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.util.unit.DataSize;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link GuideAssetStore}.
+ */
+class GuideAssetStoreTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void identicalImagesAreStoredOnce() throws IOException {
+		GuideAssetStore store = createStore();
+		String first = store.capture(write("gs-first/images/diagram.png", new byte[] { 1, 2, 3 }));
+		String second = store.capture(write("gs-second/diagram.PNG", new byte[] { 1, 2, 3 }));
+		assertThat(first).startsWith("https://guides.example.com/guides/assets/").endsWith(".png");
+		assertThat(second).isEqualTo(first);
+		assertThat(Files.list(this.directory.resolve("assets"))).hasSize(1);
+		String name = first.substring(first.lastIndexOf('/') + 1);
+		assertThat(store.find(name).getContentAsByteArray()).containsExactly(1, 2, 3);
+	}
+
+	@Test
+	void unsupportedOrLargeFilesAreNotCaptured() throws IOException {
+		GuideAssetStore store = createStore();
+		assertThat(store.capture(write("gs-first/build.gradle", new byte[] { 1 }))).isNull();
+		assertThat(store.capture(write("gs-first/large.png", new byte[2048]))).isNull();
+		assertThat(store.capture(this.directory.resolve("gs-first/missing.png"))).isNull();
+	}
+
+	@Test
+	void findRejectsNamesThatAreNotHashes() {
+		GuideAssetStore store = createStore();
+		assertThat(store.find("../secret.png")).isNull();
+		assertThat(store.find("diagram.png")).isNull();
+	}
+
+	@Test
+	void imagesAreNotCapturedWithoutBaseUrl() throws IOException {
+		RendererProperties properties = new RendererProperties();
+		properties.getAssets().setDirectory(this.directory.resolve("assets"));
+		GuideAssetStore store = new GuideAssetStore(properties);
+		assertThat(store.capture(write("gs-first/images/diagram.png", new byte[] { 1, 2, 3 }))).isNull();
+		assertThat(this.directory.resolve("assets")).doesNotExist();
+	}
+
+	@Test
+	void imagesAreNotCapturedWithoutDirectory() throws IOException {
+		RendererProperties properties = new RendererProperties();
+		properties.getAssets().setBaseUrl("https://guides.example.com/");
+		GuideAssetStore store = new GuideAssetStore(properties);
+		assertThat(store.capture(write("gs-first/images/diagram.png", new byte[] { 1, 2, 3 }))).isNull();
+	}
+
+	private GuideAssetStore createStore() {
+		RendererProperties properties = new RendererProperties();
+		properties.getAssets().setDirectory(this.directory.resolve("assets"));
+		properties.getAssets().setMaxFileSize(DataSize.ofKilobytes(1));
+		properties.getAssets().setBaseUrl("https://guides.example.com/");
+		return new GuideAssetStore(properties);
+	}
+
+	private Path write(String path, byte[] content) throws IOException {
+		Path file = this.directory.resolve(path);
+		Files.createDirectories(file.getParent());
+		return Files.write(file, content);
+	}
+
+}
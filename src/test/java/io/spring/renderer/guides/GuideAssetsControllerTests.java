@@ -0,0 +1,66 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import io.spring.renderer.SecurityConfiguration;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for {@link GuideAssetsController}.
+ */
+@WebMvcTest(GuideAssetsController.class)
+@Import(SecurityConfiguration.class)
+class GuideAssetsControllerTests {
+
+	private static final String ASSET = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef.png";
+
+	@Autowired
+	private MockMvc mvc;
+
+	@MockBean
+	private GuideAssetStore assetStore;
+
+	@Test
+	void assetIsServedAnonymouslyWithImmutableCacheHeaders() throws Exception {
+		given(this.assetStore.find(ASSET)).willReturn(new ByteArrayResource(new byte[] { 1, 2, 3 }));
+		this.mvc.perform(get("/guides/assets/{asset}", ASSET))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType("image/png"))
+			.andExpect(content().bytes(new byte[] { 1, 2, 3 }))
+			.andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"))
+			.andExpect(header().string("ETag", "\"" + ASSET.substring(0, 64) + "\""));
+	}
+
+	@Test
+	void unknownAssetIsNotFound() throws Exception {
+		this.mvc.perform(get("/guides/assets/{asset}", ASSET)).andExpect(status().isNotFound());
+	}
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import io.spring.renderer.RendererProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openjdk.jol.info.GraphLayout;
+
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link GuideContentCache}.
+ */
+class GuideContentCacheTests {
+
+	private static final int GUIDES_COUNT = 200;
+
+	private static final int GUIDE_SIZE = 100 * 1024;
+
+	private static final DataSize MEMORY_BUDGET = DataSize.ofMegabytes(12);
+
+	private static final DataSize DISK_BUDGET = DataSize.ofMegabytes(64);
+
+	private static final String[] WORDS = { "spring", "boot", "application", "guide", "build", "gradle", "maven",
+			"service", "controller", "request", "response", "data", "repository", "class", "method", "bean",
+			"configuration", "the", "a", "with", "you", "can", "run", "test", "web", "rest", "json", "project",
+			"create", "file", "code", "java", "dependency", "security", "client", "server", "message", "template" };
+
+	// Japanese words, which the JVM cannot store with one byte per character
+	private static final String[] TRANSLATED_WORDS = {
+			"\u30b9\u30d7\u30ea\u30f3\u30b0", "\u30d6\u30fc\u30c8", "\u30ac\u30a4\u30c9", "\u30d3\u30eb\u30c9",
+			"\u30b5\u30fc\u30d3\u30b9", "\u30c7\u30fc\u30bf", "\u30af\u30e9\u30b9", "\u8a2d\u5b9a",
+			"\u30c6\u30b9\u30c8" };
+
+	@Test
+	void weighedCacheStaysWithinMemoryBudget() {
+		GuideContentCache cache = createCache(false);
+		populate(cache);
+		assertThat(retainedSize(cache)).isLessThanOrEqualTo(MEMORY_BUDGET.toBytes());
+		// 200 guides of 100KB do not fit in a 12MB budget
+		assertThat(cache.getNativeCache().estimatedSize()).isLessThan(GUIDES_COUNT);
+	}
+
+	@Test
+	void weighedCacheOfNonLatinContentStaysWithinMemoryBudget() {
+		GuideContentCache cache = createCache(false);
+		for (int i = 0; i < GUIDES_COUNT; i++) {
+			cache.put("getting-started/guide-" + i, createGuideContent(i, TRANSLATED_WORDS));
+		}
+		cache.getNativeCache().cleanUp();
+		assertThat(retainedSize(cache)).isLessThanOrEqualTo(MEMORY_BUDGET.toBytes());
+	}
+
+	@Test
+	void compressedCacheHoldsAllGuidesWithinMemoryBudget() {
+		GuideContentCache cache = createCache(true);
+		populate(cache);
+		assertThat(cache.getNativeCache().estimatedSize()).isEqualTo(GUIDES_COUNT);
+		assertThat(retainedSize(cache)).isLessThan(MEMORY_BUDGET.toBytes() / 2);
+	}
+
+	@Test
+	void compressedContentIsInflatedOnRead() {
+		GuideContentCache cache = createCache(true);
+		ResponseEntity<GuideContentModel> guideContent = createGuideContent(42);
+		cache.put("getting-started/guide-42", guideContent);
+		ResponseEntity<?> cached = cache.get("getting-started/guide-42", ResponseEntity.class);
+		assertThat(cached.getStatusCode()).isEqualTo(HttpStatus.OK);
+		GuideContentModel content = (GuideContentModel) cached.getBody();
+		assertThat(content).isNotSameAs(guideContent.getBody());
+		assertThat(content.getName()).isEqualTo("guide-42");
+		assertThat(content.getContent()).isEqualTo(guideContent.getBody().getContent());
+		assertThat(content.getTableOfContents()).isEqualTo(guideContent.getBody().getTableOfContents());
+		assertThat(content.getLinks()).isEqualTo(guideContent.getBody().getLinks());
+	}
+
+	@Test
+	void notFoundResponsesAreCachedAsIs() {
+		GuideContentCache cache = createCache(true);
+		cache.put("unknown/guide", ResponseEntity.notFound().build());
+		ResponseEntity<?> cached = cache.get("unknown/guide", ResponseEntity.class);
+		assertThat(cached.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+		assertThat(cached.hasBody()).isFalse();
+	}
+
+	@Test
+	void evictedGuidesAreSpilledToDiskAndPromotedOnAccess(@TempDir Path directory) throws IOException {
+		try (GuideContentDiskStore diskStore = new GuideContentDiskStore(directory, DISK_BUDGET.toBytes())) {
+			GuideContentCache cache = createCache(false, diskStore);
+			populate(cache);
+			long inMemory = cache.getNativeCache().estimatedSize();
+			assertThat(inMemory).isLessThan(GUIDES_COUNT);
+			assertThat(diskStore.size()).isEqualTo(GUIDES_COUNT - inMemory);
+			for (int i = 0; i < GUIDES_COUNT; i++) {
+				ResponseEntity<?> cached = cache.get("getting-started/guide-" + i, () -> {
+					throw new IllegalStateException("Guide should not be rendered again");
+				});
+				GuideContentModel content = (GuideContentModel) cached.getBody();
+				assertThat(content.getName()).isEqualTo("guide-" + i);
+				assertThat(content.getContent()).isEqualTo(createGuideContent(i).getBody().getContent());
+				assertThat(content.getLinks()).isEqualTo(createGuideContent(i).getBody().getLinks());
+			}
+		}
+	}
+
+	@Test
+	void evictedGuideIsRemovedFromDisk(@TempDir Path directory) throws IOException {
+		try (GuideContentDiskStore diskStore = new GuideContentDiskStore(directory, DISK_BUDGET.toBytes())) {
+			GuideContentCache cache = createCache(true, diskStore);
+			diskStore.put("getting-started/guide-1", CompressedGuideContent.compress(createGuideContent(1)));
+			assertThat(cache.get("getting-started/guide-1")).isNotNull();
+			cache.evict("getting-started/guide-1");
+			assertThat(diskStore.size()).isZero();
+			assertThat(cache.get("getting-started/guide-1")).isNull();
+		}
+	}
+
+	private GuideContentCache createCache(boolean compressed) {
+		return createCache(compressed, null);
+	}
+
+	private GuideContentCache createCache(boolean compressed, GuideContentDiskStore diskStore) {
+		RendererProperties properties = new RendererProperties();
+		properties.getCache().getGuideContent().setMaximumWeight(MEMORY_BUDGET);
+		properties.getCache().getGuideContent().setCompressed(compressed);
+		SimpleCacheManager cacheManager = new GuidesCacheConfiguration().createCacheManager(properties, diskStore);
+		cacheManager.afterPropertiesSet();
+		return (GuideContentCache) cacheManager.getCache(GuidesCacheConfiguration.GUIDE_CONTENT_CACHE);
+	}
+
+	private void populate(GuideContentCache cache) {
+		for (int i = 0; i < GUIDES_COUNT; i++) {
+			cache.put("getting-started/guide-" + i, createGuideContent(i));
+		}
+		cache.getNativeCache().cleanUp();
+	}
+
+	/**
+	 * Measure the heap retained by the entries of the cache, independently of the weights
+	 * the cache assigned to them.
+	 * @param cache the cache to measure
+	 * @return the retained size in bytes
+	 */
+	private long retainedSize(GuideContentCache cache) {
+		return GraphLayout.parseInstance(cache.getNativeCache().asMap().values().toArray()).totalSize();
+	}
+
+	private ResponseEntity<GuideContentModel> createGuideContent(int index) {
+		return createGuideContent(index, WORDS);
+	}
+
+	private ResponseEntity<GuideContentModel> createGuideContent(int index, String[] words) {
+		Random random = new Random(index);
+		StringBuilder content = new StringBuilder(GUIDE_SIZE);
+		StringBuilder toc = new StringBuilder("<ul class=\"sectlevel1\">");
+		int section = 0;
+		while (content.length() < GUIDE_SIZE) {
+			String id = "_section_" + section++;
+			toc.append("<li><a href=\"#").append(id).append("\">Section</a></li>");
+			content.append("<div class=\"sect1\"><h2 id=\"").append(id).append("\">Section</h2>");
+			content.append("<div class=\"sectionbody\"><div class=\"paragraph\"><p>");
+			for (int i = 0; i < 200; i++) {
+				content.append(words[random.nextInt(words.length)]).append(' ');
+			}
+			content.append("</p></div><div class=\"listingblock\"><div class=\"content\"><pre>");
+			for (int i = 0; i < 40; i++) {
+				content.append(words[random.nextInt(words.length)]).append(i % 8 == 7 ? '\n' : '.');
+			}
+			content.append("</pre></div></div></div></div>\n");
+		}
+		toc.append("</ul>");
+		GuideContentModel guideContent = new GuideContentModel("guide-" + index, content.toString(), toc.toString());
+		guideContent.add(Link.of("http://localhost/guides/getting-started/guide-" + index + "/content",
+				IanaLinkRelations.SELF));
+		return ResponseEntity.ok(guideContent);
+	}
+
+}
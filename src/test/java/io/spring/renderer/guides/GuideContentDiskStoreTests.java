@@ -0,0 +1,138 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link GuideContentDiskStore}.
+ */
+class GuideContentDiskStoreTests {
+
+	@TempDir
+	Path directory;
+
+	private GuideContentDiskStore store;
+
+	@AfterEach
+	void closeStore() {
+		if (this.store != null) {
+			this.store.close();
+		}
+	}
+
+	@Test
+	void contentIsReadBackFromDisk() throws IOException {
+		this.store = new GuideContentDiskStore(this.directory, 1024 * 1024);
+		this.store.spill("getting-started/rest-service", createGuideContent("rest-service"));
+		ResponseEntity<GuideContentModel> entity = this.store.get("getting-started/rest-service").inflate();
+		assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(entity.getHeaders().getETag()).isEqualTo("\"rest-service\"");
+		assertThat(entity.getBody().getName()).isEqualTo("rest-service");
+		assertThat(entity.getBody().getContent()).isEqualTo("<p>rest-service</p>");
+		assertThat(entity.getBody().getTableOfContents()).isNull();
+		assertThat(entity.getBody().getRequiredLink(IanaLinkRelations.SELF).getHref())
+			.isEqualTo("http://localhost/guides/getting-started/rest-service/content");
+	}
+
+	@Test
+	void notFoundResponsesAreNotSpilled() throws IOException {
+		this.store = new GuideContentDiskStore(this.directory, 1024 * 1024);
+		this.store.spill("getting-started/unknown", ResponseEntity.notFound().build());
+		assertThat(this.store.size()).isZero();
+	}
+
+	@Test
+	void fullStoreStartsOver() throws IOException {
+		this.store = new GuideContentDiskStore(this.directory, 1024);
+		for (int i = 0; i < 10; i++) {
+			this.store.spill("getting-started/guide-" + i, createGuideContent("guide-" + i));
+		}
+		assertThat(this.store.size()).isBetween(1, 9);
+		assertThat(this.store.get("getting-started/guide-0")).isNull();
+		assertThat(this.store.get("getting-started/guide-9").inflate().getBody().getName()).isEqualTo("guide-9");
+	}
+
+	@Test
+	void promotedEntryIsRemovedFromDisk() throws IOException {
+		this.store = new GuideContentDiskStore(this.directory, 1024 * 1024);
+		this.store.spill("getting-started/rest-service", createGuideContent("rest-service"));
+		assertThat(this.store.promote("getting-started/rest-service")).isNotNull();
+		assertThat(this.store.size()).isZero();
+		assertThat(this.store.promote("getting-started/rest-service")).isNull();
+	}
+
+	@Test
+	void spilledEntryExpiresAfterWriteFromItsOriginalWriteTime() throws IOException {
+		AtomicLong time = new AtomicLong();
+		this.store = new GuideContentDiskStore(this.directory, 1024 * 1024, null, Duration.ofMinutes(30),
+				time::get);
+		this.store.written("getting-started/rest-service");
+		time.addAndGet(Duration.ofMinutes(20).toNanos());
+		this.store.spill("getting-started/rest-service", createGuideContent("rest-service"));
+		time.addAndGet(Duration.ofMinutes(5).toNanos());
+		assertThat(this.store.get("getting-started/rest-service")).isNotNull();
+		time.addAndGet(Duration.ofMinutes(5).toNanos());
+		assertThat(this.store.promote("getting-started/rest-service")).isNull();
+		assertThat(this.store.size()).isZero();
+	}
+
+	@Test
+	void spilledEntryExpiresAfterAccess() throws IOException {
+		AtomicLong time = new AtomicLong();
+		this.store = new GuideContentDiskStore(this.directory, 1024 * 1024, Duration.ofMinutes(30), null,
+				time::get);
+		this.store.spill("getting-started/rest-service", createGuideContent("rest-service"));
+		time.addAndGet(Duration.ofMinutes(30).toNanos());
+		assertThat(this.store.promote("getting-started/rest-service")).isNull();
+	}
+
+	@Test
+	void promotedEntryKeepsItsOriginalWriteTime() throws IOException {
+		AtomicLong time = new AtomicLong();
+		this.store = new GuideContentDiskStore(this.directory, 1024 * 1024, null, Duration.ofMinutes(30),
+				time::get);
+		this.store.written("getting-started/rest-service");
+		time.addAndGet(Duration.ofMinutes(20).toNanos());
+		this.store.spill("getting-started/rest-service", createGuideContent("rest-service"));
+		assertThat(this.store.promote("getting-started/rest-service")).isNotNull();
+		this.store.spill("getting-started/rest-service", createGuideContent("rest-service"));
+		time.addAndGet(Duration.ofMinutes(10).toNanos());
+		assertThat(this.store.promote("getting-started/rest-service")).isNull();
+	}
+
+	private ResponseEntity<GuideContentModel> createGuideContent(String name) {
+		GuideContentModel content = new GuideContentModel(name, "<p>" + name + "</p>", null);
+		content.add(Link.of("http://localhost/guides/getting-started/" + name + "/content", IanaLinkRelations.SELF));
+		return ResponseEntity.ok().eTag(name).body(content);
+	}
+
+}
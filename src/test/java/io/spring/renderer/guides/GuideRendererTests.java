@@ -17,19 +17,30 @@
 package io.spring.renderer.guides;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
 import java.util.Collections;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.asciidoctor.Asciidoctor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import io.spring.renderer.AsciidoctorRuntime;
 import io.spring.renderer.RendererProperties;
+import io.spring.renderer.github.GithubApiStub;
 import io.spring.renderer.github.GithubClient;
 import io.spring.renderer.guides.content.AsciidoctorGuideContentContributor;
+import io.spring.renderer.guides.content.CodeBlockHighlighter;
 
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cache.support.NoOpCacheManager;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.util.StreamUtils;
+import org.springframework.web.client.ResourceAccessException;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 
@@ -41,12 +52,28 @@ public class GuideRendererTests {
 
 	private RendererProperties properties;
 
+	private MeterRegistry meterRegistry;
+
 	@BeforeEach
 	public void setup() {
 		this.properties = new RendererProperties();
 		this.githubClient = mock(GithubClient.class);
-		this.renderer = new GuideRenderer(this.githubClient, this.properties,
-				Collections.singletonList(new AsciidoctorGuideContentContributor(Asciidoctor.Factory.create())));
+		this.meterRegistry = new SimpleMeterRegistry();
+		createRenderer();
+	}
+
+	private void createRenderer() {
+		createRenderer(this.githubClient);
+	}
+
+	private void createRenderer(GithubClient githubClient) {
+		GuideRenderMetrics metrics = new GuideRenderMetrics(this.meterRegistry, this.properties);
+		AsciidoctorRuntime asciidoctor = AsciidoctorRuntime.of(Asciidoctor.Factory.create());
+		CodeBlockHighlighter highlighter = new CodeBlockHighlighter(this.properties, new NoOpCacheManager());
+		AsciidoctorGuideContentContributor contributor = new AsciidoctorGuideContentContributor(asciidoctor, metrics,
+				new GuideAssetStore(this.properties), highlighter);
+		this.renderer = new GuideRenderer(new ZipballGuideSource(githubClient, metrics), this.properties,
+				Collections.singletonList(contributor), metrics);
 	}
 
 	@Test
@@ -59,6 +86,94 @@ public class GuideRendererTests {
 			.contains("<!-- rendered by Sagan Renderer Service -->");
 		assertThat(result.getTableOfContents())
 			.contains("<li><a href=\"#_sample_guide_title\">Sample Guide title</a></li>");
+		assertThat(result.getSections()).extracting(GuideSection::getId).contains("_sample_guide_title");
+	}
+
+	@Test
+	public void renderRecordsStageMetrics() throws Exception {
+		given(this.githubClient.downloadRepositoryAsZipball("spring-guides", "gs-sample"))
+			.willReturn(readAsBytes("gs-sample.zip"));
+		this.renderer.render(GuideType.GETTING_STARTED, "sample");
+		assertThat(this.meterRegistry.get("renderer.guides.render")
+			.tag("type", "getting-started")
+			.tag("outcome", "success")
+			.timer()
+			.count()).isEqualTo(1);
+		for (String stage : new String[] { "download", "extract", "convert", "parse", "assets", "highlight",
+				"extract-content", "sections", "table-of-contents" }) {
+			assertThat(this.meterRegistry.get("renderer.guides.render.stage")
+				.tag("type", "getting-started")
+				.tag("stage", stage)
+				.timer()
+				.count()).isEqualTo(1);
+		}
+		assertThat(this.meterRegistry.get("renderer.guides.render.contributor")
+			.tag("contributor", "AsciidoctorGuideContentContributor")
+			.timer()
+			.count()).isEqualTo(1);
+		assertThat(this.meterRegistry.get("renderer.guides.render.archive.size").summary().totalAmount())
+			.isEqualTo(readAsBytes("gs-sample.zip").length);
+		assertThat(this.meterRegistry.get("renderer.guides.render.transferred")
+			.tag("source", "zipball")
+			.summary()
+			.totalAmount()).isEqualTo(readAsBytes("gs-sample.zip").length);
+		assertThat(this.meterRegistry.get("renderer.guides.render.content.size").summary().totalAmount())
+			.isPositive();
+		assertThat(this.meterRegistry.find("renderer.guides.render").tagKeys("guide").timer()).isNull();
+	}
+
+	@Test
+	public void renderTagsMetricsWithGuideNameWhenEnabled() throws Exception {
+		this.properties.getMetrics().setPerGuideTags(true);
+		createRenderer();
+		given(this.githubClient.downloadRepositoryAsZipball("spring-guides", "gs-sample"))
+			.willReturn(readAsBytes("gs-sample.zip"));
+		this.renderer.render(GuideType.GETTING_STARTED, "sample");
+		assertThat(this.meterRegistry.get("renderer.guides.render.stage")
+			.tag("guide", "sample")
+			.tag("stage", "convert")
+			.timer()
+			.count()).isEqualTo(1);
+	}
+
+	@Test
+	public void renderIsAbandonedOnceItsDeadlineExpires() {
+		this.properties.getRender().setTimeout(Duration.ofMillis(50));
+		createRenderer();
+		given(this.githubClient.downloadRepositoryAsZipball("spring-guides", "gs-sample")).willAnswer((invocation) -> {
+			try {
+				Thread.sleep(10000);
+				return new byte[0];
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new ResourceAccessException("I/O error", new InterruptedIOException());
+			}
+		});
+		assertThatExceptionOfType(GuideRenderTimeoutException.class)
+			.isThrownBy(() -> this.renderer.render(GuideType.GETTING_STARTED, "sample"))
+			.withCauseInstanceOf(ResourceAccessException.class);
+		assertThat(Thread.currentThread().isInterrupted()).isFalse();
+		assertThat(this.meterRegistry.get("renderer.guides.render")
+			.tag("type", "getting-started")
+			.tag("outcome", "timeout")
+			.timer()
+			.count()).isEqualTo(1);
+	}
+
+	@Test
+	public void renderIsAbandonedWhileWaitingForSlowGithubApi() {
+		try (GithubApiStub github = new GithubApiStub(1, "io/spring/renderer/guides/gs-sample.zip").start()) {
+			github.setLatency(Duration.ofSeconds(10));
+			this.properties.getGithub().setApiUrl(github.getUrl());
+			this.properties.getRender().setTimeout(Duration.ofMillis(200));
+			createRenderer(new GithubClient(new RestTemplateBuilder(), this.properties));
+			long start = System.nanoTime();
+			assertThatExceptionOfType(GuideRenderTimeoutException.class)
+				.isThrownBy(() -> this.renderer.render(GuideType.GETTING_STARTED, "guide-0"));
+			assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+			assertThat(Thread.currentThread().isInterrupted()).isFalse();
+		}
 	}
 
 	private byte[] readAsBytes(String path) throws IOException {
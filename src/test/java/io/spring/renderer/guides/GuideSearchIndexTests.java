@@ -0,0 +1,118 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.util.List;
+import java.util.Set;
+
+import io.spring.renderer.github.Repository;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.hateoas.CollectionModel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link GuideSearchIndex}.
+ */
+class GuideSearchIndexTests {
+
+	private final GuideSearchIndex index = new GuideSearchIndex();
+
+	@Test
+	void searchRanksMoreRelevantGuidesFirst() {
+		this.index.indexMetadata(guide("gs-rest-service", "Building a RESTful Web Service", "spring-boot"));
+		this.index.indexMetadata(guide("gs-consuming-rest", "Consuming a RESTful Web Service", "spring-boot"));
+		this.index.indexContent(GuideType.GETTING_STARTED, "consuming-rest",
+				content("<p>Consume the <em>greeting</em> of a RESTful web service</p>"));
+		this.index.indexContent(GuideType.GETTING_STARTED, "rest-service",
+				content("<h2>Greeting</h2><p>Build a greeting resource and a greeting controller</p>"));
+		assertThat(this.index.search("Greeting", 10)).extracting(GuideSearchIndex.Result::name)
+			.containsExactly("rest-service", "consuming-rest");
+		assertThat(this.index.search("consuming", 10)).extracting(GuideSearchIndex.Result::name)
+			.containsExactly("consuming-rest");
+		assertThat(this.index.search("spring boot", 10)).hasSize(2);
+	}
+
+	@Test
+	void reindexedContentReplacesPreviousContent() {
+		this.index.indexMetadata(guide("gs-rest-service", "Building a RESTful Web Service", "spring-boot"));
+		this.index.indexContent(GuideType.GETTING_STARTED, "rest-service", content("<p>Uses Jersey</p>"));
+		this.index.indexContent(GuideType.GETTING_STARTED, "rest-service", content("<p>Uses Spring MVC</p>"));
+		assertThat(this.index.search("jersey", 10)).isEmpty();
+		List<GuideSearchIndex.Result> results = this.index.search("mvc", 10);
+		assertThat(results).singleElement().satisfies((result) -> {
+			assertThat(result.title()).isEqualTo("Building a RESTful Web Service");
+			assertThat(result.type()).isEqualTo(GuideType.GETTING_STARTED);
+		});
+	}
+
+	@Test
+	void searchIgnoresMarkupAndStopWords() {
+		this.index.indexContent(GuideType.TUTORIAL, "bookmarks",
+				content("<script>var hidden = 1;</script><p class=\"lead\">Tom &amp; Jerry</p>"));
+		assertThat(this.index.search("hidden", 10)).isEmpty();
+		assertThat(this.index.search("lead", 10)).isEmpty();
+		assertThat(this.index.search("the", 10)).isEmpty();
+		assertThat(this.index.search("jerry", 10)).hasSize(1);
+	}
+
+	@Test
+	void removedGuideIsNotFound() {
+		this.index.indexContent(GuideType.TOPICAL, "spring-security-architecture", content("<p>Filters</p>"));
+		this.index.remove(GuideType.TOPICAL, "spring-security-architecture");
+		assertThat(this.index.search("filters", 10)).isEmpty();
+		assertThat(this.index.size()).isZero();
+	}
+
+	@Test
+	void guidesRemovedFromCatalogAreNotFound() {
+		GuideModel restService = guide("gs-rest-service", "Building a RESTful Web Service", "spring-boot");
+		GuideModel consumingRest = guide("gs-consuming-rest", "Consuming a RESTful Web Service", "spring-boot");
+		CollectionModel<GuideModel> catalog = CollectionModel.of(List.of(restService, consumingRest));
+		this.index.indexCatalog(catalog);
+		this.index.indexContent(GuideType.GETTING_STARTED, "rest-service", content("<p>Greeting</p>"));
+		assertThat(this.index.isIndexOf(catalog)).isTrue();
+		assertThat(this.index.search("restful", 10)).hasSize(2);
+		CollectionModel<GuideModel> updatedCatalog = CollectionModel.of(List.of(consumingRest));
+		this.index.indexCatalog(updatedCatalog);
+		assertThat(this.index.isIndexOf(catalog)).isFalse();
+		assertThat(this.index.search("restful", 10)).extracting(GuideSearchIndex.Result::name)
+			.containsExactly("consuming-rest");
+		assertThat(this.index.search("greeting", 10)).isEmpty();
+	}
+
+	@Test
+	void searchLimitsResults() {
+		for (int i = 0; i < 20; i++) {
+			this.index.indexContent(GuideType.GETTING_STARTED, "guide-" + i, content("<p>Spring guide</p>"));
+		}
+		assertThat(this.index.search("guide", 5)).hasSize(5);
+	}
+
+	private GuideModel guide(String repositoryName, String title, String project) {
+		Repository repository = new Repository(1L, repositoryName, "spring-guides/" + repositoryName,
+				title + " :: Learn how to build it", "https://github.com/spring-guides/" + repositoryName, null, null,
+				null, List.of(project));
+		return new GuideModel(new GuideMetadata(repository, null, Set.of("Misc")));
+	}
+
+	private GuideContentModel content(String html) {
+		return new GuideContentModel("guide", html, "");
+	}
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import io.spring.renderer.RendererProperties;
+import io.spring.renderer.github.Repository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link GuidesCacheSnapshot}.
+ */
+class GuidesCacheSnapshotTests {
+
+	private static final SimpleKey REST_SERVICE = new SimpleKey("getting-started", "rest-service");
+
+	private final GuideSearchIndex searchIndex = new GuideSearchIndex();
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void restoreCachesFromSnapshot() {
+		Path path = this.directory.resolve("caches.snapshot");
+		CacheManager cacheManager = createCacheManager();
+		populate(cacheManager);
+		assertThat(createSnapshot(cacheManager, path, 1).write()).isEqualTo(3);
+
+		CacheManager restored = createCacheManager();
+		assertThat(createSnapshot(restored, path, 1).restore()).isEqualTo(3);
+		CollectionModel<?> guides = (CollectionModel<?>) getCache(restored, GuidesCacheConfiguration.GUIDES_CACHE)
+			.get(SimpleKey.EMPTY)
+			.get();
+		assertThat(guides.getContent()).singleElement()
+			.extracting("title", "description", "projects", "category")
+			.containsExactly("REST service", "Building a REST service", new String[] { "spring-boot" },
+					new String[] { "Getting Started" });
+		assertThat(guides.getLink("getting-started")).isPresent();
+		ResponseEntity<?> guide = (ResponseEntity<?>) getCache(restored, GuidesCacheConfiguration.GUIDE_CACHE)
+			.get(REST_SERVICE)
+			.get();
+		assertThat(((GuideModel) guide.getBody()).getRepositoryName()).isEqualTo("spring-guides/gs-rest-service");
+		assertThat(((GuideModel) guide.getBody()).getLink(IanaLinkRelations.SELF)).isPresent();
+		ResponseEntity<?> content = (ResponseEntity<?>) getCache(restored,
+				GuidesCacheConfiguration.GUIDE_CONTENT_CACHE)
+			.get(REST_SERVICE)
+			.get();
+		assertThat(((GuideContentModel) content.getBody()).getContent()).isEqualTo("<p>Hello</p>");
+		assertThat(this.searchIndex.search("hello", 10)).extracting(GuideSearchIndex.Result::name)
+			.containsExactly("rest-service");
+	}
+
+	@Test
+	void snapshotOfAnotherRenderVersionIsDiscarded() {
+		Path path = this.directory.resolve("caches.snapshot");
+		CacheManager cacheManager = createCacheManager();
+		populate(cacheManager);
+		createSnapshot(cacheManager, path, 1).write();
+
+		CacheManager restored = createCacheManager();
+		assertThat(createSnapshot(restored, path, 2).restore()).isZero();
+		assertThat(getCache(restored, GuidesCacheConfiguration.GUIDE_CACHE).get(REST_SERVICE)).isNull();
+	}
+
+	@Test
+	void unreadableSnapshotIsDiscarded() throws IOException {
+		Path path = this.directory.resolve("caches.snapshot");
+		Files.writeString(path, "not a snapshot");
+		assertThat(createSnapshot(createCacheManager(), path, 1).restore()).isZero();
+	}
+
+	@Test
+	void missingSnapshotIsIgnored() {
+		Path path = this.directory.resolve("caches.snapshot");
+		assertThat(createSnapshot(createCacheManager(), path, 1).restore()).isZero();
+	}
+
+	private GuidesCacheSnapshot createSnapshot(CacheManager cacheManager, Path path, int renderVersion) {
+		return new GuidesCacheSnapshot(cacheManager, this.searchIndex, path, Duration.ofHours(1), renderVersion,
+				"spring-guides");
+	}
+
+	private CacheManager createCacheManager() {
+		SimpleCacheManager cacheManager = new GuidesCacheConfiguration().createCacheManager(new RendererProperties(),
+				null);
+		cacheManager.afterPropertiesSet();
+		return cacheManager;
+	}
+
+	private void populate(CacheManager cacheManager) {
+		Repository repository = new Repository(12L, "gs-rest-service", "spring-guides/gs-rest-service",
+				"REST service :: Building a REST service", "https://github.com/spring-guides/gs-rest-service",
+				"git://github.com/spring-guides/gs-rest-service.git",
+				"git@github.com:spring-guides/gs-rest-service.git",
+				"https://github.com/spring-guides/gs-rest-service.git", List.of("spring-boot"));
+		GuideModel guide = new GuideModel(new GuideMetadata(repository, null, Set.of("Getting Started")));
+		guide.add(Link.of("https://example.org/guides/getting-started/rest-service"));
+		getCache(cacheManager, GuidesCacheConfiguration.GUIDES_CACHE).put(SimpleKey.EMPTY,
+				CollectionModel.of(List.of(guide), Link.of("https://example.org/guides", "getting-started")));
+		getCache(cacheManager, GuidesCacheConfiguration.GUIDE_CACHE).put(REST_SERVICE, ResponseEntity.ok(guide));
+		getCache(cacheManager, GuidesCacheConfiguration.GUIDE_CACHE).put(new SimpleKey("getting-started", "missing"),
+				ResponseEntity.notFound().build());
+		GuideContentModel content = new GuideContentModel("rest-service", "<p>Hello</p>", "<ul></ul>");
+		getCache(cacheManager, GuidesCacheConfiguration.GUIDE_CONTENT_CACHE).put(REST_SERVICE,
+				ResponseEntity.ok(content));
+	}
+
+	private Cache getCache(CacheManager cacheManager, String name) {
+		return cacheManager.getCache(name);
+	}
+
+}
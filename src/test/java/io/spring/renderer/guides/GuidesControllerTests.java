@@ -16,7 +16,10 @@
 
 package io.spring.renderer.guides;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import io.spring.renderer.github.GithubClient;
 import io.spring.renderer.github.GithubResourceNotFoundException;
@@ -28,6 +31,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -42,6 +46,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.client.HttpClientErrorException;
 
 import static org.hamcrest.collection.IsIterableContainingInAnyOrder.containsInAnyOrder;
+import static org.hamcrest.core.StringContains.containsString;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -50,7 +55,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 /**
  * Tests for {@link GuidesController}
  */
-@WebMvcTest(controllers = GuidesController.class)
+@WebMvcTest(controllers = GuidesController.class, properties = "renderer.render.max-queued=0")
+@Import({ GithubGuideCatalog.class, GuideSearchIndex.class, RenderBulkhead.class })
 @ActiveProfiles("test")
 @WithMockUser
 public class GuidesControllerTests {
@@ -64,6 +70,9 @@ public class GuidesControllerTests {
 	@MockBean
 	private GithubClient githubClient;
 
+	@Autowired
+	private RenderBulkhead renderBulkhead;
+
 	@Test
 	public void fetchAllGuides() throws Exception {
 		Repository restService = new Repository(12L, "gs-rest-service-test", "spring-guides/gs-rest-service-test",
@@ -98,6 +107,90 @@ public class GuidesControllerTests {
 					"http://localhost/guides/getting-started/securing-web-test"));
 	}
 
+	@Test
+	public void fetchGuidesFilteredByCategoryAndProject() throws Exception {
+		given(this.githubClient.fetchOrgRepositories("spring-guides")).willReturn(catalog(5));
+		this.mvc.perform(get("/guides").param("category", "misc").param("project", "spring-data"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$._embedded.guides.length()").value(2))
+			.andExpect(jsonPath("$._embedded.guides[0].name").value("guide-1"))
+			.andExpect(jsonPath("$._embedded.guides[1].name").value("guide-3"))
+			.andExpect(jsonPath("$.page").doesNotExist())
+			.andExpect(hasLink("getting-started", "http://localhost/guides/getting-started"));
+		this.mvc.perform(get("/guides").param("type", "tutorial"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$._embedded").doesNotExist());
+	}
+
+	@Test
+	public void fetchGuidesPage() throws Exception {
+		given(this.githubClient.fetchOrgRepositories("spring-guides")).willReturn(catalog(5));
+		this.mvc
+			.perform(get("/guides").queryParam("type", "getting-started")
+				.queryParam("page", "1")
+				.queryParam("size", "2"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$._embedded.guides.length()").value(2))
+			.andExpect(jsonPath("$._embedded.guides[0].name").value("guide-2"))
+			.andExpect(jsonPath("$.page.totalElements").value(5))
+			.andExpect(jsonPath("$.page.totalPages").value(3))
+			.andExpect(hasLink("next", "http://localhost/guides?type=getting-started&page=2&size=2"))
+			.andExpect(hasLink("prev", "http://localhost/guides?type=getting-started&page=0&size=2"))
+			.andExpect(hasLink("last", "http://localhost/guides?type=getting-started&page=2&size=2"));
+	}
+
+	@Test
+	public void fetchGuidesInvalidPage() throws Exception {
+		given(this.githubClient.fetchOrgRepositories("spring-guides")).willReturn(catalog(5));
+		this.mvc.perform(get("/guides").param("page", "-1")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void fetchGuidesWithFields() throws Exception {
+		given(this.githubClient.fetchOrgRepositories("spring-guides")).willReturn(catalog(5));
+		this.mvc
+			.perform(get("/guides").queryParam("fields", "name,title,type")
+				.queryParam("page", "0")
+				.queryParam("size", "2"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$._embedded.guides.length()").value(2))
+			.andExpect(jsonPath("$._embedded.guides[0].name").value("guide-0"))
+			.andExpect(jsonPath("$._embedded.guides[0].title").value("Guide 0"))
+			.andExpect(jsonPath("$._embedded.guides[0].type").value("getting-started"))
+			.andExpect(jsonPath("$._embedded.guides[0].githubUrl").doesNotExist())
+			.andExpect(jsonPath("$._embedded.guides[0]._links").doesNotExist())
+			.andExpect(jsonPath("$.page.totalElements").value(5))
+			.andExpect(hasLink("next", "http://localhost/guides?fields=name,title,type&page=1&size=2"));
+	}
+
+	@Test
+	public void fetchGuideWithFieldsAndLinks() throws Exception {
+		given(this.githubClient.fetchOrgRepository("spring-guides", "gs-guide-1")).willReturn(catalog(2).get(1));
+		this.mvc.perform(get("/guides/getting-started/guide-1").param("fields", "name,projects,_links"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.name").value("guide-1"))
+			.andExpect(jsonPath("$.projects[1]").value("spring-data"))
+			.andExpect(jsonPath("$.title").doesNotExist())
+			.andExpect(hasLink("self", "http://localhost/guides/getting-started/guide-1"));
+	}
+
+	@Test
+	public void fetchGuidesWithUnknownField() throws Exception {
+		given(this.githubClient.fetchOrgRepositories("spring-guides")).willReturn(catalog(5));
+		this.mvc.perform(get("/guides").param("fields", "name,stars")).andExpect(status().isBadRequest());
+	}
+
+	private List<Repository> catalog(int size) {
+		List<Repository> repositories = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			String name = "gs-guide-" + i;
+			repositories.add(new Repository((long) i, name, "spring-guides/" + name, "Guide " + i + " :: Guide",
+					"http://example.org/spring-guides/" + name, null, null, null,
+					(i % 2 == 0) ? List.of("spring-boot") : List.of("spring-boot", "spring-data")));
+		}
+		return repositories;
+	}
+
 	@Test
 	public void fetchAllGuidesFiltersUnknownTypes() throws Exception {
 		Repository deprecatedGuide = new Repository(15L, "deprecate-gs-device-detection",
@@ -185,6 +278,36 @@ public class GuidesControllerTests {
 			.andExpect(hasLink("guide", "http://localhost/guides/getting-started/rest-service"));
 	}
 
+	@Test
+	public void fetchGuideContentSection() throws Exception {
+		GuideContentModel content = new GuideContentModel("rest-service",
+				"<div id=\"preamble\"><p>Intro</p></div>"
+						+ "<div class=\"sect1\"><h2 id=\"_what_you_need\">What You Need</h2><p>JDK</p></div>"
+						+ "<div class=\"sect1\"><h2 id=\"_summary\">Summary</h2><p>Done</p></div>",
+				"toc");
+		given(this.guideRenderer.render(GuideType.GETTING_STARTED, "rest-service")).willReturn(content);
+		MvcResult result = this.mvc.perform(get("/guides/getting-started/rest-service/content/sections/_summary"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.name").value("rest-service"))
+			.andExpect(jsonPath("$.id").value("_summary"))
+			.andExpect(jsonPath("$.title").value("Summary"))
+			.andExpect(jsonPath("$.content").value(containsString("<p>Done</p>")))
+			.andExpect(MockMvcResultMatchers.header().exists("ETag"))
+			.andExpect(
+					hasLink("self", "http://localhost/guides/getting-started/rest-service/content/sections/_summary"))
+			.andExpect(hasLink("content", "http://localhost/guides/getting-started/rest-service/content"))
+			.andReturn();
+		this.mvc
+			.perform(get("/guides/getting-started/rest-service/content/sections/_summary").header("If-None-Match",
+					result.getResponse().getHeader("ETag")))
+			.andExpect(status().isNotModified());
+		this.mvc.perform(get("/guides/getting-started/rest-service/content/sections/preamble"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.content").value(containsString("<p>Intro</p>")));
+		this.mvc.perform(get("/guides/getting-started/rest-service/content/sections/_unknown"))
+			.andExpect(status().isNotFound());
+	}
+
 	@Test
 	public void fetchUnknownGuideContent() throws Exception {
 		given(this.guideRenderer.render(GuideType.GETTING_STARTED, "rest-service"))
@@ -194,6 +317,64 @@ public class GuidesControllerTests {
 			.andExpect(MockMvcResultMatchers.status().isNotFound());
 	}
 
+	@Test
+	public void fetchGuideContentTimeout() throws Exception {
+		given(this.guideRenderer.render(GuideType.GETTING_STARTED, "rest-service"))
+			.willThrow(new GuideRenderTimeoutException("gs-rest-service", Duration.ofSeconds(1), null));
+		this.mvc.perform(get("/guides/getting-started/rest-service/content"))
+			.andExpect(MockMvcResultMatchers.status().isGatewayTimeout());
+	}
+
+	@Test
+	public void fetchGuideContentWhenTooManyGuidesAreRendered() throws Exception {
+		List<RenderBulkhead.Permit> permits = new ArrayList<>();
+		try {
+			RenderBulkhead.Permit permit;
+			while ((permit = this.renderBulkhead.tryAcquire()) != null) {
+				permits.add(permit);
+			}
+			this.mvc.perform(get("/guides/getting-started/rest-service/content"))
+				.andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+				.andExpect(MockMvcResultMatchers.header().string("Retry-After", "10"));
+		}
+		finally {
+			permits.forEach(RenderBulkhead.Permit::close);
+		}
+	}
+
+	@Test
+	public void searchRenderedGuides() throws Exception {
+		given(this.githubClient.fetchOrgRepositories("spring-guides")).willReturn(List.of(new Repository(12L,
+				"gs-rest-service", "spring-guides/gs-rest-service", "REST service :: Building a REST service",
+				"http://example.org/spring-guides/gs-rest-service", null, null, null, List.of("spring-boot"))));
+		GuideContentModel content = new GuideContentModel("rest-service",
+				"<p>Build a <code>GreetingController</code> serving JSON</p>", "toc");
+		given(this.guideRenderer.render(GuideType.GETTING_STARTED, "rest-service")).willReturn(content);
+		this.mvc.perform(get("/guides/getting-started/rest-service/content"))
+			.andExpect(MockMvcResultMatchers.status().isOk());
+		this.mvc.perform(get("/guides/search").param("q", "greetingcontroller"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(jsonPath("$._embedded.results.length()").value(1))
+			.andExpect(jsonPath("$._embedded.results[0].name").value("rest-service"))
+			.andExpect(jsonPath("$._embedded.results[0].type").value("getting-started"))
+			.andExpect(hasLink("$._embedded.results[0]._links", "content",
+					"http://localhost/guides/getting-started/rest-service/content"));
+	}
+
+	@Test
+	public void searchListedGuidesWithoutShowingThem() throws Exception {
+		given(this.githubClient.fetchOrgRepositories("spring-guides")).willReturn(catalog(3));
+		this.mvc.perform(get("/guides/search").param("q", "data"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(jsonPath("$._embedded.results.length()").value(1))
+			.andExpect(jsonPath("$._embedded.results[0].name").value("guide-1"));
+	}
+
+	@Test
+	public void searchWithoutQuery() throws Exception {
+		this.mvc.perform(get("/guides/search")).andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+
 	static LinksMatcher hasLink(String name, String href) {
 		return new LinksMatcher(name, href);
 	}
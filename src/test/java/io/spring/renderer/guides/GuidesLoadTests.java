@@ -0,0 +1,209 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.renderer.github.GithubApiStub;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test scenario for {@link GuidesController}, run against a local stand-in for the
+ * Github API so that no rate limit is consumed. The catalog and the content of guides are
+ * requested concurrently, and the throughput and latency percentiles of each endpoint
+ * are reported on the console and in {@code build/reports/load-test/results.json}.
+ * <p>
+ * Run with {@code ./gradlew loadTest}. The scenario can be tuned with the
+ * {@code load.threads}, {@code load.duration} (seconds), {@code load.guides},
+ * {@code load.catalog-ratio}, {@code load.github-latency} (milliseconds) and
+ * {@code load.github-failure-rate} system properties.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class GuidesLoadTests {
+
+	private static final int THREADS = Integer.getInteger("load.threads", 16);
+
+	private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.duration", 30));
+
+	private static final int GUIDES = Integer.getInteger("load.guides", 250);
+
+	private static final double CATALOG_RATIO = Double.parseDouble(System.getProperty("load.catalog-ratio", "0.1"));
+
+	private static final Duration GITHUB_LATENCY = Duration.ofMillis(Long.getLong("load.github-latency", 50));
+
+	private static final double GITHUB_FAILURE_RATE = Double
+		.parseDouble(System.getProperty("load.github-failure-rate", "0"));
+
+	private static final String BASIC_AUTH = "basic " + Base64.getEncoder().encodeToString("user:test".getBytes());
+
+	private static final GithubApiStub github = new GithubApiStub(GUIDES, "io/spring/renderer/guides/gs-sample.zip")
+		.start();
+
+	@LocalServerPort
+	private int port;
+
+	@TempDir
+	static Path directory;
+
+	@DynamicPropertySource
+	static void githubProperties(DynamicPropertyRegistry registry) {
+		registry.add("renderer.github.api-url", github::getUrl);
+		registry.add("renderer.github.webhook.dispatch.queue-directory", () -> directory.resolve("dispatch-queue"));
+	}
+
+	@AfterAll
+	static void stopGithub() {
+		github.close();
+	}
+
+	@Test
+	void catalogAndContentUnderConcurrentLoad() throws Exception {
+		github.setLatency(GITHUB_LATENCY);
+		github.setFailureRate(GITHUB_FAILURE_RATE);
+		MeterRegistry registry = new SimpleMeterRegistry();
+		Timer catalog = endpointTimer(registry, "/guides");
+		Timer content = endpointTimer(registry, "/guides/{type}/{guide}/content");
+		ExecutorService workers = Executors.newFixedThreadPool(THREADS);
+		HttpClient client = HttpClient.newHttpClient();
+		long deadline = System.nanoTime() + DURATION.toNanos();
+		List<Future<?>> users = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			users.add(workers.submit(() -> {
+				while (System.nanoTime() < deadline) {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					if (random.nextDouble() < CATALOG_RATIO) {
+						send(client, registry, catalog, "/guides");
+					}
+					else {
+						String guide = GithubApiStub.repositoryName(random.nextInt(GUIDES)).substring(3);
+						send(client, registry, content, "/guides/getting-started/" + guide + "/content");
+					}
+				}
+				return null;
+			}));
+		}
+		for (Future<?> user : users) {
+			user.get();
+		}
+		workers.shutdown();
+		Map<String, Object> results = new LinkedHashMap<>();
+		results.put("threads", THREADS);
+		results.put("durationSeconds", DURATION.getSeconds());
+		results.put("guides", GUIDES);
+		results.put("githubLatencyMillis", GITHUB_LATENCY.toMillis());
+		results.put("githubFailureRate", GITHUB_FAILURE_RATE);
+		results.put("githubRequests", github.getRequestCount());
+		results.put("endpoints", Map.of("catalog", report(registry, catalog), "content", report(registry, content)));
+		writeResults(results);
+		assertThat(catalog.count() + content.count()).isPositive();
+	}
+
+	private Timer endpointTimer(MeterRegistry registry, String endpoint) {
+		return Timer.builder("load.requests")
+			.tag("endpoint", endpoint)
+			.publishPercentiles(0.5, 0.9, 0.99, 0.999)
+			.register(registry);
+	}
+
+	private void send(HttpClient client, MeterRegistry registry, Timer timer, String path) {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + this.port + path))
+			.header("Authorization", BASIC_AUTH)
+			.build();
+		long start = System.nanoTime();
+		String status;
+		try {
+			status = Integer.toString(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+		}
+		catch (Exception ex) {
+			status = ex.getClass().getSimpleName();
+		}
+		timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		Counter.builder("load.responses")
+			.tag("endpoint", timer.getId().getTag("endpoint"))
+			.tag("status", status)
+			.register(registry)
+			.increment();
+	}
+
+	private Map<String, Object> report(MeterRegistry registry, Timer timer) {
+		String endpoint = timer.getId().getTag("endpoint");
+		HistogramSnapshot snapshot = timer.takeSnapshot();
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("requests", snapshot.count());
+		report.put("throughputPerSecond", (double) snapshot.count() / DURATION.getSeconds());
+		Map<String, Double> percentiles = new LinkedHashMap<>();
+		for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+			percentiles.put("p" + (percentile.percentile() * 100), percentile.value(TimeUnit.MILLISECONDS));
+		}
+		report.put("latencyMillis", percentiles);
+		report.put("maxLatencyMillis", snapshot.max(TimeUnit.MILLISECONDS));
+		Map<String, Double> statuses = new LinkedHashMap<>();
+		registry.find("load.responses")
+			.tag("endpoint", endpoint)
+			.counters()
+			.forEach((counter) -> statuses.put(counter.getId().getTag("status"), counter.count()));
+		report.put("responses", statuses);
+		System.out.printf("%-32s %8d requests %10.1f req/s  %s  max=%.1fms  %s%n", endpoint, snapshot.count(),
+				report.get("throughputPerSecond"), percentiles, snapshot.max(TimeUnit.MILLISECONDS), statuses);
+		return report;
+	}
+
+	private void writeResults(Map<String, Object> results) throws Exception {
+		File output = new File("build/reports/load-test/results.json");
+		output.getParentFile().mkdirs();
+		new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, results);
+	}
+
+}
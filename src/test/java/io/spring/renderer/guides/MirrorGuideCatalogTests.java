@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import io.spring.renderer.github.GithubResourceNotFoundException;
+import io.spring.renderer.github.Repository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link MirrorGuideCatalog} and {@link MirrorGuideSource}.
+ */
+class MirrorGuideCatalogTests {
+
+	@TempDir
+	Path directory;
+
+	private GuideMirror mirror;
+
+	@BeforeEach
+	void setup() throws IOException {
+		Path restService = Files.createDirectories(this.directory.resolve("gs-rest-service/.git"));
+		Files.writeString(restService.resolve("description"), "REST service :: Building a REST service\n");
+		Path securingWeb = Files.createDirectories(this.directory.resolve("gs-securing-web/.git"));
+		Files.writeString(securingWeb.resolve("description"), "Unnamed repository; edit this file to name it.\n");
+		Files.writeString(this.directory.resolve("gs-securing-web/README.adoc"), ":toc:\n= Securing a Web App\n");
+		Files.createDirectories(this.directory.resolve(".cache"));
+		Files.writeString(this.directory.resolve("notes.txt"), "not a repository");
+		this.mirror = new GuideMirror(this.directory);
+	}
+
+	@Test
+	void fetchRepositoriesListsCheckouts() {
+		List<Repository> repositories = new MirrorGuideCatalog(this.mirror).fetchRepositories("spring-guides");
+		assertThat(repositories).extracting(Repository::getFullName)
+			.containsExactly("spring-guides/gs-rest-service", "spring-guides/gs-securing-web");
+		assertThat(repositories.get(0).getDescription()).isEqualTo("REST service :: Building a REST service");
+		assertThat(repositories.get(0).getHtmlUrl()).isEqualTo("https://github.com/spring-guides/gs-rest-service");
+	}
+
+	@Test
+	void fetchRepositoryDefaultsDescriptionToReadmeTitle() {
+		Repository repository = new MirrorGuideCatalog(this.mirror).fetchRepository("spring-guides",
+				"gs-securing-web");
+		assertThat(repository.getDescription()).isEqualTo("Securing a Web App");
+	}
+
+	@Test
+	void fetchUnknownRepository() {
+		MirrorGuideCatalog catalog = new MirrorGuideCatalog(this.mirror);
+		assertThatExceptionOfType(GithubResourceNotFoundException.class)
+			.isThrownBy(() -> catalog.fetchRepository("spring-guides", "gs-unknown"));
+		assertThatExceptionOfType(GithubResourceNotFoundException.class)
+			.isThrownBy(() -> catalog.fetchRepository("spring-guides", ".."));
+	}
+
+	@Test
+	void fetchFilesRendersInPlace() {
+		Path checkout = this.directory.resolve("gs-securing-web");
+		try (GuideFiles files = new MirrorGuideSource(this.mirror).fetch("spring-guides", "gs-securing-web")) {
+			assertThat(files.getRoot()).isEqualTo(checkout.toFile());
+		}
+		assertThat(checkout.resolve("README.adoc")).exists();
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.renderer.RendererProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link RenderBulkhead}.
+ */
+class RenderBulkheadTests {
+
+	@Test
+	void rendersAreRejectedWhenPermitsAndQueueAreExhausted() {
+		RenderBulkhead bulkhead = createBulkhead(1, 0, Duration.ofSeconds(10));
+		RenderBulkhead.Permit permit = bulkhead.tryAcquire();
+		assertThat(permit).isNotNull();
+		assertThat(bulkhead.tryAcquire()).isNull();
+		permit.close();
+		assertThat(bulkhead.tryAcquire()).isNotNull();
+	}
+
+	@Test
+	void queuedRenderAcquiresReleasedPermit() throws Exception {
+		RenderBulkhead bulkhead = createBulkhead(1, 1, Duration.ofSeconds(10));
+		RenderBulkhead.Permit permit = bulkhead.tryAcquire();
+		CompletableFuture<RenderBulkhead.Permit> queued = CompletableFuture.supplyAsync(bulkhead::tryAcquire);
+		Thread.sleep(100);
+		permit.close();
+		assertThat(queued.get(10, TimeUnit.SECONDS)).isNotNull();
+	}
+
+	@Test
+	void queuedRenderIsRejectedAfterQueueTimeout() {
+		RenderBulkhead bulkhead = createBulkhead(1, 1, Duration.ofMillis(50));
+		assertThat(bulkhead.tryAcquire()).isNotNull();
+		assertThat(bulkhead.tryAcquire()).isNull();
+	}
+
+	private RenderBulkhead createBulkhead(int maxConcurrent, int maxQueued, Duration queueTimeout) {
+		RendererProperties properties = new RendererProperties();
+		properties.getRender().setMaxConcurrent(maxConcurrent);
+		properties.getRender().setMaxQueued(maxQueued);
+		properties.getRender().setQueueTimeout(queueTimeout);
+		return new RenderBulkhead(properties);
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides.content;
+
+import io.spring.renderer.RendererProperties;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CodeBlockHighlighter}.
+ */
+class CodeBlockHighlighterTests {
+
+	private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
+			CodeBlockHighlighter.CACHE_NAME);
+
+	@Test
+	void highlightJavaListing() {
+		Document document = listing("java",
+				"@Service\npublic class Greeter { // greets\n\tString greet() { return \"a &lt; b\"; }\n}");
+		createHighlighter(true).highlight(document.body());
+		String html = document.select("code").html();
+		assertThat(html).contains("<span class=\"hljs-meta\">@Service</span>")
+			.contains("<span class=\"hljs-keyword\">public</span>")
+			.contains("<span class=\"hljs-comment\">// greets</span>")
+			.contains("<span class=\"hljs-string\">\"a &lt; b\"</span>");
+		assertThat(document.select("code").hasClass("hljs")).isTrue();
+		assertThat(document.select("pre").hasClass("prettyprint")).isFalse();
+	}
+
+	@Test
+	void highlightXmlAndYamlListings() {
+		Document xml = listing("xml", "&lt;dependency scope=\"test\"&gt;&lt;!-- test --&gt;&lt;/dependency&gt;");
+		Document yaml = listing("yaml", "spring:\n  application:\n    name: demo # the name");
+		CodeBlockHighlighter highlighter = createHighlighter(true);
+		highlighter.highlight(xml.body());
+		highlighter.highlight(yaml.body());
+		assertThat(xml.select("code").html()).contains("<span class=\"hljs-name\">dependency</span>")
+			.contains("<span class=\"hljs-attr\">scope</span>")
+			.contains("<span class=\"hljs-string\">\"test\"</span>")
+			.contains("<span class=\"hljs-comment\">&lt;!-- test --&gt;</span>");
+		assertThat(yaml.select("code").html()).contains("<span class=\"hljs-attr\">spring</span>")
+			.contains("<span class=\"hljs-attr\">name</span>")
+			.contains("<span class=\"hljs-comment\"># the name</span>");
+	}
+
+	@Test
+	void highlightedListingsAreCachedAcrossDocuments() {
+		CodeBlockHighlighter highlighter = createHighlighter(true);
+		Document first = listing("java", "return null;");
+		Document second = listing("java", "return null;");
+		highlighter.highlight(first.body());
+		highlighter.highlight(second.body());
+		assertThat(second.select("code").html()).isEqualTo(first.select("code").html());
+		ConcurrentMapCache cache = (ConcurrentMapCache) this.cacheManager.getCache(CodeBlockHighlighter.CACHE_NAME);
+		assertThat(cache.getNativeCache()).hasSize(1);
+	}
+
+	@Test
+	void unsupportedOrAnnotatedListingsAreLeftAsIs() {
+		Document unsupported = listing("cobol", "DISPLAY 'HELLO'.");
+		Document callouts = listing("java", "return null; <b class=\"conum\">(1)</b>");
+		CodeBlockHighlighter highlighter = createHighlighter(true);
+		highlighter.highlight(unsupported.body());
+		highlighter.highlight(callouts.body());
+		assertThat(unsupported.select("code").html()).isEqualTo("DISPLAY 'HELLO'.");
+		assertThat(callouts.select("code").html()).doesNotContain("hljs");
+	}
+
+	@Test
+	void listingsAreLeftAsIsWhenDisabled() {
+		Document document = listing("java", "return null;");
+		createHighlighter(false).highlight(document.body());
+		assertThat(document.select("code").html()).isEqualTo("return null;");
+	}
+
+	private CodeBlockHighlighter createHighlighter(boolean enabled) {
+		RendererProperties properties = new RendererProperties();
+		properties.getHighlighting().setEnabled(enabled);
+		return new CodeBlockHighlighter(properties, this.cacheManager);
+	}
+
+	private Document listing(String language, String html) {
+		return Jsoup.parse("<div class=\"listingblock\"><div class=\"content\"><pre class=\"prettyprint highlight\">"
+				+ "<code class=\"language-" + language + "\" data-lang=\"" + language + "\">" + html
+				+ "</code></pre></div></div>");
+	}
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides.webhook;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DispatchQueue}.
+ */
+class DispatchQueueTests {
+
+	private static final Instant RECEIVED_AT = Instant.parse("2024-05-01T10:15:30Z");
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void dispatchesAreKeptInOrder() throws Exception {
+		DispatchQueue queue = new DispatchQueue(this.directory, this.objectMapper);
+		queue.add(new QueuedDispatch("gs-rest-service", RECEIVED_AT, 0));
+		queue.add(new QueuedDispatch("gs-securing-web", RECEIVED_AT, 0));
+		DispatchQueue.Entry head = queue.peek(Duration.ZERO);
+		assertThat(head.dispatch().repository()).isEqualTo("gs-rest-service");
+		queue.remove(head);
+		assertThat(queue.peek(Duration.ZERO).dispatch().repository()).isEqualTo("gs-securing-web");
+		assertThat(queue.size()).isOne();
+	}
+
+	@Test
+	void pendingDispatchesSurviveRestart() throws Exception {
+		DispatchQueue queue = new DispatchQueue(this.directory, this.objectMapper);
+		queue.add(new QueuedDispatch("gs-rest-service", RECEIVED_AT, 0));
+		queue.add(new QueuedDispatch("gs-securing-web", RECEIVED_AT, 0));
+		queue.update(queue.peek(Duration.ZERO), new QueuedDispatch("gs-rest-service", RECEIVED_AT, 2));
+		DispatchQueue restarted = new DispatchQueue(this.directory, this.objectMapper);
+		assertThat(restarted.size()).isEqualTo(2);
+		assertThat(restarted.peek(Duration.ZERO).dispatch())
+			.isEqualTo(new QueuedDispatch("gs-rest-service", RECEIVED_AT, 2));
+		restarted.add(new QueuedDispatch("gs-spring-boot", RECEIVED_AT, 0));
+		restarted.remove(restarted.peek(Duration.ZERO));
+		restarted.remove(restarted.peek(Duration.ZERO));
+		assertThat(restarted.peek(Duration.ZERO).dispatch().repository()).isEqualTo("gs-spring-boot");
+	}
+
+	@Test
+	void failedDispatchesAreMovedOutOfTheQueue() throws Exception {
+		DispatchQueue queue = new DispatchQueue(this.directory, this.objectMapper);
+		queue.add(new QueuedDispatch("gs-rest-service", RECEIVED_AT, 0));
+		queue.fail(queue.peek(Duration.ZERO));
+		assertThat(queue.size()).isZero();
+		try (var failed = Files.list(this.directory.resolve("failed"))) {
+			assertThat(failed).hasSize(1);
+		}
+		assertThat(new DispatchQueue(this.directory, this.objectMapper).size()).isZero();
+	}
+
+	@Test
+	void peekWaitsForDispatch() throws Exception {
+		DispatchQueue queue = new DispatchQueue(this.directory, this.objectMapper);
+		Thread producer = new Thread(() -> {
+			sleep(100);
+			queue.add(new QueuedDispatch("gs-rest-service", RECEIVED_AT, 0));
+		});
+		producer.start();
+		assertThat(queue.peek(Duration.ofSeconds(10))).isNotNull();
+		producer.join();
+	}
+
+	@Test
+	void unreadableDispatchIsMovedOutOfTheQueue() throws IOException {
+		Files.writeString(this.directory.resolve("0000000000000000007.json"), "not json");
+		DispatchQueue queue = new DispatchQueue(this.directory, this.objectMapper);
+		assertThat(queue.size()).isZero();
+		assertThat(this.directory.resolve("failed").resolve("0000000000000000007.json")).exists();
+	}
+
+	@Test
+	void unknownFileIsMovedOutOfTheQueue() throws Exception {
+		new DispatchQueue(this.directory, this.objectMapper)
+			.add(new QueuedDispatch("gs-rest-service", RECEIVED_AT, 0));
+		Files.writeString(this.directory.resolve("foo.json"), "{}");
+		DispatchQueue queue = new DispatchQueue(this.directory, this.objectMapper);
+		assertThat(queue.size()).isOne();
+		assertThat(queue.peek(Duration.ZERO).dispatch().repository()).isEqualTo("gs-rest-service");
+		assertThat(this.directory.resolve("failed").resolve("foo.json")).exists();
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
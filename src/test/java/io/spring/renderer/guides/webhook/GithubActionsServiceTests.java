@@ -16,6 +16,8 @@
 
 package io.spring.renderer.guides.webhook;
 
+import java.util.List;
+
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -71,6 +73,18 @@ class GithubActionsServiceTests {
 		this.server.verify();
 	}
 
+	@Test
+	void triggerRepositoryDispatchWithUpdatedGuides() {
+		this.server.expect(requestTo(DISPATCH_PATH))
+			.andExpect(header("Authorization", "Bearer token"))
+			.andExpect(content().json("{\"event_type\": \"guides\", "
+					+ "\"client_payload\": {\"guides\": [\"gs-rest-service\", \"gs-spring-boot\"]}}", true))
+			.andRespond(withNoContent());
+		this.service.triggerRespositoryDispatch(ORG_NAME, REPO_NAME, TOKEN,
+				List.of("gs-rest-service", "gs-spring-boot"));
+		this.server.verify();
+	}
+
 	@Test
 	void triggerRepositoryDispatchWhenUnsuccessful() {
 		this.server.expect(requestTo(DISPATCH_PATH))
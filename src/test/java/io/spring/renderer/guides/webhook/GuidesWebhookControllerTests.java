@@ -16,9 +16,14 @@
 
 package io.spring.renderer.guides.webhook;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.spring.renderer.SecurityConfiguration;
+import jakarta.servlet.ServletException;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,12 +33,19 @@ import org.springframework.context.annotation.Import;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.util.StreamUtils;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 /**
  * Tests for {@link GuidesWebhookController}.
@@ -42,14 +54,21 @@ import static org.mockito.Mockito.verify;
 		properties = { "renderer.github.webhook.secret=token", "renderer.github.webhook.action-org=test-org",
 				"renderer.github.webhook.action-repo=test-repo",
 				"renderer.github.webhook.dispatch-token=dispatch-token" })
-@Import(SecurityConfiguration.class)
+@Import({ SecurityConfiguration.class, WebhookSignatureVerifier.class, WebhookDeliveries.class,
+		SimpleMeterRegistry.class })
 class GuidesWebhookControllerTests {
 
 	@Autowired
 	private MockMvc mockMvc;
 
+	@Autowired
+	private MeterRegistry meterRegistry;
+
 	@MockBean
-	private GithubActionsService service;
+	private DispatchQueue dispatchQueue;
+
+	@MockBean
+	private PeerEvictionService evictionService;
 
 	@Test
 	void missingHeadersShouldBeRejected() throws Exception {
@@ -102,17 +121,97 @@ class GuidesWebhookControllerTests {
 	}
 
 	@Test
-	void shouldTriggerRepositoryDispatch() throws Exception {
+	void shouldQueueRepositoryDispatch() throws Exception {
+		mockMvc
+			.perform(MockMvcRequestBuilders.post("/webhook/guides")
+				.accept(MediaType.APPLICATION_JSON)
+				.contentType(MediaType.APPLICATION_JSON)
+				.header("X-Hub-Signature", "sha1=C8D5B1C972E8DCFB69AB7124678D4C91E11D6F23")
+				.header("X-GitHub-Event", "push")
+				.content(getTestPayload("push")))
+			.andExpect(MockMvcResultMatchers.status().isAccepted())
+			.andExpect(MockMvcResultMatchers.content().string("{ \"message\": \"Successfully queued update\" }"));
+		verify(this.dispatchQueue, times(1))
+			.add(argThat((dispatch) -> "gs-test-guide".equals(dispatch.repository()) && dispatch.attempts() == 0));
+		verify(this.evictionService, times(1)).evict("gs-test-guide");
+	}
+
+	@Test
+	void shouldQueueRepositoryDispatchWithSha256Signature() throws Exception {
+		mockMvc
+			.perform(MockMvcRequestBuilders.post("/webhook/guides")
+				.accept(MediaType.APPLICATION_JSON)
+				.contentType(MediaType.APPLICATION_JSON)
+				.header("X-Hub-Signature-256",
+						"sha256=3ae61ad1de1a9331fe20148439615f0b1d45fdf77c141ead72c1a4c9c8d8e80a")
+				.header("X-GitHub-Event", "push")
+				.content(getTestPayload("push")))
+			.andExpect(MockMvcResultMatchers.status().isAccepted())
+			.andExpect(MockMvcResultMatchers.content().string("{ \"message\": \"Successfully queued update\" }"));
+		verify(this.dispatchQueue, times(1))
+			.add(argThat((dispatch) -> "gs-test-guide".equals(dispatch.repository()) && dispatch.attempts() == 0));
+	}
+
+	@Test
+	void invalidSha256SignatureShouldBeRejectedEvenWithValidSha1Signature() throws Exception {
 		mockMvc
 			.perform(MockMvcRequestBuilders.post("/webhook/guides")
 				.accept(MediaType.APPLICATION_JSON)
 				.contentType(MediaType.APPLICATION_JSON)
+				.header("X-Hub-Signature-256", "sha256=wronghmacvalue")
 				.header("X-Hub-Signature", "sha1=C8D5B1C972E8DCFB69AB7124678D4C91E11D6F23")
 				.header("X-GitHub-Event", "push")
 				.content(getTestPayload("push")))
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+		verifyNoInteractions(this.dispatchQueue);
+	}
+
+	@Test
+	void redeliveryShouldNotBeProcessedAgain() throws Exception {
+		for (int i = 0; i < 2; i++) {
+			mockMvc.perform(MockMvcRequestBuilders.post("/webhook/guides")
+				.accept(MediaType.APPLICATION_JSON)
+				.contentType(MediaType.APPLICATION_JSON)
+				.header("X-Hub-Signature", "sha1=C8D5B1C972E8DCFB69AB7124678D4C91E11D6F23")
+				.header("X-GitHub-Event", "push")
+				.header("X-GitHub-Delivery", "72d3162e-cc78-11e3-81ab-4c9367dc0958")
+				.content(getTestPayload("push")));
+		}
+		verify(this.dispatchQueue, times(1)).add(any());
+		verify(this.evictionService, times(1)).evict("gs-test-guide");
+		assertThat(this.meterRegistry.get("renderer.webhook.deliveries.duplicate").counter().count()).isOne();
+	}
+
+	@Test
+	void redeliveryShouldReturnOk() throws Exception {
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post("/webhook/guides")
+			.accept(MediaType.APPLICATION_JSON)
+			.contentType(MediaType.APPLICATION_JSON)
+			.header("X-Hub-Signature", "sha1=C8D5B1C972E8DCFB69AB7124678D4C91E11D6F23")
+			.header("X-GitHub-Event", "push")
+			.header("X-GitHub-Delivery", "9f1ec2d8-cc78-11e3-81ab-4c9367dc0958")
+			.content(getTestPayload("push"));
+		mockMvc.perform(request).andExpect(MockMvcResultMatchers.status().isAccepted());
+		mockMvc.perform(request)
 			.andExpect(MockMvcResultMatchers.status().isOk())
-			.andExpect(MockMvcResultMatchers.content().string("{ \"message\": \"Successfully processed update\" }"));
-		verify(this.service, times(1)).triggerRespositoryDispatch("test-org", "test-repo", "dispatch-token");
+			.andExpect(MockMvcResultMatchers.content().string("{ \"message\": \"Delivery already processed\" }"));
+	}
+
+	@Test
+	void failedDeliveryShouldBeProcessedWhenRedelivered() throws Exception {
+		willThrow(new UncheckedIOException(new IOException("disk full"))).willDoNothing()
+			.given(this.dispatchQueue)
+			.add(any());
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post("/webhook/guides")
+			.accept(MediaType.APPLICATION_JSON)
+			.contentType(MediaType.APPLICATION_JSON)
+			.header("X-Hub-Signature", "sha1=C8D5B1C972E8DCFB69AB7124678D4C91E11D6F23")
+			.header("X-GitHub-Event", "push")
+			.header("X-GitHub-Delivery", "b2a5c6f0-cc78-11e3-81ab-4c9367dc0958")
+			.content(getTestPayload("push"));
+		assertThatExceptionOfType(ServletException.class).isThrownBy(() -> mockMvc.perform(request));
+		mockMvc.perform(request).andExpect(MockMvcResultMatchers.status().isAccepted());
+		verify(this.dispatchQueue, times(2)).add(any());
 	}
 
 	private String getTestPayload(String fileName) throws Exception {
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides.webhook;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.spring.renderer.RendererApplication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests for the eviction of guides across several replicas of the application, each
+ * running in its own application context.
+ */
+class PeerEvictionTests {
+
+	private static final SimpleKey GUIDE_KEY = new SimpleKey("getting-started", "rest-service");
+
+	private final HttpClient httpClient = HttpClient.newHttpClient();
+
+	private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+
+	@TempDir
+	Path directory;
+
+	@AfterEach
+	void closeContexts() {
+		this.contexts.forEach(ConfigurableApplicationContext::close);
+	}
+
+	@Test
+	void evictionIsBroadcastToPeers() {
+		ConfigurableApplicationContext first = start();
+		ConfigurableApplicationContext second = start();
+		ConfigurableApplicationContext node = start("renderer.cluster.peers=" + url(first) + "," + url(second));
+		for (ConfigurableApplicationContext context : this.contexts) {
+			guideContentCache(context).put(GUIDE_KEY, ResponseEntity.ok("content"));
+		}
+		node.getBean(PeerEvictionService.class).evict("gs-rest-service");
+		assertThat(guideContentCache(node).get(GUIDE_KEY)).isNull();
+		await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+			assertThat(guideContentCache(first).get(GUIDE_KEY)).isNull();
+			assertThat(guideContentCache(second).get(GUIDE_KEY)).isNull();
+		});
+	}
+
+	@Test
+	void duplicateEvictionIsIgnored() throws Exception {
+		ConfigurableApplicationContext context = start();
+		byte[] message = "{\"id\":\"42\",\"repository\":\"gs-rest-service\"}".getBytes(StandardCharsets.UTF_8);
+		long timestamp = Instant.now().getEpochSecond();
+		String signature = context.getBean(PeerSignature.class).sign(message, timestamp);
+		guideContentCache(context).put(GUIDE_KEY, ResponseEntity.ok("content"));
+		HttpResponse<String> response = postEviction(context, message, timestamp, signature);
+		assertThat(response.statusCode()).isEqualTo(200);
+		assertThat(response.body()).contains("Successfully processed eviction");
+		assertThat(guideContentCache(context).get(GUIDE_KEY)).isNull();
+		guideContentCache(context).put(GUIDE_KEY, ResponseEntity.ok("content"));
+		response = postEviction(context, message, timestamp, signature);
+		assertThat(response.statusCode()).isEqualTo(200);
+		assertThat(response.body()).contains("Eviction already processed");
+		assertThat(guideContentCache(context).get(GUIDE_KEY)).isNotNull();
+	}
+
+	@Test
+	void evictionWithInvalidSignatureIsRejected() throws Exception {
+		ConfigurableApplicationContext context = start();
+		byte[] message = "{\"id\":\"42\",\"repository\":\"gs-rest-service\"}".getBytes(StandardCharsets.UTF_8);
+		guideContentCache(context).put(GUIDE_KEY, ResponseEntity.ok("content"));
+		HttpResponse<String> response = postEviction(context, message, Instant.now().getEpochSecond(),
+				"sha256=0123456789abcdef");
+		assertThat(response.statusCode()).isEqualTo(403);
+		assertThat(guideContentCache(context).get(GUIDE_KEY)).isNotNull();
+	}
+
+	@Test
+	void replayedEvictionIsRejected() throws Exception {
+		ConfigurableApplicationContext context = start();
+		byte[] message = "{\"id\":\"42\",\"repository\":\"gs-rest-service\"}".getBytes(StandardCharsets.UTF_8);
+		long timestamp = Instant.now().minus(Duration.ofMinutes(5)).getEpochSecond();
+		String signature = context.getBean(PeerSignature.class).sign(message, timestamp);
+		guideContentCache(context).put(GUIDE_KEY, ResponseEntity.ok("content"));
+		HttpResponse<String> response = postEviction(context, message, timestamp, signature);
+		assertThat(response.statusCode()).isEqualTo(403);
+		assertThat(guideContentCache(context).get(GUIDE_KEY)).isNotNull();
+		response = postEviction(context, message, Instant.now().getEpochSecond(), signature);
+		assertThat(response.statusCode()).isEqualTo(403);
+		assertThat(guideContentCache(context).get(GUIDE_KEY)).isNotNull();
+	}
+
+	private ConfigurableApplicationContext start(String... properties) {
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(RendererApplication.class)
+			.profiles("test")
+			.properties("server.port=0", "renderer.github.webhook.secret=token",
+					"renderer.cache.guide-content.disk.enabled=false",
+					"renderer.github.webhook.dispatch.queue-directory="
+							+ this.directory.resolve("dispatch-queue-" + this.contexts.size()))
+			.properties(properties)
+			.run();
+		this.contexts.add(context);
+		return context;
+	}
+
+	private String url(ConfigurableApplicationContext context) {
+		return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+	}
+
+	private Cache guideContentCache(ConfigurableApplicationContext context) {
+		return context.getBean(CacheManager.class).getCache("guideContent");
+	}
+
+	private HttpResponse<String> postEviction(ConfigurableApplicationContext context, byte[] message, long timestamp,
+			String signature) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(url(context) + PeerEvictionService.EVICTIONS_PATH))
+			.header("Content-Type", "application/json")
+			.header(PeerSignature.HEADER, signature)
+			.header(PeerSignature.TIMESTAMP_HEADER, String.valueOf(timestamp))
+			.POST(HttpRequest.BodyPublishers.ofByteArray(message))
+			.build();
+		return this.httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+}
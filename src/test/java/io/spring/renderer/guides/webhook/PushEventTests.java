@@ -0,0 +1,80 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides.webhook;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.io.ClassPathResource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link PushEvent}.
+ */
+class PushEventTests {
+
+	private final JsonFactory factory = new JsonFactory();
+
+	@Test
+	void parsePushPayload() throws IOException {
+		PushEvent push = PushEvent.parse(this.factory, readPayload("push"));
+		assertThat(push.ref()).isEqualTo("refs/heads/master");
+		assertThat(push.repository()).isEqualTo("gs-test-guide");
+		assertThat(push.headCommitId()).isEqualTo("a427f3f4db6c96ae5e86b610d0eef149393c9996");
+		assertThat(push.headCommitMessage()).isEqualTo("Remove empty newline at end of index-common");
+	}
+
+	@Test
+	void parsePushPayloadWithoutHeadCommit() throws IOException {
+		PushEvent push = PushEvent.parse(this.factory,
+				bytes("{\"ref\": \"refs/heads/main\", \"head_commit\": null, \"commits\": [{\"id\": \"1\"}], "
+						+ "\"repository\": {\"owner\": {\"name\": \"spring-guides\"}, \"name\": \"gs-rest-service\"}}"));
+		assertThat(push.ref()).isEqualTo("refs/heads/main");
+		assertThat(push.repository()).isEqualTo("gs-rest-service");
+		assertThat(push.headCommitId()).isNull();
+		assertThat(push.headCommitMessage()).isNull();
+	}
+
+	@Test
+	void parseInvalidPayload() {
+		assertThatExceptionOfType(JsonProcessingException.class)
+			.isThrownBy(() -> PushEvent.parse(this.factory, bytes("this is a test message")));
+		assertThatExceptionOfType(JsonProcessingException.class)
+			.isThrownBy(() -> PushEvent.parse(this.factory, bytes("[\"refs/heads/main\"]")));
+		byte[] truncated = bytes("{\"ref\": \"refs/heads/main\", \"commits\": [");
+		assertThatExceptionOfType(JsonProcessingException.class)
+			.isThrownBy(() -> PushEvent.parse(this.factory, truncated));
+	}
+
+	private byte[] readPayload(String name) throws IOException {
+		try (InputStream input = new ClassPathResource(name + ".json", getClass()).getInputStream()) {
+			return input.readAllBytes();
+		}
+	}
+
+	private static byte[] bytes(String payload) {
+		return payload.getBytes(StandardCharsets.UTF_8);
+	}
+
+}
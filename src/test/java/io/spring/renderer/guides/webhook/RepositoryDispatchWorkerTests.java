@@ -0,0 +1,171 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides.webhook;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.renderer.RendererProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link RepositoryDispatchWorker}.
+ */
+class RepositoryDispatchWorkerTests {
+
+	private static final Set<String> GUIDES = Set.of("gs-rest-service");
+
+	private static final Instant RECEIVED_AT = Instant.parse("2024-05-01T10:15:30Z");
+
+	private final GithubActionsService service = mock(GithubActionsService.class);
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final RendererProperties properties = new RendererProperties();
+
+	private DispatchQueue queue;
+
+	private RepositoryDispatchWorker worker;
+
+	@BeforeEach
+	void setup(@TempDir Path directory) throws Exception {
+		RendererProperties.Webhook webhook = this.properties.getGithub().getWebhook();
+		webhook.setActionOrg("test-org");
+		webhook.setActionRepo("test-repo");
+		webhook.setDispatchToken("dispatch-token");
+		webhook.getDispatch().setInitialBackoff(Duration.ofMillis(10));
+		webhook.getDispatch().setMaxBackoff(Duration.ofMillis(40));
+		webhook.getDispatch().setMaxAttempts(3);
+		webhook.getDispatch().setCoalescingWindow(Duration.ZERO);
+		this.queue = new DispatchQueue(directory, Jackson2ObjectMapperBuilder.json().build());
+		this.worker = new RepositoryDispatchWorker(this.queue, this.service, this.properties, this.meterRegistry);
+	}
+
+	@Test
+	void successfulDispatchIsRemovedFromQueue() throws Exception {
+		this.queue.add(new QueuedDispatch("gs-rest-service", Instant.now(), 0));
+		assertThat(this.worker.dispatch(this.queue.entries())).isTrue();
+		verify(this.service).triggerRespositoryDispatch("test-org", "test-repo", "dispatch-token", GUIDES);
+		assertThat(this.queue.size()).isZero();
+		assertThat(this.meterRegistry.get("renderer.webhook.dispatch").tag("outcome", "success").timer().count())
+			.isOne();
+		assertThat(this.meterRegistry.get("renderer.webhook.dispatch.delay").timer().count()).isOne();
+	}
+
+	@Test
+	void failedDispatchIsRetried() throws Exception {
+		willThrow(new RepositoryDispatchFailedException(502)).willThrow(new RepositoryDispatchFailedException(502))
+			.willDoNothing()
+			.given(this.service)
+			.triggerRespositoryDispatch("test-org", "test-repo", "dispatch-token", GUIDES);
+		this.queue.add(new QueuedDispatch("gs-rest-service", Instant.now(), 0));
+		this.worker.start();
+		try {
+			long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+			while (this.queue.size() > 0 && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+		}
+		finally {
+			this.worker.stop();
+		}
+		assertThat(this.queue.size()).isZero();
+		verify(this.service, times(3)).triggerRespositoryDispatch("test-org", "test-repo", "dispatch-token", GUIDES);
+		assertThat(this.meterRegistry.get("renderer.webhook.dispatch").tag("outcome", "failure").timer().count())
+			.isEqualTo(2);
+		assertThat(this.meterRegistry.get("renderer.webhook.dispatch.queue.depth").gauge().value()).isZero();
+	}
+
+	@Test
+	void dispatchIsAbandonedAfterMaxAttempts() throws Exception {
+		willThrow(new RepositoryDispatchFailedException(404)).given(this.service)
+			.triggerRespositoryDispatch("test-org", "test-repo", "dispatch-token", GUIDES);
+		this.queue.add(new QueuedDispatch("gs-rest-service", Instant.now(), 1));
+		assertThat(this.worker.dispatch(this.queue.entries())).isFalse();
+		assertThat(this.queue.peek(Duration.ZERO).dispatch().attempts()).isEqualTo(2);
+		assertThat(this.worker.dispatch(this.queue.entries())).isTrue();
+		assertThat(this.queue.size()).isZero();
+	}
+
+	@Test
+	void burstOfWebhooksIsCoalescedInSingleDispatch() throws Exception {
+		this.queue.add(new QueuedDispatch("gs-rest-service", Instant.now(), 0));
+		this.queue.add(new QueuedDispatch("gs-securing-web", Instant.now(), 0));
+		this.queue.add(new QueuedDispatch("gs-rest-service", Instant.now(), 0));
+		assertThat(this.worker.dispatch(this.queue.entries())).isTrue();
+		verify(this.service).triggerRespositoryDispatch("test-org", "test-repo", "dispatch-token",
+				Set.of("gs-rest-service", "gs-securing-web"));
+		assertThat(this.queue.size()).isZero();
+		assertThat(this.meterRegistry.get("renderer.webhook.dispatch.batch.size").summary().totalAmount())
+			.isEqualTo(3);
+		assertThat(this.meterRegistry.get("renderer.webhook.dispatch.delay").timer().count()).isEqualTo(3);
+	}
+
+	@Test
+	void dispatchWaitsForCoalescingWindow() {
+		this.properties.getGithub().getWebhook().getDispatch().setCoalescingWindow(Duration.ofSeconds(10));
+		List<DispatchQueue.Entry> batch = List.of(entry(0, 0), entry(1, 5));
+		assertThat(this.worker.coalescingDelay(batch, RECEIVED_AT.plusSeconds(8))).isEqualTo(Duration.ofSeconds(7));
+		assertThat(this.worker.coalescingDelay(batch, RECEIVED_AT.plusSeconds(20))).isZero();
+	}
+
+	@Test
+	void dispatchIsNotDelayedBeyondMaxDelay() {
+		RendererProperties.Webhook.Dispatch dispatch = this.properties.getGithub().getWebhook().getDispatch();
+		dispatch.setCoalescingWindow(Duration.ofSeconds(10));
+		dispatch.setMaxDelay(Duration.ofSeconds(60));
+		List<DispatchQueue.Entry> batch = List.of(entry(0, 0), entry(1, 30), entry(2, 58));
+		assertThat(this.worker.coalescingDelay(batch, RECEIVED_AT.plusSeconds(59))).isEqualTo(Duration.ofSeconds(1));
+	}
+
+	@Test
+	void retryIsNotDelayedByCoalescingWindow() {
+		this.properties.getGithub().getWebhook().getDispatch().setCoalescingWindow(Duration.ofSeconds(10));
+		List<DispatchQueue.Entry> batch = List.of(
+				new DispatchQueue.Entry(0, new QueuedDispatch("gs-rest-service", RECEIVED_AT, 1)), entry(1, 5));
+		assertThat(this.worker.coalescingDelay(batch, RECEIVED_AT.plusSeconds(6))).isZero();
+	}
+
+	@Test
+	void backoffIsExponentialAndBounded() {
+		assertThat(this.worker.backoff(1)).isEqualTo(Duration.ofMillis(10));
+		assertThat(this.worker.backoff(2)).isEqualTo(Duration.ofMillis(20));
+		assertThat(this.worker.backoff(3)).isEqualTo(Duration.ofMillis(40));
+		assertThat(this.worker.backoff(10)).isEqualTo(Duration.ofMillis(40));
+	}
+
+	private DispatchQueue.Entry entry(long sequence, int receivedAfterSeconds) {
+		return new DispatchQueue.Entry(sequence,
+				new QueuedDispatch("gs-guide-" + sequence, RECEIVED_AT.plusSeconds(receivedAfterSeconds), 0));
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022-2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.renderer.guides.webhook;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import io.spring.renderer.RendererProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+
+/**
+ * Tests for {@link WebhookSignatureVerifier}.
+ */
+class WebhookSignatureVerifierTests {
+
+	private static final String SECRET = "token";
+
+	private final WebhookSignatureVerifier verifier = createVerifier();
+
+	@Test
+	void sha256SignatureIsVerified() throws Exception {
+		byte[] payload = "{\"message\": \"test\"}".getBytes(StandardCharsets.UTF_8);
+		assertThatNoException()
+			.isThrownBy(() -> this.verifier.verify(payload, sign("HmacSHA256", "sha256=", payload), null));
+	}
+
+	@Test
+	void sha1SignatureIsVerifiedWhenNoSha256SignatureIsProvided() throws Exception {
+		byte[] payload = "{\"message\": \"test\"}".getBytes(StandardCharsets.UTF_8);
+		String signature = sign("HmacSHA1", "sha1=", payload).toUpperCase().replace("SHA1=", "sha1=");
+		assertThatNoException().isThrownBy(() -> this.verifier.verify(payload, null, signature));
+	}
+
+	@Test
+	void malformedSignaturesAreRejected() {
+		byte[] payload = "{\"message\": \"test\"}".getBytes(StandardCharsets.UTF_8);
+		for (String signature : new String[] { "sha256=", "sha256=zz", "sha1=0123", "nonsense" }) {
+			assertThatExceptionOfType(WebhookAuthenticationException.class)
+				.isThrownBy(() -> this.verifier.verify(payload, signature, null));
+		}
+		assertThatExceptionOfType(WebhookAuthenticationException.class)
+			.isThrownBy(() -> this.verifier.verify(payload, null, null));
+	}
+
+	@Test
+	void concurrentDeliveriesAreVerified() throws Exception {
+		int deliveries = 2000;
+		List<Callable<Boolean>> tasks = new ArrayList<>();
+		Random random = new Random(42);
+		for (int i = 0; i < deliveries; i++) {
+			byte[] payload = new byte[64 + random.nextInt(4096)];
+			random.nextBytes(payload);
+			boolean tampered = i % 10 == 0;
+			String signature = sign("HmacSHA256", "sha256=", tampered ? new byte[] { 42 } : payload);
+			tasks.add(() -> {
+				try {
+					this.verifier.verify(payload, signature, null);
+					return !tampered;
+				}
+				catch (WebhookAuthenticationException ex) {
+					return tampered;
+				}
+			});
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		try {
+			for (Future<Boolean> result : executor.invokeAll(tasks)) {
+				assertThat(result.get()).isTrue();
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static WebhookSignatureVerifier createVerifier() {
+		RendererProperties properties = new RendererProperties();
+		properties.getGithub().getWebhook().setSecret(SECRET);
+		return new WebhookSignatureVerifier(properties);
+	}
+
+	private static String sign(String algorithm, String prefix, byte[] payload) throws Exception {
+		Mac mac = Mac.getInstance(algorithm);
+		mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), algorithm));
+		return prefix + HexFormat.of().formatHex(mac.doFinal(payload));
+	}
+
+}